@@ -26,6 +26,7 @@ CREATE TABLE IF NOT EXISTS characters (
     age INTEGER NOT NULL,
     occupation VARCHAR(255),
     background TEXT,
+    reply_cache_enabled BOOLEAN NOT NULL DEFAULT TRUE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -36,7 +37,7 @@ CREATE TABLE IF NOT EXISTS stories (
     character_id BIGINT NOT NULL REFERENCES characters(id) ON DELETE CASCADE,
     title VARCHAR(255) NOT NULL,
     content TEXT NOT NULL,
-    embedding_vector vector(1536),
+    embedding_vector vector(768),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -52,12 +53,20 @@ CREATE TABLE IF NOT EXISTS chat_messages (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- ChatMessage 는 allocationSize=50 인 pooled 시퀀스를 사용하므로 증가폭을 맞춘다
+-- (기존 DB 는 애플리케이션이 기동할 때 db/chat-message-sequence.sql 로 같은 보정을 한다)
+ALTER SEQUENCE chat_messages_id_seq INCREMENT BY 50;
+
 -- 인덱스 생성
 CREATE INDEX IF NOT EXISTS idx_chat_messages_user_id ON chat_messages(user_id);
 CREATE INDEX IF NOT EXISTS idx_chat_messages_character_id ON chat_messages(character_id);
 CREATE INDEX IF NOT EXISTS idx_chat_messages_session_id ON chat_messages(session_id);
+-- 대화 기록 키셋 페이지네이션 (user, character, created_at, id)
+CREATE INDEX IF NOT EXISTS idx_chat_messages_user_character_created ON chat_messages(user_id, character_id, created_at DESC, id DESC);
 CREATE INDEX IF NOT EXISTS idx_stories_character_id ON stories(character_id);
-CREATE INDEX IF NOT EXISTS idx_stories_embedding_vector ON stories USING ivfflat (embedding_vector vector_cosine_ops);
+-- 스토리 검색은 코사인 거리(<=>)로 정렬하므로 같은 연산자 클래스의 HNSW 인덱스를 사용
+-- (기존 DB 는 애플리케이션이 기동할 때 db/story-embedding-index.sql 로 같은 인덱스를 만든다)
+CREATE INDEX IF NOT EXISTS idx_stories_embedding_hnsw ON stories USING hnsw (embedding_vector vector_cosine_ops) WITH (m = 16, ef_construction = 64);
 
 -- 기본 데이터 삽입 (선택사항)
 INSERT INTO characters (name, description, personality, speaking_style, age, occupation, background) 
@@ -0,0 +1,73 @@
+// MVC(기본 프로필) 와 WebFlux(reactive 프로필) 채팅 스택 비교용 k6 스크립트.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e STACK=mvc      loadtest/k6/chat-stack-compare.js
+//   k6 run -e BASE_URL=http://localhost:8080 -e STACK=reactive loadtest/k6/chat-stack-compare.js
+//
+// history 시나리오는 LLM 없이 DB 만 타므로 두 스택의 순수 처리량/지연 차이가 드러나고,
+// stream 시나리오는 느린 응답을 오래 붙잡고 있는 동시 연결 수를 본다.
+// (stream 은 파이썬 서버 대신 `./gradlew runStubLlm -Dloadtest.stub.first-token=500ms` 로 스텁을 띄워야 LLM 성능과 섞이지 않는다)
+import http from 'k6/http';
+import { check } from 'k6';
+import { Trend, Rate } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const STACK = __ENV.STACK || 'mvc';
+const CHARACTER_ID = __ENV.CHARACTER_ID || '1';
+const USERNAME = __ENV.USERNAME || 'guest';
+const MAX_VUS = parseInt(__ENV.MAX_VUS || '2000', 10);
+
+const streamFirstByte = new Trend('chat_stream_first_byte', true);
+const rejected = new Rate('chat_rejected');
+
+export const options = {
+    tags: { stack: STACK },
+    scenarios: {
+        history: {
+            executor: 'constant-arrival-rate',
+            exec: 'history',
+            rate: parseInt(__ENV.HISTORY_RPS || '500', 10),
+            timeUnit: '1s',
+            duration: '2m',
+            preAllocatedVUs: 200,
+            maxVUs: 1000,
+        },
+        stream: {
+            executor: 'ramping-vus',
+            exec: 'stream',
+            startTime: '2m',
+            stages: [
+                { duration: '1m', target: MAX_VUS },
+                { duration: '3m', target: MAX_VUS },
+                { duration: '30s', target: 0 },
+            ],
+        },
+    },
+    thresholds: {
+        'http_req_duration{scenario:history}': ['p(99)<500'],
+        'chat_stream_first_byte': ['p(99)<5000'],
+        'http_req_failed{scenario:history}': ['rate<0.01'],
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function history() {
+    const res = http.get(`${BASE_URL}/chat/api/history?characterId=${CHARACTER_ID}&username=${USERNAME}&size=20`);
+    check(res, { 'history 200': (r) => r.status === 200 });
+}
+
+export function stream() {
+    const res = http.post(`${BASE_URL}/chat/api/stream`, {
+        characterId: CHARACTER_ID,
+        username: USERNAME,
+        message: `부하 테스트 ${__VU}-${__ITER}`,
+    }, {
+        headers: { Accept: 'text/event-stream' },
+        timeout: '180s',
+    });
+    // 429 는 리미터가 정상적으로 거절한 것이므로 실패가 아니라 거절률로 따로 본다
+    rejected.add(res.status === 429);
+    if (res.status === 200) {
+        streamFirstByte.add(res.timings.waiting);
+    }
+    check(res, { 'stream 200 or 429': (r) => r.status === 200 || r.status === 429 });
+}
@@ -0,0 +1,80 @@
+package com.datewithai.domain.chat.dto;
+
+import com.datewithai.domain.character.entity.Character;
+import com.datewithai.domain.chat.entity.ChatMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메시지마다 실행되는 프롬프트 조립과 대화 기록 매핑을 측정한다.
+ * (캐릭터 정보 문자열은 CharacterPromptRegistry 가 캐릭터 변경 시에만 만들고, 메시지마다 만드는 것은 AiChatRequest 다)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ChatHotPathBenchmark {
+
+    // 대화 기억에 남는 턴 수(chat.memory.max-turns)와 기록 조회 기본 페이지 크기
+    @Param({"8", "20"})
+    private int historySize;
+
+    private Character character;
+    private CharacterPrompt prompt;
+    private List<ChatMessage> history;
+
+    @Setup
+    public void setUp() {
+        character = new Character("호시노 아이",
+                "아이돌 그룹 B코마치의 센터. 무대 위에서는 누구보다 빛나지만 진짜 속마음은 좀처럼 드러내지 않는다.",
+                "밝고 사교적이며 거짓말에 능숙하다. 팬과 동료를 아끼지만 사랑이 무엇인지 아직 잘 모른다.",
+                "반말과 존댓말을 섞어 쓰며, 문장 끝에 장난스러운 말투를 자주 붙인다.",
+                20);
+        character.setId(1L);
+        prompt = CharacterPrompt.from(character);
+
+        LocalDateTime now = LocalDateTime.now();
+        history = new ArrayList<>(historySize);
+        for (int i = 0; i < historySize; i++) {
+            ChatMessage message = new ChatMessage(null, character,
+                    i % 2 == 0 ? "오늘 무대 어땠어? 긴장 많이 했지?" : "응, 조금! 그래도 다들 응원해줘서 힘이 났어.",
+                    i % 2 == 0 ? ChatMessage.MessageType.USER : ChatMessage.MessageType.AI,
+                    "session-1");
+            message.setId((long) i);
+            message.setCreatedAt(now.minusSeconds(historySize - i));
+            history.add(message);
+        }
+    }
+
+    @Benchmark
+    public String buildCharacterInfo() {
+        return CharacterPrompt.buildCharacterInfo(character);
+    }
+
+    @Benchmark
+    public CharacterPrompt characterPrompt() {
+        return CharacterPrompt.from(character);
+    }
+
+    @Benchmark
+    public AiChatRequest chatRequest() {
+        AiChatRequest request = prompt.toRequest("오늘 하루 어땠어?");
+        request.setConversationContext("사용자: 안녕!\n호시노 아이: 안녕~ 오늘도 와줬네!");
+        return request;
+    }
+
+    @Benchmark
+    public List<ChatHistoryDto> historyFromEntities() {
+        return history.stream().map(ChatHistoryDto::fromEntity).toList();
+    }
+}
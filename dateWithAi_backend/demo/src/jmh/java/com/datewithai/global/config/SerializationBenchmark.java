@@ -0,0 +1,85 @@
+package com.datewithai.global.config;
+
+import com.datewithai.domain.chat.dto.AiChatRequest;
+import com.datewithai.domain.chat.dto.AiChatResponse;
+import com.datewithai.domain.chat.dto.ChatHistoryDto;
+import com.datewithai.domain.chat.dto.ConversationMemory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메시지마다 오가는 직렬화를 실제 설정 그대로 측정한다.
+ * HTTP 본문은 {@link WebConfig#httpObjectMapper()}, 대화 기억은 {@link RedisConfig#redisValueSerializer()} 를 쓴다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private ObjectMapper httpObjectMapper;
+    private GenericJackson2JsonRedisSerializer redisSerializer;
+
+    private AiChatRequest request;
+    private byte[] responseJson;
+    private ConversationMemory memory;
+    private byte[] memoryBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        httpObjectMapper = WebConfig.httpObjectMapper();
+        redisSerializer = RedisConfig.redisValueSerializer();
+
+        request = new AiChatRequest("오늘 하루 어땠어?", "hoshino ai_character.txt",
+                "캐릭터 이름: 호시노 아이\n캐릭터 설명: 아이돌 그룹 B코마치의 센터.\n성격: 밝고 사교적이며 거짓말에 능숙하다.\n");
+        request.setConversationContext("사용자: 안녕!\n호시노 아이: 안녕~ 오늘도 와줬네!");
+        request.setStoryContext("B코마치는 오늘 첫 돔 공연을 앞두고 있다.");
+
+        AiChatResponse response = new AiChatResponse("응, 조금 떨렸지만 다들 응원해줘서 힘이 났어! 너는 오늘 어땠어?");
+        response.setSimilarityScores(List.of(0.82, 0.77, 0.64));
+        responseJson = httpObjectMapper.writeValueAsBytes(response);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ChatHistoryDto> turns = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            turns.add(new ChatHistoryDto(
+                    i % 2 == 0 ? "오늘 무대 어땠어? 긴장 많이 했지?" : "응, 조금! 그래도 다들 응원해줘서 힘이 났어.",
+                    i % 2 == 0 ? "USER" : "AI",
+                    now.minusSeconds(8 - i)));
+        }
+        memory = new ConversationMemory("사용자는 공연을 보러 온 팬이다.", turns);
+        memoryBytes = redisSerializer.serialize(memory);
+    }
+
+    @Benchmark
+    public byte[] writeChatRequest() throws IOException {
+        return httpObjectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public AiChatResponse readChatResponse() throws IOException {
+        return httpObjectMapper.readValue(responseJson, AiChatResponse.class);
+    }
+
+    @Benchmark
+    public byte[] serializeConversationMemory() {
+        return redisSerializer.serialize(memory);
+    }
+
+    @Benchmark
+    public Object deserializeConversationMemory() {
+        return redisSerializer.deserialize(memoryBytes);
+    }
+}
@@ -0,0 +1,320 @@
+package com.datewithai.loadtest;
+
+import com.datewithai.domain.character.entity.Character;
+import com.datewithai.domain.character.repository.CharacterRepository;
+import com.datewithai.domain.user.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.MountableFile;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 스텁 LLM 서버와 컨테이너 Postgres/Redis 위에 앱 전체를 띄우고, 가상 사용자들이 채팅/스토리 API 를 섞어 호출한다.
+ * 사용자마다 생각하는 시간(think time)을 두는 닫힌 모델이라 실제 사용 패턴과 요청 수 제한에 가깝게 동작한다.
+ * <p>
+ * ./gradlew loadTest -Dloadtest.users=200 -Dloadtest.duration=5m -Dloadtest.stub.parallelism=4
+ * <ul>
+ *   <li>loadtest.users / duration / ramp-up / think-time / mix - 부하 모양</li>
+ *   <li>loadtest.stub.* - 스텁 LLM 의 지연 분포와 토큰 속도 ({@link StubLlmServer})</li>
+ *   <li>loadtest.app.* - 앱 설정 덮어쓰기 (예: -Dloadtest.app.rate-limit.enabled=false)</li>
+ * </ul>
+ * 결과는 표로 출력하고 build/reports/loadtest 에 JSON 으로 남긴다. 오류율(429 제외)이 max-error-rate 를 넘으면 실패한다.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // 사용자마다 다른 주소로 보이도록 X-Forwarded-For 를 믿는다 (리미터와 요청 수 제한이 접속 주소 기준)
+        "server.forward-headers-strategy=native",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.datewithai=INFO",
+        "logging.level.org.springframework.web=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "diagnostics.virtual-threads.pinning.enabled=false"
+})
+class ChatLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatLoadTest.class);
+
+    private static final String APP_PROPERTY_PREFIX = "loadtest.app.";
+    private static final String BUSY_MESSAGE = "혼잡";
+    private static final List<String> MESSAGES = List.of(
+            "안녕!", "오늘 하루 어땠어?", "요즘 무슨 노래 들어?", "주말에 뭐 할 거야?",
+            "나 오늘 좀 힘들었어", "좋아하는 음식이 뭐야?", "어제 공연 정말 멋있었어!",
+            "너는 꿈이 뭐야?", "비 오는 날 좋아해?", "내일 또 얘기하자");
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(
+            DockerImageName.parse("pgvector/pgvector:pg17").asCompatibleSubstituteFor("postgres"))
+            .withUrlParam("reWriteBatchedInserts", "true")
+            .withCopyFileToContainer(MountableFile.forHostPath("database/init-db.sql"),
+                    "/docker-entrypoint-initdb.d/init-db.sql");
+
+    @Container
+    @ServiceConnection(name = "redis")
+    static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7.4-alpine"))
+            .withExposedPorts(6379);
+
+    private static final StubLlmServer STUB = StubLlmServer.start(0);
+
+    private final int users = Integer.getInteger("loadtest.users", 50);
+    private final Duration duration = DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "2m"));
+    private final Duration rampUp = DurationStyle.detectAndParse(System.getProperty("loadtest.ramp-up", "30s"));
+    private final LatencyDistribution thinkTime = LatencyDistribution.parse(System.getProperty("loadtest.think-time", "3s/15s"));
+    private final String mixSpec = System.getProperty("loadtest.mix",
+            "chat-stream=45,chat-send=5,history=30,story-list=15,story-create=5");
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+    private final Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "build/reports/loadtest"));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CharacterRepository characterRepository;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("ai.python-service.base-url", STUB::getBaseUrl);
+        System.getProperties().forEach((key, value) -> {
+            String name = key.toString();
+            if (name.startsWith(APP_PROPERTY_PREFIX)) {
+                registry.add(name.substring(APP_PROPERTY_PREFIX.length()), value::toString);
+            }
+        });
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void chatAndStoryMix() throws Exception {
+        List<Long> characterIds = characterRepository.findAll().stream().map(Character::getId).toList();
+        LoadOperation.Mix mix = LoadOperation.Mix.parse(mixSpec);
+        for (int i = 0; i < users; i++) {
+            String username = "load-user-" + i;
+            if (!userService.existsByUsername(username)) {
+                userService.createUser(username, "password", username + "@loadtest.local");
+            }
+        }
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("users", users);
+        settings.put("duration", duration.toString());
+        settings.put("rampUp", rampUp.toString());
+        settings.put("thinkTime", thinkTime.toString());
+        settings.put("mix", mixSpec);
+        settings.put("stub", System.getProperties().entrySet().stream()
+                .filter(entry -> entry.getKey().toString().startsWith("loadtest.stub."))
+                .collect(Collectors.toMap(entry -> entry.getKey().toString(), entry -> entry.getValue().toString())));
+        LoadTestReport report = new LoadTestReport(settings);
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        report.start();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                VirtualUser user = new VirtualUser(i, characterIds.get(i % characterIds.size()));
+                long startDelay = rampUp.toNanos() * i / Math.max(1, users);
+                executor.submit(() -> user.run(mix, report, startDelay, deadline));
+            }
+        }
+        report.finish();
+
+        log.info("Load test finished{}", report.toTable());
+        report.write(reportDir);
+
+        double errorRate = report.totalRequests() == 0 ? 1 : (double) report.totalErrors() / report.totalRequests();
+        assertTrue(report.totalRequests() > 0, "no requests were made");
+        assertTrue(errorRate <= maxErrorRate, String.format("error rate %.2f%% exceeds %.2f%%", errorRate * 100, maxErrorRate * 100));
+    }
+
+    // 한 명의 사용자: 정해진 캐릭터와 대화하면서 같은 세션을 이어 쓰고, 행동 사이마다 생각하는 시간을 둔다
+    private final class VirtualUser {
+        private final String username;
+        private final String address;
+        private final Long characterId;
+        private String sessionId;
+
+        private VirtualUser(int index, Long characterId) {
+            this.username = "load-user-" + index;
+            this.address = "10.0." + (index / 250) + "." + (index % 250 + 1);
+            this.characterId = characterId;
+        }
+
+        private void run(LoadOperation.Mix mix, LoadTestReport report, long startDelayNanos, long deadline) {
+            try {
+                Thread.sleep(Duration.ofNanos(startDelayNanos));
+                while (System.nanoTime() < deadline) {
+                    LoadOperation operation = mix.next();
+                    long start = System.nanoTime();
+                    try {
+                        Outcome outcome = execute(operation, report, start);
+                        switch (outcome) {
+                            case OK -> report.recordSuccess(operation, System.nanoTime() - start);
+                            case REJECTED -> report.recordRejected(operation);
+                            case ERROR -> report.recordError(operation);
+                        }
+                    } catch (IOException e) {
+                        log.debug("{} failed for {}: {}", operation.getKey(), username, e.toString());
+                        report.recordError(operation);
+                    }
+                    Thread.sleep(thinkTime.sample());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private Outcome execute(LoadOperation operation, LoadTestReport report, long start) throws IOException, InterruptedException {
+            return switch (operation) {
+                case CHAT_STREAM -> chatStream(report, start);
+                case CHAT_SEND -> status(send(post("/chat/api/send", form(Map.of(
+                        "characterId", characterId, "message", randomMessage())))));
+                case HISTORY -> status(send(get("/chat/api/history?characterId=" + characterId
+                        + "&username=" + username + "&size=20")));
+                case STORY_LIST -> status(send(get("/stories/api?characterId=" + characterId)));
+                case STORY_CREATE -> status(send(request("/stories/api")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of(
+                                "characterId", characterId,
+                                "title", "부하 테스트 스토리",
+                                "content", username + " 의 이야기: " + randomMessage()))))
+                        .build()));
+            };
+        }
+
+        // SSE 를 끝까지 읽으면서 첫 조각이 오기까지의 시간을 따로 잰다
+        private Outcome chatStream(LoadTestReport report, long start) throws IOException, InterruptedException {
+            Map<String, Object> params = new LinkedHashMap<>();
+            params.put("characterId", characterId);
+            params.put("message", randomMessage());
+            params.put("username", username);
+            if (sessionId != null) {
+                params.put("sessionId", sessionId);
+            }
+            HttpRequest request = request("/chat/api/stream")
+                    .header("Accept", "text/event-stream")
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form(params)))
+                    .build();
+            HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+            try (Stream<String> lines = response.body()) {
+                if (response.statusCode() != 200) {
+                    return status(response.statusCode());
+                }
+                boolean first = true;
+                Iterator<String> iterator = lines.iterator();
+                while (iterator.hasNext()) {
+                    String line = iterator.next();
+                    if (!line.startsWith("data:")) {
+                        continue;
+                    }
+                    JsonNode chunk = objectMapper.readTree(line.substring("data:".length()));
+                    if (chunk.hasNonNull("error")) {
+                        return chunk.get("error").asText().contains(BUSY_MESSAGE) ? Outcome.REJECTED : Outcome.ERROR;
+                    }
+                    if (first) {
+                        report.recordTimeToFirstToken(System.nanoTime() - start);
+                        first = false;
+                    }
+                    if (chunk.hasNonNull("sessionId")) {
+                        sessionId = chunk.get("sessionId").asText();
+                    }
+                    if (chunk.path("finished").asBoolean()) {
+                        return Outcome.OK;
+                    }
+                }
+                // 완료 조각 없이 끊긴 스트림
+                return Outcome.ERROR;
+            }
+        }
+
+        private int send(HttpRequest request) throws IOException, InterruptedException {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+
+        private HttpRequest get(String path) {
+            return request(path).GET().build();
+        }
+
+        private HttpRequest post(String path, String form) {
+            return request(path)
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form))
+                    .build();
+        }
+
+        private HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .header("X-Forwarded-For", address)
+                    .timeout(Duration.ofMinutes(3));
+        }
+    }
+
+    private static Outcome status(int statusCode) {
+        if (statusCode == 429) {
+            return Outcome.REJECTED;
+        }
+        return statusCode >= 200 && statusCode < 300 ? Outcome.OK : Outcome.ERROR;
+    }
+
+    private static String form(Map<String, Object> params) {
+        return params.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + URLEncoder.encode(String.valueOf(entry.getValue()), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+    }
+
+    private static String randomMessage() {
+        return MESSAGES.get(ThreadLocalRandom.current().nextInt(MESSAGES.size()));
+    }
+
+    private enum Outcome {
+        OK, REJECTED, ERROR
+    }
+}
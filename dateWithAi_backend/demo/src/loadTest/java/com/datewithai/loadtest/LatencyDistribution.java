@@ -0,0 +1,52 @@
+package com.datewithai.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 지연 시간 분포. "200ms" 처럼 하나만 주면 고정값, "800ms/4s" 처럼 주면 중앙값/p99 를 맞춘 로그 정규 분포다.
+ * (LLM 응답 시간처럼 오른쪽 꼬리가 긴 분포를 두 숫자로 흉내 낸다)
+ */
+public final class LatencyDistribution {
+
+    // 표준 정규 분포의 99 백분위 z 값
+    private static final double Z_99 = 2.3263;
+
+    private final String spec;
+    private final double medianMillis;
+    private final double sigma;
+
+    private LatencyDistribution(String spec, double medianMillis, double sigma) {
+        this.spec = spec;
+        this.medianMillis = medianMillis;
+        this.sigma = sigma;
+    }
+
+    public static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split("/");
+        double median = DurationStyle.detectAndParse(parts[0].trim()).toNanos() / 1_000_000.0;
+        if (parts.length == 1) {
+            return new LatencyDistribution(spec, median, 0);
+        }
+        double p99 = DurationStyle.detectAndParse(parts[1].trim()).toNanos() / 1_000_000.0;
+        if (p99 < median) {
+            throw new IllegalArgumentException("p99 must not be below the median: " + spec);
+        }
+        return new LatencyDistribution(spec, median, median > 0 ? Math.log(p99 / median) / Z_99 : 0);
+    }
+
+    public Duration sample() {
+        if (sigma == 0) {
+            return Duration.ofNanos((long) (medianMillis * 1_000_000));
+        }
+        double millis = medianMillis * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+        return Duration.ofNanos((long) (millis * 1_000_000));
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
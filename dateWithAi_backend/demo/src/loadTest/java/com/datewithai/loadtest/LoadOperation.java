@@ -0,0 +1,75 @@
+package com.datewithai.loadtest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 가상 사용자가 한 번에 하는 행동. 비율은 loadtest.mix 로 바꾼다 (예: chat-stream=45,history=30,...)
+public enum LoadOperation {
+    CHAT_STREAM("chat-stream"),
+    CHAT_SEND("chat-send"),
+    HISTORY("history"),
+    STORY_LIST("story-list"),
+    STORY_CREATE("story-create");
+
+    private final String key;
+
+    LoadOperation(String key) {
+        this.key = key;
+    }
+
+    public String getKey() { return key; }
+
+    public static LoadOperation fromKey(String key) {
+        for (LoadOperation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown load operation: " + key);
+    }
+
+    // 가중치 비율대로 행동을 고르는 선택기
+    public static final class Mix {
+        private final List<LoadOperation> operations = new ArrayList<>();
+        private final double[] cumulative;
+
+        private Mix(Map<LoadOperation, Double> weights) {
+            double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+            cumulative = new double[weights.size()];
+            double sum = 0;
+            for (Map.Entry<LoadOperation, Double> entry : weights.entrySet()) {
+                sum += entry.getValue() / total;
+                cumulative[operations.size()] = sum;
+                operations.add(entry.getKey());
+            }
+        }
+
+        public static Mix parse(String spec) {
+            Map<LoadOperation, Double> weights = new EnumMap<>(LoadOperation.class);
+            for (String entry : spec.split(",")) {
+                String[] pair = entry.trim().split("=");
+                double weight = Double.parseDouble(pair[1].trim());
+                if (weight > 0) {
+                    weights.put(fromKey(pair[0].trim()), weight);
+                }
+            }
+            if (weights.isEmpty()) {
+                throw new IllegalArgumentException("Load mix has no operations: " + spec);
+            }
+            return new Mix(weights);
+        }
+
+        public LoadOperation next() {
+            double roll = ThreadLocalRandom.current().nextDouble();
+            for (int i = 0; i < cumulative.length; i++) {
+                if (roll < cumulative[i]) {
+                    return operations.get(i);
+                }
+            }
+            return operations.get(operations.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.datewithai.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 행동별 지연(HdrHistogram, 마이크로초)과 결과 수를 모아 표와 JSON 으로 남긴다.
+ * 429 는 리미터가 의도대로 거절한 것이므로 오류와 따로 센다.
+ */
+public class LoadTestReport {
+
+    private final Map<LoadOperation, Stats> stats = new EnumMap<>(LoadOperation.class);
+    private final Histogram timeToFirstToken = new ConcurrentHistogram(3);
+    private final Map<String, Object> settings;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+
+    public LoadTestReport(Map<String, Object> settings) {
+        this.settings = settings;
+        for (LoadOperation operation : LoadOperation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    public void start() {
+        startedNanos = System.nanoTime();
+    }
+
+    public void finish() {
+        finishedNanos = System.nanoTime();
+    }
+
+    public void recordSuccess(LoadOperation operation, long latencyNanos) {
+        Stats stat = stats.get(operation);
+        stat.ok.increment();
+        stat.latency.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+    }
+
+    public void recordRejected(LoadOperation operation) {
+        stats.get(operation).rejected.increment();
+    }
+
+    public void recordError(LoadOperation operation) {
+        stats.get(operation).errors.increment();
+    }
+
+    public void recordTimeToFirstToken(long nanos) {
+        timeToFirstToken.recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    public long totalRequests() {
+        return stats.values().stream().mapToLong(Stats::total).sum();
+    }
+
+    public long totalErrors() {
+        return stats.values().stream().mapToLong(stat -> stat.errors.sum()).sum();
+    }
+
+    public Map<String, Object> toMap() {
+        double seconds = Duration.ofNanos(finishedNanos - startedNanos).toMillis() / 1000.0;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        stats.forEach((operation, stat) -> {
+            if (stat.total() == 0) {
+                return;
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("requests", stat.total());
+            entry.put("ok", stat.ok.sum());
+            entry.put("rejected", stat.rejected.sum());
+            entry.put("errors", stat.errors.sum());
+            entry.put("throughputPerSecond", round(stat.ok.sum() / seconds));
+            entry.put("latencyMillis", percentiles(stat.latency));
+            operations.put(operation.getKey(), entry);
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("durationSeconds", round(seconds));
+        report.put("settings", settings);
+        report.put("throughputPerSecond", round(totalRequests() / seconds));
+        report.put("operations", operations);
+        if (timeToFirstToken.getTotalCount() > 0) {
+            report.put("timeToFirstTokenMillis", percentiles(timeToFirstToken));
+        }
+        return report;
+    }
+
+    public String toTable() {
+        StringBuilder table = new StringBuilder(String.format("%n%-13s %8s %8s %8s %8s %9s %9s %9s %9s%n",
+                "operation", "requests", "rejected", "errors", "ok/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        double seconds = Duration.ofNanos(finishedNanos - startedNanos).toMillis() / 1000.0;
+        stats.forEach((operation, stat) -> {
+            if (stat.total() > 0) {
+                table.append(row(operation.getKey(), stat, seconds));
+            }
+        });
+        if (timeToFirstToken.getTotalCount() > 0) {
+            table.append(String.format("%-13s %8d %8s %8s %8s %9.1f %9.1f %9.1f %9.1f%n", "first-token",
+                    timeToFirstToken.getTotalCount(), "", "", "",
+                    millis(timeToFirstToken, 50), millis(timeToFirstToken, 95), millis(timeToFirstToken, 99),
+                    timeToFirstToken.getMaxValue() / 1000.0));
+        }
+        return table.toString();
+    }
+
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        byte[] json = objectMapper.writeValueAsBytes(toMap());
+        Files.write(directory.resolve("loadtest-" + System.currentTimeMillis() + ".json"), json);
+        Files.write(directory.resolve("loadtest-latest.json"), json);
+    }
+
+    private static String row(String name, Stats stat, double seconds) {
+        return String.format("%-13s %8d %8d %8d %8.2f %9.1f %9.1f %9.1f %9.1f%n", name,
+                stat.total(), stat.rejected.sum(), stat.errors.sum(), stat.ok.sum() / seconds,
+                millis(stat.latency, 50), millis(stat.latency, 95), millis(stat.latency, 99),
+                stat.latency.getMaxValue() / 1000.0);
+    }
+
+    private static Map<String, Object> percentiles(Histogram histogram) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("p50", round(millis(histogram, 50)));
+        values.put("p95", round(millis(histogram, 95)));
+        values.put("p99", round(millis(histogram, 99)));
+        values.put("max", round(histogram.getMaxValue() / 1000.0));
+        return values;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static final class Stats {
+        private final Histogram latency = new ConcurrentHistogram(3);
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        private long total() {
+            return ok.sum() + rejected.sum() + errors.sum();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.datewithai.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 파이썬 AI 서버(dateWithAi_python/main.py)와 같은 API 를 흉내 내는 부하 테스트용 서버.
+ * LLM 대신 설정한 분포대로 기다렸다가 토큰을 흘려보내므로, Ollama 없이도 Spring 쪽 처리량과 지연을 잴 수 있다.
+ * <ul>
+ *   <li>POST /chat, /chat/stream - 첫 토큰까지 {@code first-token} 만큼 기다린 뒤 {@code tokens-per-second} 속도로 응답</li>
+ *   <li>POST /embed - {@code embed-latency} 뒤에 텍스트마다 결정적인 단위 벡터를 돌려준다</li>
+ *   <li>{@code parallelism} 은 OLLAMA_NUM_PARALLEL 처럼 동시에 생성하는 요청 수 (0 이면 무제한)</li>
+ * </ul>
+ * 설정은 {@code loadtest.stub.*} 시스템 프로퍼티로 바꾼다.
+ * 단독 실행(./gradlew runStubLlm)하면 k6 스크립트의 대상 서버로도 쓸 수 있다.
+ */
+public class StubLlmServer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(StubLlmServer.class);
+
+    private static final String[] TOKENS = {"응", ", ", "오늘", "은 ", "정말 ", "즐거웠", "어", "! ", "너", "는 ", "어땠", "어", "? "};
+
+    private final HttpServer server;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final LatencyDistribution firstToken;
+    private final double tokensPerSecond;
+    private final int responseTokens;
+    private final LatencyDistribution embedLatency;
+    private final int embeddingDimensions;
+    private final String embeddingModel;
+    private final Semaphore generationSlots;
+
+    private StubLlmServer(int port) throws IOException {
+        this.firstToken = LatencyDistribution.parse(System.getProperty("loadtest.stub.first-token", "600ms/3s"));
+        this.tokensPerSecond = Double.parseDouble(System.getProperty("loadtest.stub.tokens-per-second", "25"));
+        this.responseTokens = Integer.getInteger("loadtest.stub.response-tokens", 80);
+        this.embedLatency = LatencyDistribution.parse(System.getProperty("loadtest.stub.embed-latency", "40ms/200ms"));
+        this.embeddingDimensions = Integer.getInteger("loadtest.stub.embedding-dimensions", 768);
+        this.embeddingModel = System.getProperty("loadtest.stub.embedding-model", "nomic-embed-text");
+        int parallelism = Integer.getInteger("loadtest.stub.parallelism", 1);
+        this.generationSlots = parallelism > 0 ? new Semaphore(parallelism, true) : null;
+
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        // 요청마다 잠들어 있는 시간이 대부분이므로 가상 스레드로 처리한다
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/chat/stream", exchange -> handle(exchange, this::chatStream));
+        server.createContext("/chat", exchange -> handle(exchange, this::chat));
+        server.createContext("/embed", exchange -> handle(exchange, this::embed));
+        server.createContext("/upload-knowledge", exchange -> handle(exchange, ex -> sendJson(ex, Map.of("status", "ok"))));
+        server.createContext("/knowledge/sources", exchange -> handle(exchange, ex -> sendJson(ex, List.of())));
+        server.createContext("/health", exchange -> handle(exchange, ex -> sendJson(ex, Map.of("status", "healthy"))));
+    }
+
+    public static StubLlmServer start(int port) {
+        try {
+            StubLlmServer stub = new StubLlmServer(port);
+            stub.server.start();
+            log.info("Stub LLM server listening on {} (first-token={}, tokens/s={}, tokens={}, embed={}, parallelism={})",
+                    stub.getBaseUrl(), stub.firstToken, stub.tokensPerSecond, stub.responseTokens, stub.embedLatency,
+                    stub.generationSlots != null ? stub.generationSlots.availablePermits() : "unbounded");
+            return stub;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start stub LLM server", e);
+        }
+    }
+
+    public static void main(String[] args) {
+        start(Integer.getInteger("loadtest.stub.port", 8000));
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void chat(HttpExchange exchange) throws IOException, InterruptedException {
+        readJson(exchange);
+        StringBuilder response = new StringBuilder();
+        generate(token -> response.append(token));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("response", response.toString());
+        body.put("context_used", List.of());
+        body.put("similarity_scores", List.of());
+        sendJson(exchange, body);
+    }
+
+    // 파이썬 서버와 같이 text/plain 으로 "data: {json}" 줄을 흘려보낸다
+    private void chatStream(HttpExchange exchange) throws IOException, InterruptedException {
+        readJson(exchange);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            StringBuilder full = new StringBuilder();
+            generate(token -> {
+                full.append(token);
+                writeEvent(out, Map.of("chunk", token, "full_response", full.toString()));
+            });
+            Map<String, Object> last = new LinkedHashMap<>();
+            last.put("chunk", "");
+            last.put("full_response", full.toString());
+            last.put("context_used", List.of());
+            last.put("similarity_scores", List.of());
+            last.put("finished", true);
+            writeEvent(out, last);
+        }
+    }
+
+    private void embed(HttpExchange exchange) throws IOException, InterruptedException {
+        JsonNode request = readJson(exchange);
+        Thread.sleep(embedLatency.sample());
+        List<float[]> embeddings = new ArrayList<>();
+        for (JsonNode text : request.path("texts")) {
+            embeddings.add(unitVector(text.asText()));
+        }
+        sendJson(exchange, Map.of("model", embeddingModel, "embeddings", embeddings));
+    }
+
+    // 생성 슬롯을 잡고 첫 토큰 지연 후 토큰을 일정 속도로 내보낸다 (응답 길이는 설정값의 ±50%)
+    private void generate(TokenSink sink) throws IOException, InterruptedException {
+        if (generationSlots != null) {
+            generationSlots.acquire();
+        }
+        try {
+            Thread.sleep(firstToken.sample());
+            int tokens = Math.max(1, (int) (responseTokens * (0.5 + ThreadLocalRandom.current().nextDouble())));
+            Duration interval = Duration.ofNanos((long) (1_000_000_000L / tokensPerSecond));
+            for (int i = 0; i < tokens; i++) {
+                if (i > 0) {
+                    Thread.sleep(interval);
+                }
+                sink.accept(TOKENS[i % TOKENS.length]);
+            }
+        } finally {
+            if (generationSlots != null) {
+                generationSlots.release();
+            }
+        }
+    }
+
+    // 같은 텍스트는 항상 같은 벡터가 되도록 텍스트 해시로 시드를 준다 (임베딩 캐시 적중률이 실제와 비슷해진다)
+    private float[] unitVector(String text) {
+        Random random = new Random(text.hashCode());
+        float[] vector = new float[embeddingDimensions];
+        double norm = 0;
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) random.nextGaussian();
+            norm += vector[i] * vector[i];
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+
+    private void writeEvent(OutputStream out, Map<String, Object> data) throws IOException {
+        out.write(("data: " + objectMapper.writeValueAsString(data) + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private JsonNode readJson(HttpExchange exchange) throws IOException {
+        return objectMapper.readTree(exchange.getRequestBody());
+    }
+
+    private void sendJson(HttpExchange exchange, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) {
+        try (exchange) {
+            handler.handle(exchange);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // 클라이언트(Spring)가 스트림을 먼저 끊은 경우
+            log.debug("Stub LLM request aborted: {}", e.toString());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException, InterruptedException;
+    }
+
+    @FunctionalInterface
+    private interface TokenSink {
+        void accept(String token) throws IOException;
+    }
+}
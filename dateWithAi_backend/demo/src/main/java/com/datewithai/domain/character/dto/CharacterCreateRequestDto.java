@@ -11,6 +11,7 @@ public class CharacterCreateRequestDto {
     private Integer age;
     private String occupation;
     private String background;
+    private Boolean replyCacheEnabled;
     
     public CharacterCreateRequestDto() {}
     
@@ -24,6 +25,9 @@ public class CharacterCreateRequestDto {
         character.setAge(this.age);
         character.setOccupation(this.occupation);
         character.setBackground(this.background);
+        if (this.replyCacheEnabled != null) {
+            character.setReplyCacheEnabled(this.replyCacheEnabled);
+        }
         return character;
     }
     
@@ -50,4 +54,7 @@ public class CharacterCreateRequestDto {
     
     public String getBackground() { return background; }
     public void setBackground(String background) { this.background = background; }
+    
+    public Boolean getReplyCacheEnabled() { return replyCacheEnabled; }
+    public void setReplyCacheEnabled(Boolean replyCacheEnabled) { this.replyCacheEnabled = replyCacheEnabled; }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ public class CharacterResponseDto {
     private Integer age;
     private String occupation;
     private String background;
+    private Boolean replyCacheEnabled;
     
     public CharacterResponseDto() {}
     
@@ -30,7 +31,7 @@ public class CharacterResponseDto {
     }
     
     public static CharacterResponseDto fromEntity(Character character) {
-        return new CharacterResponseDto(
+        CharacterResponseDto dto = new CharacterResponseDto(
             character.getId(),
             character.getName(),
             character.getDescription(),
@@ -41,6 +42,8 @@ public class CharacterResponseDto {
             character.getOccupation(),
             character.getBackground()
         );
+        dto.setReplyCacheEnabled(character.getReplyCacheEnabled());
+        return dto;
     }
     
     public Long getId() { return id; }
@@ -69,4 +72,7 @@ public class CharacterResponseDto {
     
     public String getBackground() { return background; }
     public void setBackground(String background) { this.background = background; }
+    
+    public Boolean getReplyCacheEnabled() { return replyCacheEnabled; }
+    public void setReplyCacheEnabled(Boolean replyCacheEnabled) { this.replyCacheEnabled = replyCacheEnabled; }
 }
\ No newline at end of file
@@ -40,6 +40,10 @@ public class Character {
     @Column(columnDefinition = "TEXT")
     private String background;
     
+    // false 이면 이 캐릭터의 응답은 응답 캐시를 거치지 않는다 (대본형 응답이 반복되어 보이지 않도록)
+    @Column(name = "reply_cache_enabled")
+    private Boolean replyCacheEnabled = true;
+    
     @Column(name = "created_at")
     @JsonIgnore
     private LocalDateTime createdAt;
@@ -104,6 +108,9 @@ public class Character {
     public String getBackground() { return background; }
     public void setBackground(String background) { this.background = background; }
     
+    public Boolean getReplyCacheEnabled() { return replyCacheEnabled; }
+    public void setReplyCacheEnabled(Boolean replyCacheEnabled) { this.replyCacheEnabled = replyCacheEnabled; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
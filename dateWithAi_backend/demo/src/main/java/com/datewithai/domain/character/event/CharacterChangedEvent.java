@@ -0,0 +1,16 @@
+package com.datewithai.domain.character.event;
+
+// 캐릭터가 저장/삭제된 뒤 발행되는 이벤트 (캐릭터 데이터를 미리 만들어 두는 컴포넌트들의 무효화용)
+public class CharacterChangedEvent {
+    private final Long characterId;
+    private final boolean deleted;
+    
+    public CharacterChangedEvent(Long characterId, boolean deleted) {
+        this.characterId = characterId;
+        this.deleted = deleted;
+    }
+    
+    public Long getCharacterId() { return characterId; }
+    
+    public boolean isDeleted() { return deleted; }
+}
@@ -2,8 +2,12 @@ package com.datewithai.domain.character.service;
 
 import com.datewithai.domain.character.repository.CharacterRepository;
 import com.datewithai.domain.character.entity.Character;
+import com.datewithai.domain.character.event.CharacterChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,10 +19,12 @@ import java.util.Optional;
 public class CharacterService {
     
     private final CharacterRepository characterRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Autowired
-    public CharacterService(CharacterRepository characterRepository) {
+    public CharacterService(CharacterRepository characterRepository, ApplicationEventPublisher eventPublisher) {
         this.characterRepository = characterRepository;
+        this.eventPublisher = eventPublisher;
     }
     
     @Cacheable(value = "characters", key = "#id")
@@ -44,23 +50,41 @@ public class CharacterService {
         return characterRepository.findByOccupation(occupation);
     }
     
+    // id/이름 두 가지 키로 캐시되므로 캐릭터 캐시는 통째로 비운다 (커밋 후 적용, 다른 노드 L1 도 함께)
+    @Caching(evict = {
+            @CacheEvict(value = "characters", allEntries = true),
+            @CacheEvict(value = "characterList", allEntries = true)
+    })
     @Transactional
     public Character save(Character character) {
-        return characterRepository.save(character);
+        Character saved = characterRepository.save(character);
+        eventPublisher.publishEvent(new CharacterChangedEvent(saved.getId(), false));
+        return saved;
     }
     
+    @Caching(evict = {
+            @CacheEvict(value = "characters", allEntries = true),
+            @CacheEvict(value = "characterList", allEntries = true)
+    })
     @Transactional
     public Character createCharacter(String name, String description, String personality, 
                                    String speakingStyle, Integer age, String occupation, String background) {
         Character character = new Character(name, description, personality, speakingStyle, age);
         character.setOccupation(occupation);
         character.setBackground(background);
-        return characterRepository.save(character);
+        Character saved = characterRepository.save(character);
+        eventPublisher.publishEvent(new CharacterChangedEvent(saved.getId(), false));
+        return saved;
     }
     
+    @Caching(evict = {
+            @CacheEvict(value = "characters", allEntries = true),
+            @CacheEvict(value = "characterList", allEntries = true)
+    })
     @Transactional
     public void deleteById(Long id) {
         characterRepository.deleteById(id);
+        eventPublisher.publishEvent(new CharacterChangedEvent(id, true));
     }
     
     public boolean existsById(Long id) {
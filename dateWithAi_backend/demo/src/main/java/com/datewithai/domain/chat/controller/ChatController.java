@@ -1,34 +1,54 @@
 package com.datewithai.domain.chat.controller;
 
 import com.datewithai.domain.chat.dto.AiChatResponse;
+import com.datewithai.domain.chat.dto.AiChatStreamChunk;
 import com.datewithai.domain.chat.dto.ChatHistoryDto;
+import com.datewithai.domain.chat.dto.ChatHistoryPageDto;
 import com.datewithai.domain.chat.service.ChatService;
 import com.datewithai.domain.character.service.CharacterService;
 import com.datewithai.domain.character.repository.CharacterRepository;
 import com.datewithai.domain.character.entity.Character;
+import com.datewithai.domain.user.entity.User;
+import com.datewithai.domain.user.service.UserService;
+import com.datewithai.global.llm.LlmCapacityExceededException;
+import com.datewithai.global.llm.LlmConcurrencyLimiter;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Optional;
 
+// reactive 프로필에서는 같은 경로를 ChatRouter/ChatHandler 가 처리한다
 @Controller
+@Profile("!reactive")
 @RequestMapping("/chat")
 public class ChatController {
     
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    
     private final ChatService chatService;
     private final CharacterService characterService;
     private final CharacterRepository characterRepository;
+    private final UserService userService;
+    private final LlmConcurrencyLimiter llmConcurrencyLimiter;
     
     @Autowired
-    public ChatController(ChatService chatService, CharacterService characterService, CharacterRepository characterRepository) {
+    public ChatController(ChatService chatService, CharacterService characterService, CharacterRepository characterRepository,
+                          UserService userService, LlmConcurrencyLimiter llmConcurrencyLimiter) {
         this.chatService = chatService;
         this.characterService = characterService;
         this.characterRepository = characterRepository;
+        this.userService = userService;
+        this.llmConcurrencyLimiter = llmConcurrencyLimiter;
     }
     
     
@@ -47,11 +67,70 @@ public class ChatController {
     @PostMapping("/api/send")
     public Mono<ResponseEntity<AiChatResponse>> sendMessage(
             @RequestParam Long characterId,
-            @RequestParam String message) {
+            @RequestParam String message,
+            HttpServletRequest httpRequest) {
         
-        return chatService.sendSimpleMessage(characterId, message)
+        return chatService.sendSimpleMessage(characterId, message, httpRequest.getRemoteAddr())
                 .map(ResponseEntity::ok)
-                .onErrorReturn(ResponseEntity.internalServerError().build());
+                .onErrorReturn(error -> !(error instanceof LlmCapacityExceededException),
+                        ResponseEntity.internalServerError().build());
+    }
+    
+    @ResponseBody
+    @PostMapping(value = "/api/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<AiChatStreamChunk>> streamMessage(
+            @RequestParam Long characterId,
+            @RequestParam String message,
+            @RequestParam(required = false) String sessionId,
+            @RequestParam(defaultValue = "guest") String username,
+            HttpServletRequest httpRequest) {
+        
+        // SSE 는 헤더가 먼저 나가므로 대기열이 가득 찬 경우는 스트림을 열기 전에 429 로 돌려보낸다
+        String clientKey = httpRequest.getRemoteAddr();
+        llmConcurrencyLimiter.checkCapacity(clientKey);
+        
+        return chatService.streamMessage(username, characterId, message, sessionId, clientKey)
+                .map(ChatController::toEvent);
+    }
+    
+    // 스트림이 끊긴 클라이언트의 재연결 (어느 노드로 와도 된다). LLM 을 다시 호출하지 않는다
+    @ResponseBody
+    @GetMapping(value = "/api/stream/resume", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<AiChatStreamChunk>> resumeStream(
+            @RequestParam String sessionId,
+            @RequestParam(required = false) String lastEventId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader) {
+        
+        return chatService.resumeStream(sessionId, lastEventIdHeader != null ? lastEventIdHeader : lastEventId)
+                .map(ChatController::toEvent);
+    }
+    
+    @ResponseBody
+    @GetMapping("/api/history")
+    public ResponseEntity<ChatHistoryPageDto> getHistory(
+            @RequestParam Long characterId,
+            @RequestParam(defaultValue = "guest") String username,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        Optional<User> user = userService.findByUsername(username);
+        if (user.isEmpty() || size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            return ResponseEntity.ok(chatService.getConversationPage(
+                    user.get().getId(), characterId, cursor, Math.min(size, MAX_HISTORY_PAGE_SIZE)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
-}
\ No newline at end of file
+    // id 는 Redis Stream 레코드 id (중계에 실패한 조각은 id 없이 나간다)
+    static ServerSentEvent<AiChatStreamChunk> toEvent(AiChatStreamChunk chunk) {
+        return ServerSentEvent.builder(chunk)
+                .id(chunk.getEventId())
+                .event(chunk.getError() != null ? "error" : chunk.isFinished() ? "done" : "token")
+                .build();
+    }
+}
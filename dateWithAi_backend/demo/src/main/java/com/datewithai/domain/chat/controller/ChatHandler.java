@@ -0,0 +1,218 @@
+package com.datewithai.domain.chat.controller;
+
+import com.datewithai.domain.character.repository.CharacterRepository;
+import com.datewithai.domain.chat.dto.AiChatStreamChunk;
+import com.datewithai.domain.chat.service.ReactiveChatService;
+import com.datewithai.global.llm.LlmCapacityExceededException;
+import com.datewithai.global.llm.LlmConcurrencyLimiter;
+import com.datewithai.global.ratelimit.RateLimitDecision;
+import com.datewithai.global.ratelimit.RateLimitPolicy;
+import com.datewithai.global.ratelimit.TokenBucketRateLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.codec.multipart.FormFieldPart;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * reactive 프로필에서 {@link ChatController} 대신 /chat 요청을 처리한다 (라우팅은 ChatRouter).
+ * 요청/응답 형식은 MVC 버전과 같아서 화면 스크립트는 그대로 쓴다.
+ */
+@Component
+@Profile("reactive")
+public class ChatHandler {
+    
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    
+    private final ReactiveChatService reactiveChatService;
+    private final CharacterRepository characterRepository;
+    private final LlmConcurrencyLimiter llmConcurrencyLimiter;
+    private final TokenBucketRateLimiter tokenBucketRateLimiter;
+    private final RateLimitPolicy rateLimitPolicy;
+    private final Scheduler blockingScheduler;
+    
+    @Autowired
+    public ChatHandler(ReactiveChatService reactiveChatService, CharacterRepository characterRepository,
+                       LlmConcurrencyLimiter llmConcurrencyLimiter,
+                       TokenBucketRateLimiter tokenBucketRateLimiter, RateLimitPolicy rateLimitPolicy,
+                       @Qualifier("blockingScheduler") Scheduler blockingScheduler) {
+        this.reactiveChatService = reactiveChatService;
+        this.characterRepository = characterRepository;
+        this.llmConcurrencyLimiter = llmConcurrencyLimiter;
+        this.tokenBucketRateLimiter = tokenBucketRateLimiter;
+        this.rateLimitPolicy = rateLimitPolicy;
+        this.blockingScheduler = blockingScheduler;
+    }
+    
+    // 화면 렌더링은 채팅 경로가 아니므로 캐릭터 엔티티는 JPA 로 읽는다
+    public Mono<ServerResponse> chatRoom(ServerRequest request) {
+        Long characterId = Long.valueOf(request.pathVariable("characterId"));
+        return Mono.fromCallable(() -> characterRepository.findById(characterId))
+                .subscribeOn(blockingScheduler)
+                .flatMap(character -> character
+                        .map(found -> ServerResponse.ok().render("chat/room", Map.of("character", found)))
+                        .orElseGet(() -> ServerResponse.status(HttpStatus.FOUND).location(URI.create("/")).build()));
+    }
+    
+    public Mono<ServerResponse> send(ServerRequest request) {
+        return params(request).flatMap(params -> {
+            Long characterId = longParam(params, "characterId");
+            String message = params.getFirst("message");
+            if (characterId == null || message == null) {
+                return ServerResponse.badRequest().build();
+            }
+            String clientKey = clientKey(request);
+            return rateLimited(params, clientKey, characterId, rateLimitHeaders ->
+                    reactiveChatService.sendSimpleMessage(characterId, message, clientKey)
+                            .flatMap(response -> ServerResponse.ok().headers(headers -> headers.addAll(rateLimitHeaders))
+                                    .bodyValue(response))
+                            .onErrorResume(LlmCapacityExceededException.class, this::tooManyRequests)
+                            .onErrorResume(error -> ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+        });
+    }
+    
+    public Mono<ServerResponse> stream(ServerRequest request) {
+        return params(request).flatMap(params -> {
+            Long characterId = longParam(params, "characterId");
+            String message = params.getFirst("message");
+            if (characterId == null || message == null) {
+                return ServerResponse.badRequest().build();
+            }
+            
+            String clientKey = clientKey(request);
+            return rateLimited(params, clientKey, characterId, rateLimitHeaders -> {
+                // SSE 는 헤더가 먼저 나가므로 대기열이 가득 찬 경우는 스트림을 열기 전에 429 로 돌려보낸다
+                try {
+                    llmConcurrencyLimiter.checkCapacity(clientKey);
+                } catch (LlmCapacityExceededException e) {
+                    return tooManyRequests(e);
+                }
+                
+                String username = params.getOrDefault("username", List.of("guest")).get(0);
+                return ServerResponse.ok()
+                        .contentType(MediaType.TEXT_EVENT_STREAM)
+                        .headers(headers -> headers.addAll(rateLimitHeaders))
+                        .body(reactiveChatService.streamMessage(username, characterId, message, params.getFirst("sessionId"), clientKey)
+                                .map(ChatController::toEvent),
+                                ServerSentEvent.class);
+            });
+        });
+    }
+    
+    public Mono<ServerResponse> resumeStream(ServerRequest request) {
+        String sessionId = request.queryParam("sessionId").orElse(null);
+        if (sessionId == null) {
+            return ServerResponse.badRequest().build();
+        }
+        String lastEventId = Optional.ofNullable(request.headers().firstHeader("Last-Event-ID"))
+                .orElse(request.queryParam("lastEventId").orElse(null));
+        return ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(reactiveChatService.resumeStream(sessionId, lastEventId).map(ChatController::toEvent),
+                        ServerSentEvent.class);
+    }
+    
+    public Mono<ServerResponse> history(ServerRequest request) {
+        Long characterId = longParam(request.queryParams(), "characterId");
+        String username = request.queryParam("username").orElse("guest");
+        String cursor = request.queryParam("cursor").orElse(null);
+        int size;
+        try {
+            size = Integer.parseInt(request.queryParam("size").orElse("20"));
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().build();
+        }
+        if (characterId == null || size < 1) {
+            return ServerResponse.badRequest().build();
+        }
+        
+        return reactiveChatService.getConversationPage(username, characterId, cursor, Math.min(size, MAX_HISTORY_PAGE_SIZE))
+                .flatMap(page -> ServerResponse.ok().bodyValue(page))
+                .switchIfEmpty(ServerResponse.badRequest().build())
+                .onErrorResume(IllegalArgumentException.class, error -> ServerResponse.badRequest().build());
+    }
+    
+    // MVC 의 RateLimitInterceptor 와 같은 제한. 허용되면 RateLimit-* 헤더를 응답에 넘겨준다
+    private Mono<ServerResponse> rateLimited(MultiValueMap<String, String> params, String clientKey, Long characterId,
+                                             Function<HttpHeaders, Mono<ServerResponse>> handler) {
+        return tokenBucketRateLimiter.tryAcquire(rateLimitPolicy.chat(RateLimitPolicy.userKey(clientKey), characterId))
+                .flatMap(decision -> decision.isAllowed() ? handler.apply(decision.toHeaders()) : tooManyRequests(decision));
+    }
+    
+    private Mono<ServerResponse> tooManyRequests(RateLimitDecision decision) {
+        return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                .headers(headers -> headers.addAll(decision.toHeaders()))
+                .bodyValue(Map.of(
+                        "success", false,
+                        "error", "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.",
+                        "retryAfterSeconds", decision.retryAfterSeconds()
+                ));
+    }
+    
+    // GlobalExceptionHandler 와 같은 429 응답 (라우터 함수에는 @ControllerAdvice 가 적용되지 않는다)
+    private Mono<ServerResponse> tooManyRequests(LlmCapacityExceededException e) {
+        return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter().toSeconds()))
+                .bodyValue(Map.of(
+                        "success", false,
+                        "error", "AI 서버가 혼잡합니다. 잠시 후 다시 시도해주세요.",
+                        "retryAfterSeconds", e.getRetryAfter().toSeconds()
+                ));
+    }
+    
+    // @RequestParam 처럼 쿼리 문자열과 폼(urlencoded, multipart) 값을 모두 받는다
+    private Mono<MultiValueMap<String, String>> params(ServerRequest request) {
+        MediaType contentType = request.headers().contentType().orElse(null);
+        Mono<MultiValueMap<String, String>> form;
+        if (contentType != null && MediaType.MULTIPART_FORM_DATA.isCompatibleWith(contentType)) {
+            form = request.multipartData().map(parts -> {
+                MultiValueMap<String, String> values = new LinkedMultiValueMap<>();
+                parts.forEach((name, partList) -> partList.stream()
+                        .filter(FormFieldPart.class::isInstance)
+                        .forEach(part -> values.add(name, ((FormFieldPart) part).value())));
+                return values;
+            });
+        } else {
+            form = request.formData();
+        }
+        return form.map(values -> {
+            MultiValueMap<String, String> merged = new LinkedMultiValueMap<>(request.queryParams());
+            merged.addAll(values);
+            return merged;
+        });
+    }
+    
+    private static Long longParam(MultiValueMap<String, String> params, String name) {
+        try {
+            String value = params.getFirst(name);
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private static String clientKey(ServerRequest request) {
+        return request.remoteAddress()
+                .map(InetSocketAddress::getAddress)
+                .map(InetAddress::getHostAddress)
+                .orElse("unknown");
+    }
+}
@@ -0,0 +1,26 @@
+package com.datewithai.domain.chat.controller;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+// reactive 프로필의 /chat 라우팅 (MVC 에서는 ChatController 가 같은 경로를 처리)
+@Configuration
+@Profile("reactive")
+public class ChatRouter {
+    
+    @Bean
+    public RouterFunction<ServerResponse> chatRoutes(ChatHandler chatHandler) {
+        return RouterFunctions.route()
+                .path("/chat", builder -> builder
+                        .POST("/api/send", chatHandler::send)
+                        .POST("/api/stream", chatHandler::stream)
+                        .GET("/api/stream/resume", chatHandler::resumeStream)
+                        .GET("/api/history", chatHandler::history)
+                        .GET("/{characterId:\\d+}", chatHandler::chatRoom))
+                .build();
+    }
+}
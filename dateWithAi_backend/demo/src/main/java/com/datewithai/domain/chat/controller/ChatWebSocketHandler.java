@@ -0,0 +1,270 @@
+package com.datewithai.domain.chat.controller;
+
+import com.datewithai.domain.chat.dto.AiChatStreamChunk;
+import com.datewithai.domain.chat.dto.ChatSocketFrame;
+import com.datewithai.domain.chat.dto.ChatSocketRequest;
+import com.datewithai.domain.chat.service.ChatService;
+import com.datewithai.global.llm.LlmCapacityExceededException;
+import com.datewithai.global.llm.LlmConcurrencyLimiter;
+import com.datewithai.global.ratelimit.RateLimitDecision;
+import com.datewithai.global.ratelimit.RateLimitPolicy;
+import com.datewithai.global.ratelimit.TokenBucketRateLimiter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.websocket.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * /chat/ws?characterId=..&sessionId=..&username=.. : 채팅 세션 하나당 WebSocket 연결 하나.
+ * 사용자 메시지를 받아 ack → typing → token... → done 순서로 내려보내고, 프레임마다 requestId 를 붙여
+ * 한 연결에서 여러 요청의 응답을 구분할 수 있게 한다.
+ * 연결이 끊겨 다른 노드로 다시 붙은 경우 resume 프레임으로 진행 중이던 응답을 마지막 eventId 이후부터 이어받는다.
+ * 전송은 가상 스레드에서 블로킹으로 하고, 전송 제한 시간/버퍼를 넘기면 연결을 끊는다.
+ * 응답 생성은 ChatStreamRelay 가 연결과 무관하게 끝까지 진행하므로 느린 클라이언트가 LLM 자리를 붙잡지 않는다.
+ */
+@Component
+@Profile("!reactive")
+public class ChatWebSocketHandler extends TextWebSocketHandler {
+    
+    private static final Logger log = LoggerFactory.getLogger(ChatWebSocketHandler.class);
+    private static final String CONNECTION_ATTRIBUTE = "chatConnection";
+    
+    private final ChatService chatService;
+    private final LlmConcurrencyLimiter llmConcurrencyLimiter;
+    private final TokenBucketRateLimiter tokenBucketRateLimiter;
+    private final RateLimitPolicy rateLimitPolicy;
+    private final ObjectMapper objectMapper;
+    private final Scheduler blockingScheduler;
+    
+    @Value("${chat.websocket.send-time-limit}")
+    private Duration sendTimeLimit;
+    
+    @Value("${chat.websocket.send-buffer-size-limit}")
+    private int sendBufferSizeLimit;
+    
+    @Value("${chat.websocket.max-text-message-size}")
+    private int maxTextMessageSize;
+    
+    @Value("${chat.websocket.idle-timeout}")
+    private Duration idleTimeout;
+    
+    @Value("${chat.websocket.max-in-flight}")
+    private int maxInFlight;
+    
+    @Autowired
+    public ChatWebSocketHandler(ChatService chatService, LlmConcurrencyLimiter llmConcurrencyLimiter,
+                                TokenBucketRateLimiter tokenBucketRateLimiter, RateLimitPolicy rateLimitPolicy,
+                                ObjectMapper objectMapper,
+                                @Qualifier("blockingScheduler") Scheduler blockingScheduler) {
+        this.chatService = chatService;
+        this.llmConcurrencyLimiter = llmConcurrencyLimiter;
+        this.tokenBucketRateLimiter = tokenBucketRateLimiter;
+        this.rateLimitPolicy = rateLimitPolicy;
+        this.objectMapper = objectMapper;
+        this.blockingScheduler = blockingScheduler;
+    }
+    
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        MultiValueMap<String, String> params = UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams();
+        Long characterId = parseLong(params.getFirst("characterId"));
+        if (characterId == null) {
+            session.close(CloseStatus.BAD_DATA.withReason("characterId is required"));
+            return;
+        }
+        // 연결마다 잡히는 수신 버퍼를 채팅 메시지 크기에 맞추고, 오래 쉬는 연결은 컨테이너가 닫게 한다
+        session.setTextMessageSizeLimit(maxTextMessageSize);
+        Session nativeSession = ((NativeWebSocketSession) session).getNativeSession(Session.class);
+        if (nativeSession != null) {
+            nativeSession.setMaxIdleTimeout(idleTimeout.toMillis());
+        }
+        
+        String sessionId = params.getFirst("sessionId");
+        String username = params.getFirst("username");
+        
+        // 여러 스트림과 ack/pong 이 동시에 보내도 안전하도록 감싼다. 버퍼가 넘치면 연결을 끊는다
+        WebSocketSession sender = new ConcurrentWebSocketSessionDecorator(session,
+                (int) sendTimeLimit.toMillis(), sendBufferSizeLimit);
+        session.getAttributes().put(CONNECTION_ATTRIBUTE, new Connection(sender, characterId,
+                (sessionId == null || sessionId.isEmpty()) ? UUID.randomUUID().toString() : sessionId,
+                (username == null || username.isEmpty()) ? "guest" : username,
+                clientKey(session)));
+    }
+    
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage textMessage) {
+        Connection connection = (Connection) session.getAttributes().get(CONNECTION_ATTRIBUTE);
+        if (connection == null) {
+            return;
+        }
+        
+        ChatSocketRequest request;
+        try {
+            request = objectMapper.readValue(textMessage.getPayload(), ChatSocketRequest.class);
+        } catch (JsonProcessingException e) {
+            send(connection, ChatSocketFrame.error(null, "잘못된 메시지 형식입니다."));
+            return;
+        }
+        
+        if ("ping".equals(request.getType())) {
+            send(connection, ChatSocketFrame.pong());
+            return;
+        }
+        if ("resume".equals(request.getType())) {
+            resume(connection, request);
+            return;
+        }
+        if (request.getMessage() == null || request.getMessage().isBlank()) {
+            send(connection, ChatSocketFrame.error(request.getRequestId(), "메시지가 비어 있습니다."));
+            return;
+        }
+        // HTTP 전송(/chat/api/send, /chat/api/stream)과 같은 버킷을 쓴다
+        RateLimitDecision rateLimit = tokenBucketRateLimiter.tryAcquire(rateLimitPolicy.chat(
+                RateLimitPolicy.userKey(connection.clientKey), connection.characterId)).block();
+        if (rateLimit != null && !rateLimit.isAllowed()) {
+            send(connection, ChatSocketFrame.busy(request.getRequestId(),
+                    "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.", rateLimit.retryAfterSeconds()));
+            return;
+        }
+        if (connection.inFlightCount.incrementAndGet() > maxInFlight) {
+            connection.inFlightCount.decrementAndGet();
+            send(connection, ChatSocketFrame.error(request.getRequestId(), "이전 응답이 끝난 뒤에 보내주세요."));
+            return;
+        }
+        try {
+            llmConcurrencyLimiter.checkCapacity(connection.clientKey);
+        } catch (LlmCapacityExceededException e) {
+            connection.inFlightCount.decrementAndGet();
+            send(connection, ChatSocketFrame.busy(request.getRequestId(),
+                    "AI 서버가 혼잡합니다. 잠시 후 다시 시도해주세요.", e.getRetryAfter().toSeconds()));
+            return;
+        }
+        
+        String requestId = request.getRequestId();
+        relay(connection, requestId, chatService.streamMessage(connection.username, connection.characterId, request.getMessage(),
+                connection.chatSessionId, connection.clientKey, acceptedSessionId -> {
+                    connection.chatSessionId = acceptedSessionId;
+                    send(connection, ChatSocketFrame.typing(requestId));
+                }, (savedSessionId, error) -> {
+                    // ack 는 DB 에 저장된 뒤에만 보낸다 (저장 대기열에 들어간 것만으로는 보내지 않는다)
+                    if (error == null) {
+                        send(connection, ChatSocketFrame.ack(requestId, savedSessionId));
+                    } else {
+                        log.warn("User message for session {} was not stored: {}", savedSessionId, error.toString());
+                        send(connection, ChatSocketFrame.error(requestId, "메시지를 저장하지 못했습니다."));
+                    }
+                }));
+    }
+    
+    // LLM 을 다시 부르지 않고, 어느 노드에서 만들어지고 있는 응답이든 Redis 에서 이어받는다
+    private void resume(Connection connection, ChatSocketRequest request) {
+        if (connection.inFlightCount.incrementAndGet() > maxInFlight) {
+            connection.inFlightCount.decrementAndGet();
+            send(connection, ChatSocketFrame.error(request.getRequestId(), "이전 응답이 끝난 뒤에 보내주세요."));
+            return;
+        }
+        relay(connection, request.getRequestId(), chatService.resumeStream(connection.chatSessionId, request.getLastEventId()));
+    }
+    
+    // 호출 전에 inFlightCount 를 올려 두고, 스트림이 끝나면 여기서 내린다
+    private void relay(Connection connection, String requestId, Flux<AiChatStreamChunk> chunks) {
+        chunks.map(chunk -> toFrame(requestId, chunk))
+                // 프레임마다 가상 스레드에서 보내고 끝날 때까지 다음 토큰을 요청하지 않는다
+                .concatMap(frame -> Mono.fromRunnable(() -> send(connection, frame)).subscribeOn(blockingScheduler))
+                // 연결이 닫히면 전송만 멈춘다 (생성은 계속되어 저장되고, 재연결 시 resume 으로 이어받는다)
+                .takeUntilOther(connection.closed.asMono())
+                .doFinally(signal -> connection.inFlightCount.decrementAndGet())
+                .subscribe(null, error -> log.debug("WebSocket chat stream failed: {}", error.toString()));
+    }
+    
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Connection connection = (Connection) session.getAttributes().remove(CONNECTION_ATTRIBUTE);
+        if (connection != null) {
+            connection.closed.tryEmitValue(true);
+        }
+    }
+    
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.debug("WebSocket transport error: {}", exception.toString());
+    }
+    
+    private ChatSocketFrame toFrame(String requestId, AiChatStreamChunk chunk) {
+        if (chunk.getError() != null) {
+            return ChatSocketFrame.error(requestId, chunk.getError()).withEventId(chunk.getEventId());
+        }
+        if (chunk.isFinished()) {
+            return ChatSocketFrame.done(requestId, chunk.getSessionId(), chunk.getFullResponse()).withEventId(chunk.getEventId());
+        }
+        return ChatSocketFrame.token(requestId, chunk.getChunk()).withEventId(chunk.getEventId());
+    }
+    
+    private void send(Connection connection, ChatSocketFrame frame) {
+        if (!connection.sender.isOpen()) {
+            return;
+        }
+        try {
+            connection.sender.sendMessage(new TextMessage(objectMapper.writeValueAsString(frame)));
+        } catch (IOException | RuntimeException e) {
+            // 전송 제한 시간/버퍼 초과 시 데코레이터가 연결을 닫고, afterConnectionClosed 에서 스트림이 정리된다
+            log.debug("WebSocket send failed: {}", e.toString());
+        }
+    }
+    
+    private static Long parseLong(String value) {
+        try {
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private static String clientKey(WebSocketSession session) {
+        InetSocketAddress remote = session.getRemoteAddress();
+        return remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : "unknown";
+    }
+    
+    // 연결마다 들고 있는 최소한의 상태 (유휴 연결의 메모리 사용을 줄이기 위해 작게 유지)
+    private static final class Connection {
+        private final WebSocketSession sender;
+        private final Long characterId;
+        private final String username;
+        private final String clientKey;
+        private final Sinks.One<Boolean> closed = Sinks.one();
+        private final AtomicInteger inFlightCount = new AtomicInteger();
+        private volatile String chatSessionId;
+        
+        private Connection(WebSocketSession sender, Long characterId, String chatSessionId, String username, String clientKey) {
+            this.sender = sender;
+            this.characterId = characterId;
+            this.chatSessionId = chatSessionId;
+            this.username = username;
+            this.clientKey = clientKey;
+        }
+    }
+}
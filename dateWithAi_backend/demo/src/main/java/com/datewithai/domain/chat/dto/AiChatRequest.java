@@ -16,6 +16,12 @@ public class AiChatRequest {
     @JsonProperty("emotion_intensity")
     private Double emotionIntensity = 0.5;
     
+    @JsonProperty("conversation_context")
+    private String conversationContext;
+    
+    @JsonProperty("story_context")
+    private String storyContext;
+    
     public AiChatRequest() {}
     
     public AiChatRequest(String message, String characterId, String characterInfo) {
@@ -38,4 +44,10 @@ public class AiChatRequest {
     
     public Double getEmotionIntensity() { return emotionIntensity; }
     public void setEmotionIntensity(Double emotionIntensity) { this.emotionIntensity = emotionIntensity; }
+    
+    public String getConversationContext() { return conversationContext; }
+    public void setConversationContext(String conversationContext) { this.conversationContext = conversationContext; }
+    
+    public String getStoryContext() { return storyContext; }
+    public void setStoryContext(String storyContext) { this.storyContext = storyContext; }
 }
\ No newline at end of file
@@ -16,6 +16,8 @@ public class AiChatResponse {
     private String sessionId;
     private boolean success = true;
     private String error;
+    // 파이썬 서버를 부르지 못해 캐시나 준비된 문구로 대신 답했을 때
+    private boolean fallback;
     
     public AiChatResponse() {}
     
@@ -51,4 +53,7 @@ public class AiChatResponse {
     
     public String getError() { return error; }
     public void setError(String error) { this.error = error; }
+    
+    public boolean isFallback() { return fallback; }
+    public void setFallback(boolean fallback) { this.fallback = fallback; }
 }
\ No newline at end of file
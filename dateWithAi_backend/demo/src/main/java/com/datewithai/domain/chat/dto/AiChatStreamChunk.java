@@ -0,0 +1,78 @@
+package com.datewithai.domain.chat.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+// 파이썬 /chat/stream 의 "data: {...}" 한 줄에 해당하는 조각
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AiChatStreamChunk {
+    private String chunk;
+
+    @JsonProperty("full_response")
+    private String fullResponse;
+
+    private boolean finished;
+
+    @JsonProperty("context_used")
+    private List<Object> contextUsed;
+
+    @JsonProperty("similarity_scores")
+    private List<Double> similarityScores;
+
+    // Spring 내부 사용을 위한 필드들
+    private String sessionId;
+    private String error;
+    private boolean fallback;
+
+    // Redis Stream 레코드 id (SSE id 로 내보내고, 재연결 시 Last-Event-ID 로 돌아온다)
+    @JsonIgnore
+    private String eventId;
+
+    public AiChatStreamChunk() {}
+
+    public static AiChatStreamChunk error(String error) {
+        AiChatStreamChunk chunk = new AiChatStreamChunk();
+        chunk.setError(error);
+        chunk.setFinished(true);
+        return chunk;
+    }
+
+    // 파이썬 서버 없이 한 번에 끝나는 대체 응답
+    public static AiChatStreamChunk fallback(String reply) {
+        AiChatStreamChunk chunk = new AiChatStreamChunk();
+        chunk.setChunk(reply);
+        chunk.setFullResponse(reply);
+        chunk.setFinished(true);
+        chunk.setFallback(true);
+        return chunk;
+    }
+
+    public String getChunk() { return chunk; }
+    public void setChunk(String chunk) { this.chunk = chunk; }
+
+    public String getFullResponse() { return fullResponse; }
+    public void setFullResponse(String fullResponse) { this.fullResponse = fullResponse; }
+
+    public boolean isFinished() { return finished; }
+    public void setFinished(boolean finished) { this.finished = finished; }
+
+    public List<Object> getContextUsed() { return contextUsed; }
+    public void setContextUsed(List<Object> contextUsed) { this.contextUsed = contextUsed; }
+
+    public List<Double> getSimilarityScores() { return similarityScores; }
+    public void setSimilarityScores(List<Double> similarityScores) { this.similarityScores = similarityScores; }
+
+    public String getSessionId() { return sessionId; }
+    public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public boolean isFallback() { return fallback; }
+    public void setFallback(boolean fallback) { this.fallback = fallback; }
+
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+}
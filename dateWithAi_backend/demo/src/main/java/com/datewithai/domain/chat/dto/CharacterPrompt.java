@@ -0,0 +1,84 @@
+package com.datewithai.domain.chat.dto;
+
+import com.datewithai.domain.character.entity.Character;
+
+import java.time.LocalDateTime;
+
+// 캐릭터별로 미리 만들어 둔 불변 프롬프트. 채팅마다 문자열을 다시 조립하지 않는다
+public final class CharacterPrompt {
+    private final Long characterId;
+    private final String characterName;
+    private final String characterFileId;
+    private final String characterInfo;
+    private final boolean replyCacheEnabled;
+    private final LocalDateTime updatedAt;
+    
+    private CharacterPrompt(Long characterId, String characterName, String characterFileId, String characterInfo,
+                            boolean replyCacheEnabled, LocalDateTime updatedAt) {
+        this.characterId = characterId;
+        this.characterName = characterName;
+        this.characterFileId = characterFileId;
+        this.characterInfo = characterInfo;
+        this.replyCacheEnabled = replyCacheEnabled;
+        this.updatedAt = updatedAt;
+    }
+    
+    public static CharacterPrompt from(Character character) {
+        return new CharacterPrompt(
+            character.getId(),
+            character.getName(),
+            toCharacterFileId(character.getName()),
+            buildCharacterInfo(character),
+            !Boolean.FALSE.equals(character.getReplyCacheEnabled()),
+            character.getUpdatedAt()
+        );
+    }
+    
+    public AiChatRequest toRequest(String message) {
+        return new AiChatRequest(message, characterFileId, characterInfo);
+    }
+    
+    // 같은 캐릭터의 더 오래된 스냅샷이 늦게 도착해도 최신 것을 덮어쓰지 않도록 비교
+    public boolean isNewerThan(CharacterPrompt other) {
+        if (other == null || other.updatedAt == null) {
+            return true;
+        }
+        return updatedAt != null && !updatedAt.isBefore(other.updatedAt);
+    }
+    
+    static String buildCharacterInfo(Character character) {
+        StringBuilder info = new StringBuilder();
+        info.append("캐릭터 이름: ").append(character.getName()).append("\n");
+        if (character.getDescription() != null) {
+            info.append("캐릭터 설명: ").append(character.getDescription()).append("\n");
+        }
+        if (character.getPersonality() != null) {
+            info.append("성격: ").append(character.getPersonality()).append("\n");
+        }
+        return info.toString();
+    }
+    
+    static String toCharacterFileId(String characterName) {
+        // 캐릭터 이름을 파이썬에서 사용하는 파일명으로 매핑
+        switch (characterName) {
+            case "호시노 아이":
+                return "hoshino ai_character.txt";
+            case "시노부":
+                return "shinobu_character.txt";
+            default:
+                return characterName.toLowerCase().replace(" ", "_") + "_character.txt";
+        }
+    }
+    
+    public Long getCharacterId() { return characterId; }
+    
+    public String getCharacterName() { return characterName; }
+    
+    public String getCharacterFileId() { return characterFileId; }
+    
+    public String getCharacterInfo() { return characterInfo; }
+    
+    public boolean isReplyCacheEnabled() { return replyCacheEnabled; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -5,6 +5,7 @@ import com.datewithai.domain.chat.entity.ChatMessage;
 import java.time.LocalDateTime;
 
 public class ChatHistoryDto {
+    private Long id;
     private String message;
     private String messageType;
     private LocalDateTime createdAt;
@@ -17,14 +18,24 @@ public class ChatHistoryDto {
         this.createdAt = createdAt;
     }
     
+    // JPQL 생성자 표현식용 (SQL 에서 바로 DTO 로 조회)
+    public ChatHistoryDto(Long id, String message, ChatMessage.MessageType messageType, LocalDateTime createdAt) {
+        this(message, messageType.toString(), createdAt);
+        this.id = id;
+    }
+    
     public static ChatHistoryDto fromEntity(ChatMessage chatMessage) {
         return new ChatHistoryDto(
+            chatMessage.getId(),
             chatMessage.getMessage(),
-            chatMessage.getMessageType().toString(),
+            chatMessage.getMessageType(),
             chatMessage.getCreatedAt()
         );
     }
     
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
     public String getMessage() { return message; }
     public void setMessage(String message) { this.message = message; }
     
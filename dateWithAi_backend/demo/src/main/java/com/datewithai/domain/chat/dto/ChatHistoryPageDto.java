@@ -0,0 +1,26 @@
+package com.datewithai.domain.chat.dto;
+
+import java.util.List;
+
+public class ChatHistoryPageDto {
+    private List<ChatHistoryDto> messages;
+    private String nextCursor;
+    private boolean hasNext;
+    
+    public ChatHistoryPageDto() {}
+    
+    public ChatHistoryPageDto(List<ChatHistoryDto> messages, String nextCursor, boolean hasNext) {
+        this.messages = messages;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+    
+    public List<ChatHistoryDto> getMessages() { return messages; }
+    public void setMessages(List<ChatHistoryDto> messages) { this.messages = messages; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+}
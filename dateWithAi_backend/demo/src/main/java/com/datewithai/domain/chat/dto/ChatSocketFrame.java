@@ -0,0 +1,85 @@
+package com.datewithai.domain.chat.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// WebSocket 으로 서버가 보내는 프레임. requestId 로 어느 메시지에 대한 응답인지 구분한다
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChatSocketFrame {
+    
+    public static final String ACK = "ack";
+    public static final String TYPING = "typing";
+    public static final String TOKEN = "token";
+    public static final String DONE = "done";
+    public static final String ERROR = "error";
+    public static final String PONG = "pong";
+    
+    private final String type;
+    private final String requestId;
+    private String sessionId;
+    private String chunk;
+    private String fullResponse;
+    private String error;
+    private Long retryAfterSeconds;
+    private String eventId;
+    
+    private ChatSocketFrame(String type, String requestId) {
+        this.type = type;
+        this.requestId = requestId;
+    }
+    
+    // 사용자 메시지가 DB 에 저장됨 (write-behind 저장이 끝난 뒤라 typing/token 보다 늦게 올 수 있다)
+    public static ChatSocketFrame ack(String requestId, String sessionId) {
+        ChatSocketFrame frame = new ChatSocketFrame(ACK, requestId);
+        frame.sessionId = sessionId;
+        return frame;
+    }
+    
+    public static ChatSocketFrame typing(String requestId) {
+        return new ChatSocketFrame(TYPING, requestId);
+    }
+    
+    public static ChatSocketFrame token(String requestId, String chunk) {
+        ChatSocketFrame frame = new ChatSocketFrame(TOKEN, requestId);
+        frame.chunk = chunk;
+        return frame;
+    }
+    
+    // AI 메시지까지 저장된 뒤에 보낸다
+    public static ChatSocketFrame done(String requestId, String sessionId, String fullResponse) {
+        ChatSocketFrame frame = new ChatSocketFrame(DONE, requestId);
+        frame.sessionId = sessionId;
+        frame.fullResponse = fullResponse;
+        return frame;
+    }
+    
+    public static ChatSocketFrame error(String requestId, String error) {
+        ChatSocketFrame frame = new ChatSocketFrame(ERROR, requestId);
+        frame.error = error;
+        return frame;
+    }
+    
+    public static ChatSocketFrame busy(String requestId, String error, long retryAfterSeconds) {
+        ChatSocketFrame frame = error(requestId, error);
+        frame.retryAfterSeconds = retryAfterSeconds;
+        return frame;
+    }
+    
+    public static ChatSocketFrame pong() {
+        return new ChatSocketFrame(PONG, null);
+    }
+    
+    // 재연결 후 resume 요청에 쓸 수 있도록 중계된 조각의 id 를 붙인다
+    public ChatSocketFrame withEventId(String eventId) {
+        this.eventId = eventId;
+        return this;
+    }
+    
+    public String getType() { return type; }
+    public String getRequestId() { return requestId; }
+    public String getSessionId() { return sessionId; }
+    public String getChunk() { return chunk; }
+    public String getFullResponse() { return fullResponse; }
+    public String getError() { return error; }
+    public Long getRetryAfterSeconds() { return retryAfterSeconds; }
+    public String getEventId() { return eventId; }
+}
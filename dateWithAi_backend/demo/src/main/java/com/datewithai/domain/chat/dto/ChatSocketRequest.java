@@ -0,0 +1,27 @@
+package com.datewithai.domain.chat.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+// WebSocket 으로 클라이언트가 보내는 프레임
+// ({"type":"message","requestId":"...","message":"..."}, {"type":"resume","requestId":"...","lastEventId":"..."} 또는 {"type":"ping"})
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ChatSocketRequest {
+    private String type;
+    private String requestId;
+    private String message;
+    private String lastEventId;
+    
+    public ChatSocketRequest() {}
+    
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    
+    public String getRequestId() { return requestId; }
+    public void setRequestId(String requestId) { this.requestId = requestId; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    
+    public String getLastEventId() { return lastEventId; }
+    public void setLastEventId(String lastEventId) { this.lastEventId = lastEventId; }
+}
@@ -0,0 +1,23 @@
+package com.datewithai.domain.chat.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 세션별 대화 기억: 오래된 턴은 요약으로 접히고 최근 턴만 그대로 남는다
+public class ConversationMemory {
+    private String summary = "";
+    private List<ChatHistoryDto> turns = new ArrayList<>();
+    
+    public ConversationMemory() {}
+    
+    public ConversationMemory(String summary, List<ChatHistoryDto> turns) {
+        this.summary = summary;
+        this.turns = turns;
+    }
+    
+    public String getSummary() { return summary; }
+    public void setSummary(String summary) { this.summary = summary; }
+    
+    public List<ChatHistoryDto> getTurns() { return turns; }
+    public void setTurns(List<ChatHistoryDto> turns) { this.turns = turns; }
+}
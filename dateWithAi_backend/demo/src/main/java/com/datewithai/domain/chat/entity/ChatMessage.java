@@ -7,11 +7,16 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "chat_messages")
+@Table(name = "chat_messages", indexes = {
+    @Index(name = "idx_chat_messages_user_character_created", columnList = "user_id, character_id, created_at DESC, id DESC")
+})
 public class ChatMessage {
     
+    // IDENTITY 는 Hibernate JDBC 배치를 막으므로 pooled 시퀀스로 50개씩 id 를 미리 받아 둔다
+    // (기존 DB 의 시퀀스 증가폭은 기동 시 db/chat-message-sequence.sql 이 50으로 맞춘다)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "chat_messages_id_seq")
+    @SequenceGenerator(name = "chat_messages_id_seq", sequenceName = "chat_messages_id_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -38,7 +43,9 @@ public class ChatMessage {
     
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
     
     public enum MessageType {
@@ -0,0 +1,79 @@
+package com.datewithai.domain.chat.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+// reactive 프로필에서 R2DBC 로 읽고 쓰는 chat_messages 행. 연관 엔티티 대신 FK 값만 들고 있다
+@Table("chat_messages")
+public class ChatMessageRecord implements Persistable<Long> {
+    
+    @Id
+    private Long id;
+    
+    @Column("user_id")
+    private Long userId;
+    
+    @Column("character_id")
+    private Long characterId;
+    
+    private String message;
+    
+    @Column("message_type")
+    private ChatMessage.MessageType messageType;
+    
+    @Column("session_id")
+    private String sessionId;
+    
+    @Column("created_at")
+    private LocalDateTime createdAt;
+    
+    // id 를 미리 할당해서 넣으므로 save 가 UPDATE 로 가지 않게 표시
+    @Transient
+    private boolean newRecord;
+    
+    public ChatMessageRecord() {}
+    
+    public static ChatMessageRecord create(Long id, Long userId, Long characterId, String message,
+                                           ChatMessage.MessageType messageType, String sessionId) {
+        ChatMessageRecord record = new ChatMessageRecord();
+        record.id = id;
+        record.userId = userId;
+        record.characterId = characterId;
+        record.message = message;
+        record.messageType = messageType;
+        record.sessionId = sessionId;
+        record.createdAt = LocalDateTime.now();
+        record.newRecord = true;
+        return record;
+    }
+    
+    @Override
+    public boolean isNew() { return newRecord; }
+    
+    @Override
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public Long getCharacterId() { return characterId; }
+    public void setCharacterId(Long characterId) { this.characterId = characterId; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    
+    public ChatMessage.MessageType getMessageType() { return messageType; }
+    public void setMessageType(ChatMessage.MessageType messageType) { this.messageType = messageType; }
+    
+    public String getSessionId() { return sessionId; }
+    public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,35 @@
+package com.datewithai.domain.chat.repository;
+
+import com.datewithai.domain.chat.entity.ChatMessageRecord;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+// reactive 프로필 전용 (R2dbcConfig 에서만 활성화). JPA 의 ChatMessageRepository 와 같은 테이블/인덱스를 쓴다
+@Repository
+public interface ChatMessageRecordRepository extends ReactiveCrudRepository<ChatMessageRecord, Long> {
+    
+    // ChatMessage 의 pooled 시퀀스와 같은 블록 단위로 id 를 받는다 (ChatMessageIdAllocator)
+    @Query("SELECT nextval('chat_messages_id_seq')")
+    Mono<Long> nextIdBlock();
+    
+    // 메시지 저장에 필요한 사용자 FK 만 조회
+    @Query("SELECT id FROM users WHERE username = :username")
+    Mono<Long> findUserIdByUsername(String username);
+    
+    @Query("SELECT * FROM chat_messages WHERE session_id = :sessionId ORDER BY created_at DESC LIMIT :limit")
+    Flux<ChatMessageRecord> findLatestBySession(String sessionId, int limit);
+    
+    @Query("SELECT * FROM chat_messages WHERE user_id = :userId AND character_id = :characterId " +
+           "ORDER BY created_at DESC, id DESC LIMIT :limit")
+    Flux<ChatMessageRecord> findLatestHistory(Long userId, Long characterId, int limit);
+    
+    @Query("SELECT * FROM chat_messages WHERE user_id = :userId AND character_id = :characterId " +
+           "AND (created_at, id) < (:createdAt, :id) " +
+           "ORDER BY created_at DESC, id DESC LIMIT :limit")
+    Flux<ChatMessageRecord> findHistoryBefore(Long userId, Long characterId, LocalDateTime createdAt, Long id, int limit);
+}
@@ -1,5 +1,6 @@
 package com.datewithai.domain.chat.repository;
 
+import com.datewithai.domain.chat.dto.ChatHistoryDto;
 import com.datewithai.domain.chat.entity.ChatMessage;
 import com.datewithai.domain.character.entity.Character;
 import com.datewithai.domain.user.entity.User;
@@ -28,6 +29,19 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
     @Query("SELECT cm FROM ChatMessage cm WHERE cm.sessionId = :sessionId ORDER BY cm.createdAt DESC")
     List<ChatMessage> findBySessionIdOrderByCreatedAtDesc(String sessionId, Pageable pageable);
     
+    // idx_chat_messages_user_character_created (user_id, character_id, created_at, id) 를 타는 키셋 조회
+    @Query("SELECT new com.datewithai.domain.chat.dto.ChatHistoryDto(cm.id, cm.message, cm.messageType, cm.createdAt) " +
+           "FROM ChatMessage cm WHERE cm.user.id = :userId AND cm.character.id = :characterId " +
+           "ORDER BY cm.createdAt DESC, cm.id DESC")
+    List<ChatHistoryDto> findLatestHistory(@Param("userId") Long userId, @Param("characterId") Long characterId, Pageable pageable);
+    
+    @Query("SELECT new com.datewithai.domain.chat.dto.ChatHistoryDto(cm.id, cm.message, cm.messageType, cm.createdAt) " +
+           "FROM ChatMessage cm WHERE cm.user.id = :userId AND cm.character.id = :characterId " +
+           "AND (cm.createdAt, cm.id) < (:createdAt, :id) " +
+           "ORDER BY cm.createdAt DESC, cm.id DESC")
+    List<ChatHistoryDto> findHistoryBefore(@Param("userId") Long userId, @Param("characterId") Long characterId,
+                                           @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+    
     @Query("SELECT COUNT(cm) FROM ChatMessage cm WHERE cm.user = :user AND cm.character = :character")
     Long countConversationMessages(@Param("user") User user, @Param("character") Character character);
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.datewithai.domain.chat.service;
+
+import com.datewithai.domain.character.entity.Character;
+import com.datewithai.domain.character.event.CharacterChangedEvent;
+import com.datewithai.domain.character.repository.CharacterRepository;
+import com.datewithai.domain.chat.dto.CharacterPrompt;
+import com.datewithai.global.cache.RemoteCacheInvalidatedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 캐릭터별 {@link CharacterPrompt} 를 메모리에 들고 있는 레지스트리.
+ * 기동 시 한 번 전체를 읽어 두고, 캐릭터가 저장/삭제될 때만 해당 항목을 다시 만든다.
+ * 덕분에 채팅 경로에서는 캐릭터 조회를 위해 DB 를 읽지 않는다.
+ * 다른 노드의 변경은 캐릭터 캐시 무효화 메시지를 받아 반영한다.
+ */
+@Component
+public class CharacterPromptRegistry {
+
+    private static final String CHARACTER_CACHE = "characters";
+
+    private final CharacterRepository characterRepository;
+    private final ConcurrentMap<Long, CharacterPrompt> prompts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CharacterPromptRegistry(CharacterRepository characterRepository) {
+        this.characterRepository = characterRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        characterRepository.findAll().forEach(this::register);
+    }
+
+    public Optional<CharacterPrompt> get(Long characterId) {
+        CharacterPrompt prompt = prompts.get(characterId);
+        if (prompt != null) {
+            return Optional.of(prompt);
+        }
+        // 기동 이후 다른 노드에서 만들어진 캐릭터 등, 처음 보는 id 만 DB 에서 읽는다
+        return characterRepository.findById(characterId).map(this::register);
+    }
+
+    // DB 를 읽지 않고 메모리에 있는 항목만 본다 (이벤트 루프에서 호출 가능)
+    public Optional<CharacterPrompt> peek(Long characterId) {
+        return Optional.ofNullable(prompts.get(characterId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCharacterChanged(CharacterChangedEvent event) {
+        if (event.isDeleted()) {
+            prompts.remove(event.getCharacterId());
+            return;
+        }
+        characterRepository.findById(event.getCharacterId()).ifPresentOrElse(
+                this::register,
+                () -> prompts.remove(event.getCharacterId()));
+    }
+
+    // 다른 노드에서 캐릭터가 바뀌면 캐릭터 캐시 무효화 메시지가 오므로, 그때 프롬프트도 다시 읽게 한다
+    @EventListener
+    public void onRemoteInvalidation(RemoteCacheInvalidatedEvent event) {
+        if (CHARACTER_CACHE.equals(event.getCacheName())) {
+            prompts.clear();
+        }
+    }
+
+    public void evict(Long characterId) {
+        prompts.remove(characterId);
+    }
+
+    private CharacterPrompt register(Character character) {
+        CharacterPrompt fresh = CharacterPrompt.from(character);
+        return prompts.compute(character.getId(),
+                (id, current) -> fresh.isNewerThan(current) ? fresh : current);
+    }
+}
@@ -0,0 +1,46 @@
+package com.datewithai.domain.chat.service;
+
+import com.datewithai.domain.chat.dto.AiChatResponse;
+import com.datewithai.domain.chat.dto.CharacterPrompt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// 파이썬 서버 서킷이 열려 있을 때의 대체 응답. 같은 메시지의 캐시된 응답이 있으면 그것을, 없으면 캐릭터 말투의 준비된 문구를 쓴다.
+// 대체 응답은 대화 기록과 응답 캐시에 저장하지 않는다
+@Component
+public class ChatFallbackReplies {
+
+    private static final List<String> CANNED_REPLIES = List.of(
+            "미안, 지금은 머리가 좀 복잡해서 제대로 대답을 못 하겠어. 조금 있다가 다시 말 걸어 줄래?",
+            "음… 잠깐만, 생각이 잘 안 정리돼. 조금만 기다렸다가 다시 얘기해 줘.",
+            "앗, 방금 뭐라고 했는지 놓쳤어. 잠시 후에 한 번만 더 말해 줄래?"
+    );
+
+    private final ChatReplyCache chatReplyCache;
+
+    @Autowired
+    public ChatFallbackReplies(ChatReplyCache chatReplyCache) {
+        this.chatReplyCache = chatReplyCache;
+    }
+
+    public Mono<AiChatResponse> reply(CharacterPrompt prompt, String message) {
+        return chatReplyCache.find(prompt, message)
+                .map(cached -> fallback(cached.getResponse()))
+                .defaultIfEmpty(fallback(canned(message)));
+    }
+
+    // 같은 메시지를 다시 보내도 같은 문구가 나오도록 메시지로 고른다
+    static String canned(String message) {
+        int index = Math.floorMod(message == null ? 0 : message.hashCode(), CANNED_REPLIES.size());
+        return CANNED_REPLIES.get(index);
+    }
+
+    private static AiChatResponse fallback(String reply) {
+        AiChatResponse response = new AiChatResponse(reply);
+        response.setFallback(true);
+        return response;
+    }
+}
@@ -0,0 +1,50 @@
+package com.datewithai.domain.chat.service;
+
+import com.datewithai.domain.chat.repository.ChatMessageRecordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC 로 저장하는 채팅 메시지의 id 를 할당한다.
+ * JPA 쪽 ChatMessage 는 INCREMENT BY 50 시퀀스를 Hibernate pooled 방식으로 쓰므로
+ * (nextval 값 v 가 나오면 v-49..v 를 사용) 같은 규칙으로 블록을 받아야 두 경로의 id 가 겹치지 않는다.
+ */
+@Component
+@Profile("reactive")
+public class ChatMessageIdAllocator {
+
+    private static final int BLOCK_SIZE = 50;
+
+    private final ChatMessageRecordRepository chatMessageRecordRepository;
+
+    private long next;
+    private long hi = -1;
+
+    @Autowired
+    public ChatMessageIdAllocator(ChatMessageRecordRepository chatMessageRecordRepository) {
+        this.chatMessageRecordRepository = chatMessageRecordRepository;
+    }
+
+    public Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            Long id = takeFromBlock();
+            if (id != null) {
+                return Mono.just(id);
+            }
+            // 동시에 여러 요청이 새 블록을 받아도 각자 받은 블록에서 꺼내므로 중복은 없다 (남은 id 만 버려진다)
+            return chatMessageRecordRepository.nextIdBlock().map(this::startBlock);
+        });
+    }
+
+    private synchronized Long takeFromBlock() {
+        return next <= hi ? next++ : null;
+    }
+
+    private synchronized long startBlock(long blockHi) {
+        hi = blockHi;
+        next = Math.max(1, blockHi - BLOCK_SIZE + 1);
+        return next++;
+    }
+}
@@ -0,0 +1,191 @@
+package com.datewithai.domain.chat.service;
+
+import com.datewithai.domain.chat.entity.ChatMessage;
+import com.datewithai.domain.chat.repository.ChatMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅 메시지를 모아 두었다가 크기 또는 시간 기준으로 JDBC 배치 INSERT 한다.
+ * 종료 시에는 웹 서버가 먼저 멈춘 뒤 남은 메시지를 모두 저장하고 끝난다.
+ */
+@Component
+public class ChatMessageWriteBuffer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatMessageWriteBuffer.class);
+
+    // 웹 서버(DEFAULT_PHASE - 2048)보다 늦게 멈추도록 더 낮은 phase 를 사용
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingMessage> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+
+    private final DistributionSummary flushSize;
+    private final Timer flushLatency;
+    private final Counter flushFailures;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    @Autowired
+    public ChatMessageWriteBuffer(ChatMessageRepository chatMessageRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${chat.persistence.write-behind.batch-size}") int batchSize,
+                                  @Value("${chat.persistence.write-behind.flush-interval}") Duration flushInterval,
+                                  @Value("${chat.persistence.write-behind.queue-capacity}") int queueCapacity) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+
+        Gauge.builder("chat.persistence.queue.depth", queue, BlockingQueue::size)
+                .description("Chat messages waiting to be flushed")
+                .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("chat.persistence.flush.size")
+                .description("Chat messages written per batch")
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("chat.persistence.flush.latency")
+                .description("Time to write one batch of chat messages")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("chat.persistence.flush.failures")
+                .description("Batches that had to be retried row by row")
+                .register(meterRegistry);
+    }
+
+    // 저장이 끝나면(id 가 채워지면) 완료되는 future 를 돌려준다
+    public CompletableFuture<ChatMessage> enqueue(ChatMessage message) {
+        if (message.getCreatedAt() == null) {
+            message.setCreatedAt(LocalDateTime.now());
+        }
+        PendingMessage pending = new PendingMessage(message);
+        if (!running || !queue.offer(pending)) {
+            // 종료 중이거나 버퍼가 가득 찬 경우에는 호출한 스레드에서 바로 저장
+            flush(List.of(pending));
+        }
+        return pending.future;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = new Thread(this::runFlushLoop, "chat-message-writer");
+        flusher.setDaemon(false);
+        flusher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingMessage> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void runFlushLoop() {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMessage first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingMessage next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in chat message writer", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingMessage> batch) {
+        long start = System.nanoTime();
+        List<ChatMessage> messages = batch.stream().map(pending -> pending.message).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> chatMessageRepository.saveAll(messages));
+            batch.forEach(pending -> pending.future.complete(pending.message));
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+            log.warn("Batch insert of {} chat messages failed, retrying one by one", batch.size(), e);
+            // 배치 전체를 버리지 않고 한 건씩 다시 저장해서 문제가 되는 메시지만 실패시킨다
+            for (PendingMessage pending : batch) {
+                pending.message.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> chatMessageRepository.save(pending.message));
+                    pending.future.complete(pending.message);
+                } catch (RuntimeException single) {
+                    log.error("Dropping chat message for session {}", pending.message.getSessionId(), single);
+                    pending.future.completeExceptionally(single);
+                }
+            }
+        } finally {
+            flushSize.record(batch.size());
+            flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static final class PendingMessage {
+        private final ChatMessage message;
+        private final CompletableFuture<ChatMessage> future = new CompletableFuture<>();
+
+        private PendingMessage(ChatMessage message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.datewithai.domain.chat.service;
+
+import com.datewithai.domain.chat.dto.AiChatResponse;
+import com.datewithai.domain.chat.dto.AiChatStreamChunk;
+import com.datewithai.global.llm.LlmCapacityExceededException;
+import com.datewithai.global.llm.LlmUnavailableException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 채팅 경로의 지연과 실패를 한 곳에서 기록한다. (mode: blocking / simple / stream)
+ * <ul>
+ *   <li>chat.latency - 요청을 받은 뒤 응답이 끝날 때까지 (outcome: success / fallback / error / cancelled)</li>
+ *   <li>chat.first.token - 스트리밍에서 첫 조각을 내보내기까지 (검색, 대기열 대기 포함)</li>
+ *   <li>chat.turn.prepare.latency - 사용자 확인, 대화 기억 조회, 사용자 메시지 저장</li>
+ *   <li>chat.generation.latency - LLM 호출 (대기열 대기 포함, 검색 제외)</li>
+ *   <li>chat.upstream.errors - LLM 호출 실패 (cause: capacity / circuit_open / timeout / connect / http_4xx / http_5xx / decode / other)</li>
+ * </ul>
+ * 실패는 사용자에게 대체 응답으로 바뀌어 나가므로, 여기서 세고 로그를 남겨야 드러난다.
+ */
+@Component
+public class ChatMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatMetrics.class);
+
+    private final MeterRegistry meterRegistry;
+    private final Timer prepareTimer;
+
+    @Autowired
+    public ChatMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.prepareTimer = Timer.builder("chat.turn.prepare.latency")
+                .description("Time to load the user, conversation memory and save the user message")
+                .register(meterRegistry);
+    }
+
+    public <T> T timePrepare(Supplier<T> prepare) {
+        return prepareTimer.record(prepare);
+    }
+
+    public <T> Mono<T> timeGeneration(String mode, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call.doOnError(error -> recordUpstreamError(mode, error))
+                    .doFinally(signal -> sample.stop(generationTimer(mode)));
+        });
+    }
+
+    public <T> Flux<T> timeGeneration(String mode, Flux<T> call) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call.doOnError(error -> recordUpstreamError(mode, error))
+                    .doFinally(signal -> sample.stop(generationTimer(mode)));
+        });
+    }
+
+    public Mono<AiChatResponse> timeReply(String mode, Mono<AiChatResponse> reply) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            AtomicReference<String> outcome = new AtomicReference<>();
+            return reply.doOnNext(response -> outcome.set(!response.isSuccess() ? "error" : response.isFallback() ? "fallback" : "success"))
+                    .doFinally(signal -> latencyTimer(mode, outcome(signal, outcome.get()))
+                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    public Flux<AiChatStreamChunk> timeStream(String mode, Flux<AiChatStreamChunk> stream) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean first = new AtomicBoolean(true);
+            AtomicReference<String> outcome = new AtomicReference<>();
+            return stream.doOnNext(chunk -> {
+                        if (chunk.getError() != null) {
+                            outcome.set("error");
+                            return;
+                        }
+                        // 대체 응답은 첫 토큰 지연에 넣지 않는다
+                        if (chunk.isFallback()) {
+                            outcome.set("fallback");
+                            return;
+                        }
+                        if (first.compareAndSet(true, false)) {
+                            firstTokenTimer(mode).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                        if (chunk.isFinished()) {
+                            outcome.set("success");
+                        }
+                    })
+                    .doFinally(signal -> latencyTimer(mode, outcome(signal, outcome.get()))
+                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    public void recordUpstreamError(String mode, Throwable error) {
+        String cause = cause(error);
+        Counter.builder("chat.upstream.errors")
+                .description("Failed calls to the Python AI service by cause")
+                .tag("mode", mode)
+                .tag("cause", cause)
+                .register(meterRegistry)
+                .increment();
+        // 혼잡 거절과 열린 서킷은 의도한 빠른 실패이므로 경고로 남기지 않는다
+        if ("capacity".equals(cause) || "circuit_open".equals(cause)) {
+            log.debug("LLM call rejected by the limiter (mode={}): {}", mode, error.getMessage());
+        } else {
+            log.warn("LLM call failed (mode={}, cause={}): {}", mode, cause, error.toString());
+        }
+    }
+
+    static String cause(Throwable error) {
+        if (error instanceof LlmCapacityExceededException) {
+            return "capacity";
+        }
+        if (error instanceof LlmUnavailableException) {
+            return "circuit_open";
+        }
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is4xxClientError() ? "http_4xx" : "http_5xx";
+        }
+        if (hasCause(error, TimeoutException.class) || hasCause(error, io.netty.handler.timeout.TimeoutException.class)) {
+            return "timeout";
+        }
+        if (error instanceof WebClientRequestException) {
+            return "connect";
+        }
+        if (hasCause(error, DecodingException.class) || hasCause(error, JsonProcessingException.class)) {
+            return "decode";
+        }
+        return "other";
+    }
+
+    private static boolean hasCause(Throwable error, Class<? extends Throwable> type) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (type.isInstance(current)) {
+                return true;
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    // 값이 나오기 전에 끝났으면 취소(클라이언트 이탈)나 오류로 본다
+    private static String outcome(SignalType signal, String observed) {
+        if (signal == SignalType.ON_ERROR) {
+            return "error";
+        }
+        if (observed != null) {
+            return observed;
+        }
+        return signal == SignalType.CANCEL ? "cancelled" : "error";
+    }
+
+    private Timer latencyTimer(String mode, String outcome) {
+        return Timer.builder("chat.latency")
+                .description("Time from receiving a chat message until the reply is complete")
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Timer firstTokenTimer(String mode) {
+        return Timer.builder("chat.first.token")
+                .description("Time from receiving a chat message until the first reply chunk")
+                .tag("mode", mode)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Timer generationTimer(String mode) {
+        return Timer.builder("chat.generation.latency")
+                .description("Time spent waiting for the LLM reply, excluding retrieval")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,148 @@
+package com.datewithai.domain.chat.service;
+
+import com.datewithai.domain.chat.dto.AiChatResponse;
+import com.datewithai.domain.chat.dto.CharacterPrompt;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+// 캐릭터 + 프롬프트 버전 + 정규화된 메시지 단위의 AI 응답 캐시.
+// 동시에 들어온 같은 요청은 하나의 upstream Mono 를 공유한다.
+@Component
+public class ChatReplyCache {
+
+    private static final String KEY_PREFIX = "chat:reply:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Scheduler blockingScheduler;
+    private final ConcurrentMap<String, Mono<AiChatResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    @Value("${ai.reply-cache.enabled}")
+    private boolean enabled;
+
+    @Value("${ai.reply-cache.ttl}")
+    private Duration ttl;
+
+    @Value("${ai.reply-cache.max-message-length}")
+    private int maxMessageLength;
+
+    @Autowired
+    public ChatReplyCache(RedisTemplate<String, Object> redisTemplate,
+                          MeterRegistry meterRegistry,
+                          @Qualifier("blockingScheduler") Scheduler blockingScheduler) {
+        this.redisTemplate = redisTemplate;
+        this.blockingScheduler = blockingScheduler;
+        // @Cacheable 영역과 같은 이름의 지표로 남긴다 (Redis 만 쓰므로 l2_hit / miss 뿐이다)
+        this.hits = lookupCounter(meterRegistry, "l2_hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+    }
+
+    public Mono<AiChatResponse> getOrLoad(CharacterPrompt prompt, String message, Supplier<Mono<AiChatResponse>> loader) {
+        String normalized = normalize(message);
+        if (!isCacheable(prompt, normalized)) {
+            return loader.get();
+        }
+
+        String key = key(prompt, normalized);
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> lookup(k)
+                .doOnNext(cached -> hits.increment())
+                .switchIfEmpty(Mono.defer(() -> {
+                            misses.increment();
+                            return loader.get();
+                        })
+                        .flatMap(response -> store(k, response).thenReturn(response)))
+                .doFinally(signal -> inFlight.remove(k))
+                .cache()));
+    }
+
+    // 파이썬 서버를 부를 수 없을 때 대체 응답으로 쓸 캐시 값만 확인한다 (없으면 빈 Mono)
+    public Mono<AiChatResponse> find(CharacterPrompt prompt, String message) {
+        String normalized = normalize(message);
+        if (!isCacheable(prompt, normalized)) {
+            return Mono.empty();
+        }
+        return lookup(key(prompt, normalized));
+    }
+
+    // 캐릭터 설정이 바뀌면(updatedAt) 키가 달라지므로 이전 프롬프트로 만든 응답은 더 이상 쓰이지 않고 TTL 로 사라진다
+    private static String key(CharacterPrompt prompt, String normalized) {
+        return KEY_PREFIX + prompt.getCharacterId() + ":" + version(prompt) + ":" + hash(normalized);
+    }
+
+    private static long version(CharacterPrompt prompt) {
+        return prompt.getUpdatedAt() == null ? 0 : prompt.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private boolean isCacheable(CharacterPrompt prompt, String normalized) {
+        return enabled
+                && prompt.isReplyCacheEnabled()
+                && !normalized.isEmpty()
+                && normalized.length() <= maxMessageLength;
+    }
+
+    private Mono<AiChatResponse> lookup(String key) {
+        return Mono.fromCallable(() -> redisTemplate.opsForValue().get(key))
+                .subscribeOn(blockingScheduler)
+                .ofType(AiChatResponse.class)
+                .onErrorResume(error -> Mono.empty());
+    }
+
+    private Mono<Void> store(String key, AiChatResponse response) {
+        if (!response.isSuccess() || response.getResponse() == null) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> redisTemplate.opsForValue().set(key, response, ttl))
+                .subscribeOn(blockingScheduler)
+                .onErrorResume(error -> Mono.empty())
+                .then();
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.lookups")
+                .description("Two-level cache lookups by the level that answered")
+                .tag("cache", "chatReply")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // "안녕!!", " 안녕~ " 처럼 표기만 다른 인사말을 같은 키로 묶는다
+    static String normalize(String message) {
+        if (message == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(message, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .trim();
+        return normalized.replaceAll("[\\s.,!?~…ㅋㅎ^]+$", "");
+    }
+
+    private static String hash(String normalized) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -2,123 +2,315 @@ package com.datewithai.domain.chat.service;
 
 import com.datewithai.domain.chat.dto.AiChatRequest;
 import com.datewithai.domain.chat.dto.AiChatResponse;
+import com.datewithai.domain.chat.dto.AiChatStreamChunk;
+import com.datewithai.domain.chat.dto.CharacterPrompt;
+import com.datewithai.domain.chat.dto.ChatHistoryCursor;
 import com.datewithai.domain.chat.dto.ChatHistoryDto;
+import com.datewithai.domain.chat.dto.ChatHistoryPageDto;
 import com.datewithai.domain.chat.repository.ChatMessageRepository;
-import com.datewithai.domain.character.service.CharacterService;
 import com.datewithai.domain.character.repository.CharacterRepository;
 import com.datewithai.domain.user.service.UserService;
 import com.datewithai.domain.chat.entity.ChatMessage;
 import com.datewithai.domain.character.entity.Character;
+import com.datewithai.domain.story.service.StoryRetrievalService;
 import com.datewithai.domain.user.entity.User;
+import com.datewithai.global.llm.LlmCapacityExceededException;
+import com.datewithai.global.llm.LlmConcurrencyLimiter;
+import com.datewithai.global.llm.LlmEndpoint;
+import com.datewithai.global.llm.LlmUnavailableException;
+import com.datewithai.global.llm.PythonServiceCircuitBreaker;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 public class ChatService {
     
+    private static final String STREAM_DATA_PREFIX = "data:";
+    private static final int STREAM_PREFETCH = 32;
+    
     private final ChatMessageRepository chatMessageRepository;
-    private final CharacterService characterService;
     private final CharacterRepository characterRepository;
     private final UserService userService;
     private final WebClient pythonServiceWebClient;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ChatReplyCache chatReplyCache;
+    private final LlmConcurrencyLimiter llmConcurrencyLimiter;
+    private final PythonServiceCircuitBreaker pythonServiceCircuitBreaker;
+    private final ChatFallbackReplies chatFallbackReplies;
+    private final ChatMessageWriteBuffer chatMessageWriteBuffer;
+    private final ConversationMemoryService conversationMemoryService;
+    private final CharacterPromptRegistry characterPromptRegistry;
+    private final StoryRetrievalService storyRetrievalService;
+    private final ChatStreamRelay chatStreamRelay;
+    private final ChatMetrics chatMetrics;
+    private final ChatTracing chatTracing;
+    private final Scheduler blockingScheduler;
     
     @Value("${ai.python-service.endpoints.chat}")
     private String chatEndpoint;
     
+    @Value("${ai.python-service.endpoints.chat-stream}")
+    private String chatStreamEndpoint;
+    
     @Autowired
     public ChatService(ChatMessageRepository chatMessageRepository,
-                      CharacterService characterService,
                       CharacterRepository characterRepository,
                       UserService userService,
                       @Qualifier("pythonServiceWebClient") WebClient pythonServiceWebClient,
-                      RedisTemplate<String, Object> redisTemplate) {
+                      ObjectMapper objectMapper,
+                      ChatReplyCache chatReplyCache,
+                      LlmConcurrencyLimiter llmConcurrencyLimiter,
+                      PythonServiceCircuitBreaker pythonServiceCircuitBreaker,
+                      ChatFallbackReplies chatFallbackReplies,
+                      ChatMessageWriteBuffer chatMessageWriteBuffer,
+                      ConversationMemoryService conversationMemoryService,
+                      CharacterPromptRegistry characterPromptRegistry,
+                      StoryRetrievalService storyRetrievalService,
+                      ChatStreamRelay chatStreamRelay,
+                      ChatMetrics chatMetrics,
+                      ChatTracing chatTracing,
+                      @Qualifier("blockingScheduler") Scheduler blockingScheduler) {
         this.chatMessageRepository = chatMessageRepository;
-        this.characterService = characterService;
         this.characterRepository = characterRepository;
         this.userService = userService;
         this.pythonServiceWebClient = pythonServiceWebClient;
-        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.chatReplyCache = chatReplyCache;
+        this.llmConcurrencyLimiter = llmConcurrencyLimiter;
+        this.pythonServiceCircuitBreaker = pythonServiceCircuitBreaker;
+        this.chatFallbackReplies = chatFallbackReplies;
+        this.chatMessageWriteBuffer = chatMessageWriteBuffer;
+        this.conversationMemoryService = conversationMemoryService;
+        this.characterPromptRegistry = characterPromptRegistry;
+        this.storyRetrievalService = storyRetrievalService;
+        this.chatStreamRelay = chatStreamRelay;
+        this.chatMetrics = chatMetrics;
+        this.chatTracing = chatTracing;
+        this.blockingScheduler = blockingScheduler;
     }
     
-    @Transactional
+    // DB/Redis 작업은 모두 blockingScheduler 에서 하고, 호출 스레드와 이벤트 루프에서는 블로킹하지 않는다
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Mono<AiChatResponse> sendMessage(String username, Long characterId, String message, String sessionId) {
+        return chatMetrics.timeReply("blocking", Mono.fromCallable(() -> prepareTurn(username, characterId, message, sessionId))
+                .subscribeOn(blockingScheduler)
+                .flatMap(turnOpt -> turnOpt
+                        .map(turn -> generateReply(turn, characterId, message, username))
+                        .orElseGet(() -> Mono.just(new AiChatResponse("User or Character not found")))));
+    }
+    
+    // 파이썬 서버 서킷이 열려 있으면 검색도 하지 않고 대체 응답을 돌려준다 (대체 응답은 저장하지 않는다)
+    private Mono<AiChatResponse> generateReply(ChatTurn turn, Long characterId, String message, String clientKey) {
+        return pythonServiceCircuitBreaker.whenAvailable(LlmEndpoint.CHAT, () -> chatTracing.inStage("retrieval", storyRetrievalService.retrieveContext(characterId, message))
+                        .flatMap(storyContext -> {
+                            turn.request.setStoryContext(storyContext);
+                            return callChat(turn.request, clientKey);
+                        }))
+                .map(response -> {
+                    response.setSessionId(turn.sessionId);
+                    response.setSuccess(true);
+                    return response;
+                })
+                .flatMap(response -> Mono.fromRunnable(() -> finishTurn(turn, response.getResponse()))
+                        .subscribeOn(blockingScheduler)
+                        .then(chatStreamRelay.recordSession(turn.sessionId, turn.user.getId(), characterId))
+                        .thenReturn(response))
+                .onErrorResume(LlmUnavailableException.class, error -> chatFallbackReplies.reply(turn.prompt, message)
+                        .doOnNext(response -> response.setSessionId(turn.sessionId)))
+                .onErrorReturn(error -> !(error instanceof LlmCapacityExceededException),
+                        new AiChatResponse("AI 서버 연결에 실패했습니다.", true));
+    }
+    
+    // 파이썬 /chat/stream 의 토큰을 그대로 중계하고, 스트림이 끝나면 완성된 AI 메시지를 저장
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Flux<AiChatStreamChunk> streamMessage(String username, Long characterId, String message, String sessionId, String clientKey) {
+        return streamMessage(username, characterId, message, sessionId, clientKey,
+                acceptedSessionId -> {}, (savedSessionId, error) -> {});
+    }
+    
+    // WebSocket 용 콜백 (둘 다 blockingScheduler 에서 실행)
+    // onUserMessageAccepted: 사용자 메시지가 저장 대기열에 들어간 직후, 세션 id 로 호출된다
+    // onUserMessageSaved: write-behind 저장이 끝나면 (세션 id, null), 저장에 실패하면 (세션 id, 원인) 으로 호출된다
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Flux<AiChatStreamChunk> streamMessage(String username, Long characterId, String message, String sessionId,
+                                                 String clientKey, Consumer<String> onUserMessageAccepted,
+                                                 BiConsumer<String, Throwable> onUserMessageSaved) {
+        return chatMetrics.timeStream("stream", Mono.fromCallable(() -> prepareTurn(username, characterId, message, sessionId))
+                .subscribeOn(blockingScheduler)
+                .doOnNext(turnOpt -> turnOpt.ifPresent(turn -> {
+                    onUserMessageAccepted.accept(turn.sessionId);
+                    // 저장 스레드를 붙잡지 않도록 콜백은 blockingScheduler 로 넘긴다
+                    turn.userMessageSaved.whenCompleteAsync((saved, error) -> onUserMessageSaved.accept(turn.sessionId, error),
+                            blockingScheduler::schedule);
+                }))
+                .flatMapMany(turnOpt -> turnOpt
+                        .map(turn -> streamReply(turn, characterId, message, clientKey))
+                        .orElseGet(() -> Flux.just(AiChatStreamChunk.error("User or Character not found")))));
+    }
+    
+    // 조각은 Redis 로도 중계되어, 연결이 끊긴 클라이언트가 다른 노드에서 resume 으로 이어받을 수 있다
+    private Flux<AiChatStreamChunk> streamReply(ChatTurn turn, Long characterId, String message, String clientKey) {
+        return chatStreamRelay.publish(turn.sessionId, turn.user.getId(), characterId, generateStream(turn, characterId, message, clientKey));
+    }
+    
+    private Flux<AiChatStreamChunk> generateStream(ChatTurn turn, Long characterId, String message, String clientKey) {
+        return pythonServiceCircuitBreaker.whenAvailableMany(LlmEndpoint.CHAT_STREAM, () -> chatTracing.inStage("retrieval", storyRetrievalService.retrieveContext(characterId, message))
+                        .flatMapMany(storyContext -> {
+                            turn.request.setStoryContext(storyContext);
+                            return callChatStream(turn.request, clientKey);
+                        }))
+                .limitRate(STREAM_PREFETCH)
+                .filter(line -> line.startsWith(STREAM_DATA_PREFIX))
+                .map(this::parseStreamChunk)
+                .concatMap(chunk -> {
+                    if (!chunk.isFinished()) {
+                        return Mono.just(chunk);
+                    }
+                    return Mono.fromRunnable(() -> finishTurn(turn, chunk.getFullResponse()))
+                            .subscribeOn(blockingScheduler)
+                            .thenReturn(chunk);
+                })
+                .onErrorResume(LlmUnavailableException.class, error -> chatFallbackReplies.reply(turn.prompt, message)
+                        .map(response -> AiChatStreamChunk.fallback(response.getResponse()))
+                        .flux())
+                .onErrorResume(error -> Flux.just(AiChatStreamChunk.error(error instanceof LlmCapacityExceededException
+                        ? "AI 서버가 혼잡합니다. 잠시 후 다시 시도해주세요."
+                        : "AI 서버 연결에 실패했습니다.")))
+                .doOnNext(chunk -> chunk.setSessionId(turn.sessionId));
+    }
+    
+    // 다른 노드에서 시작된 응답이라도 이어받는다 (lastEventId 는 마지막으로 받은 SSE id)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Flux<AiChatStreamChunk> resumeStream(String sessionId, String lastEventId) {
+        return chatStreamRelay.resume(sessionId, lastEventId);
+    }
+    
+    // blockingScheduler 에서 실행: 사용자/캐릭터 확인, 대화 맥락 조회, 사용자 메시지 저장
+    private Optional<ChatTurn> prepareTurn(String username, Long characterId, String message, String sessionId) {
+        return chatMetrics.timePrepare(() -> chatTracing.inStage("prepare", () -> loadTurn(username, characterId, message, sessionId)));
+    }
+    
+    private Optional<ChatTurn> loadTurn(String username, Long characterId, String message, String sessionId) {
         Optional<User> userOpt = userService.findByUsername(username);
-        Optional<Character> characterOpt = characterService.findById(characterId);
+        Optional<CharacterPrompt> promptOpt = characterPromptRegistry.get(characterId);
         
-        if (userOpt.isEmpty() || characterOpt.isEmpty()) {
-            return Mono.just(new AiChatResponse("User or Character not found"));
+        if (userOpt.isEmpty() || promptOpt.isEmpty()) {
+            return Optional.empty();
         }
         
         User user = userOpt.get();
-        Character character = characterOpt.get();
+        // 메시지 저장에는 FK 만 필요하므로 DB 를 읽지 않는 참조만 얻는다
+        Character character = characterRepository.getReferenceById(characterId);
         
-        final String finalSessionId = (sessionId == null || sessionId.isEmpty()) ? 
+        String finalSessionId = (sessionId == null || sessionId.isEmpty()) ? 
             UUID.randomUUID().toString() : sessionId;
         
-        saveUserMessage(user, character, message, finalSessionId);
-        
-        String characterInfo = buildCharacterInfo(character);
-        String characterFileId = getCharacterFileId(character.getName());
+        // 이번 메시지를 기억에 넣기 전의 대화 맥락을 함께 보낸다
+        String conversationContext = conversationMemoryService.render(conversationMemoryService.load(finalSessionId));
+        CompletableFuture<ChatMessage> userMessageSaved = saveUserMessage(user, character, message, finalSessionId);
         
-        AiChatRequest request = new AiChatRequest(message, characterFileId, characterInfo);
-        
-        return pythonServiceWebClient.post()
-                .uri(chatEndpoint)
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(AiChatResponse.class)
-                .map(response -> {
-                    response.setSessionId(finalSessionId);
-                    response.setSuccess(true);
-                    return response;
-                })
-                .doOnSuccess(response -> {
-                    saveAiMessage(user, character, response.getResponse(), finalSessionId);
-                    cacheConversation(finalSessionId, user, character);
-                })
-                .onErrorReturn(new AiChatResponse("AI 서버 연결에 실패했습니다.", true));
+        AiChatRequest request = promptOpt.get().toRequest(message);
+        request.setConversationContext(conversationContext);
+        return Optional.of(new ChatTurn(user, character, finalSessionId, promptOpt.get(), request, userMessageSaved));
+    }
+    
+    // blockingScheduler 에서 실행
+    private void finishTurn(ChatTurn turn, String reply) {
+        chatTracing.inStage("persist", () -> saveAiMessage(turn.user, turn.character, reply, turn.sessionId));
+    }
+    
+    // LLM 호출 (대기열 대기 포함). 타임아웃과 서킷 기록은 대기열을 통과한 실제 HTTP 호출에만 적용된다
+    private Mono<AiChatResponse> callChat(AiChatRequest request, String clientKey) {
+        return chatMetrics.timeGeneration("blocking", chatTracing.inStage("generation", llmConcurrencyLimiter.execute(clientKey,
+                () -> pythonServiceCircuitBreaker.protect(LlmEndpoint.CHAT, pythonServiceWebClient.post()
+                        .uri(chatEndpoint)
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(AiChatResponse.class)))));
+    }
+    
+    private Flux<String> callChatStream(AiChatRequest request, String clientKey) {
+        return chatMetrics.timeGeneration("stream", chatTracing.inStage("generation", llmConcurrencyLimiter.executeMany(clientKey,
+                () -> pythonServiceCircuitBreaker.protectMany(LlmEndpoint.CHAT_STREAM, pythonServiceWebClient.post()
+                        .uri(chatStreamEndpoint)
+                        .accept(MediaType.TEXT_PLAIN, MediaType.TEXT_EVENT_STREAM)
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToFlux(String.class)))));
+    }
+    
+    private AiChatStreamChunk parseStreamChunk(String line) {
+        try {
+            return objectMapper.readValue(line.substring(STREAM_DATA_PREFIX.length()).trim(), AiChatStreamChunk.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid stream chunk: " + line, e);
+        }
     }
     
-    @Transactional
-    private void saveUserMessage(User user, Character character, String message, String sessionId) {
+    // 반환된 future 는 write-behind 저장이 끝나면 완료된다
+    private CompletableFuture<ChatMessage> saveUserMessage(User user, Character character, String message, String sessionId) {
         ChatMessage chatMessage = new ChatMessage(user, character, message, ChatMessage.MessageType.USER, sessionId);
-        chatMessageRepository.save(chatMessage);
+        CompletableFuture<ChatMessage> saved = chatMessageWriteBuffer.enqueue(chatMessage);
+        conversationMemoryService.append(sessionId, ChatMessage.MessageType.USER, message);
+        return saved;
     }
     
-    @Transactional
     @CacheEvict(value = "conversation", key = "#sessionId")
     private void saveAiMessage(User user, Character character, String message, String sessionId) {
         ChatMessage chatMessage = new ChatMessage(user, character, message, ChatMessage.MessageType.AI, sessionId);
-        chatMessageRepository.save(chatMessage);
+        chatMessageWriteBuffer.enqueue(chatMessage);
+        conversationMemoryService.append(sessionId, ChatMessage.MessageType.AI, message);
     }
     
-    @Cacheable(value = "conversation", key = "#user.id + '_' + #character.id")
+    // 최근 limit 개를 시간순으로 반환 (limit 은 SQL 에서 적용)
+    @Cacheable(value = "conversation", key = "#user.id + '_' + #character.id + '_' + #limit")
     public List<ChatHistoryDto> getConversationHistory(User user, Character character, int limit) {
-        LocalDateTime since = LocalDateTime.now().minusHours(24);
-        List<ChatMessage> messages = chatMessageRepository.findRecentConversation(user, character, since);
+        List<ChatHistoryDto> latest = new ArrayList<>(
+                chatMessageRepository.findLatestHistory(user.getId(), character.getId(), PageRequest.of(0, limit)));
+        Collections.reverse(latest);
+        return latest;
+    }
+    
+    // 최신 메시지부터 size 개씩, (created_at, id) 커서 기준으로 이전 메시지를 이어서 조회
+    public ChatHistoryPageDto getConversationPage(Long userId, Long characterId, String cursor, int size) {
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<ChatHistoryDto> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = chatMessageRepository.findLatestHistory(userId, characterId, limit);
+        } else {
+            ChatHistoryCursor after = ChatHistoryCursor.decode(cursor);
+            rows = chatMessageRepository.findHistoryBefore(userId, characterId, after.getCreatedAt(), after.getId(), limit);
+        }
         
-        return messages.stream()
-                .limit(limit)
-                .map(ChatHistoryDto::fromEntity)
-                .collect(Collectors.toList());
+        boolean hasNext = rows.size() > size;
+        List<ChatHistoryDto> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? ChatHistoryCursor.from(page.get(page.size() - 1)).encode() : null;
+        return new ChatHistoryPageDto(new ArrayList<>(page), nextCursor, hasNext);
     }
     
     public List<ChatHistoryDto> getSessionHistory(String sessionId) {
@@ -129,17 +321,11 @@ public class ChatService {
                 .collect(Collectors.toList());
     }
     
-    private void cacheConversation(String sessionId, User user, Character character) {
-        String key = "session:" + sessionId;
-        String value = user.getId() + ":" + character.getId();
-        redisTemplate.opsForValue().set(key, value, 24, TimeUnit.HOURS);
-    }
-    
     public Long getConversationCount(User user, Character character) {
         return chatMessageRepository.countConversationMessages(user, character);
     }
     
-    @Cacheable(value = "userChatHistory", key = "#username")
+    @Cacheable(value = "userChatHistory", key = "#username + '_' + #page + '_' + #size")
     public List<ChatHistoryDto> getUserChatHistory(String username, int page, int size) {
         Optional<User> userOpt = userService.findByUsername(username);
         if (userOpt.isEmpty()) {
@@ -152,54 +338,54 @@ public class ChatService {
                 .collect(Collectors.toList());
     }
     
-    private String buildCharacterInfo(Character character) {
-        StringBuilder info = new StringBuilder();
-        info.append("캐릭터 이름: ").append(character.getName()).append("\n");
-        if (character.getDescription() != null) {
-            info.append("캐릭터 설명: ").append(character.getDescription()).append("\n");
-        }
-        if (character.getPersonality() != null) {
-            info.append("성격: ").append(character.getPersonality()).append("\n");
-        }
-        return info.toString();
+    // 새로운 단순한 메시지 전송 메소드 (세션 관리 없음)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Mono<AiChatResponse> sendSimpleMessage(Long characterId, String message, String clientKey) {
+        // 레지스트리에 없는 캐릭터는 DB 를 읽으므로 블로킹 스케줄러에서 조회
+        return Mono.fromCallable(() -> characterPromptRegistry.get(characterId))
+                .subscribeOn(blockingScheduler)
+                .flatMap(promptOpt -> promptOpt
+                        .map(prompt -> generateSimpleReply(prompt, characterId, message, clientKey))
+                        .orElseGet(() -> Mono.just(new AiChatResponse("Character not found", true))));
     }
     
-    // 새로운 단순한 메시지 전송 메소드 (세션 관리 없음)
-    @Transactional
-    public Mono<AiChatResponse> sendSimpleMessage(Long characterId, String message) {
-        Optional<Character> characterOpt = characterRepository.findById(characterId);
-        
-        if (characterOpt.isEmpty()) {
-            return Mono.just(new AiChatResponse("Character not found", true));
-        }
-        
-        Character character = characterOpt.get();
-        String characterInfo = buildCharacterInfo(character);
-        String characterFileId = getCharacterFileId(character.getName());
-        
-        AiChatRequest request = new AiChatRequest(message, characterFileId, characterInfo);
+    private Mono<AiChatResponse> generateSimpleReply(CharacterPrompt prompt, Long characterId, String message, String clientKey) {
+        AiChatRequest request = prompt.toRequest(message);
         
-        return pythonServiceWebClient.post()
-                .uri(chatEndpoint)
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(AiChatResponse.class)
-                .map(response -> {
-                    response.setSuccess(true);
-                    return response;
-                })
-                .onErrorReturn(new AiChatResponse("AI 서버 연결에 실패했습니다.", true));
+        // 캐시에 있으면 검색도 생략된다
+        return chatMetrics.timeReply("simple", chatReplyCache.getOrLoad(prompt, message, () -> pythonServiceCircuitBreaker.whenAvailable(LlmEndpoint.CHAT,
+                        () -> chatTracing.inStage("retrieval", storyRetrievalService.retrieveContext(characterId, message))
+                                .flatMap(storyContext -> {
+                                    request.setStoryContext(storyContext);
+                                    return callChat(request, clientKey);
+                                }))
+                        .map(response -> {
+                            response.setSuccess(true);
+                            return response;
+                        }))
+                // 대체 응답은 getOrLoad 밖에서 만들어서 응답 캐시에 들어가지 않게 한다
+                .onErrorResume(LlmUnavailableException.class, error -> chatFallbackReplies.reply(prompt, message))
+                .onErrorReturn(error -> !(error instanceof LlmCapacityExceededException),
+                        new AiChatResponse("AI 서버 연결에 실패했습니다.", true)));
     }
-
-    private String getCharacterFileId(String characterName) {
-        // 캐릭터 이름을 파이썬에서 사용하는 파일명으로 매핑
-        switch (characterName) {
-            case "호시노 아이":
-                return "hoshino ai_character.txt";
-            case "시노부":
-                return "shinobu_character.txt";
-            default:
-                return characterName.toLowerCase().replace(" ", "_") + "_character.txt";
+    
+    // 한 번의 주고받기에 필요한 값들 (prepareTurn 에서 만들고 응답 저장 때 다시 쓴다)
+    private static final class ChatTurn {
+        private final User user;
+        private final Character character;
+        private final String sessionId;
+        private final CharacterPrompt prompt;
+        private final AiChatRequest request;
+        private final CompletableFuture<ChatMessage> userMessageSaved;
+        
+        private ChatTurn(User user, Character character, String sessionId, CharacterPrompt prompt, AiChatRequest request,
+                         CompletableFuture<ChatMessage> userMessageSaved) {
+            this.user = user;
+            this.character = character;
+            this.sessionId = sessionId;
+            this.prompt = prompt;
+            this.request = request;
+            this.userMessageSaved = userMessageSaved;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,249 @@
+package com.datewithai.domain.chat.service;
+
+import com.datewithai.domain.chat.dto.AiChatStreamChunk;
+import com.datewithai.global.cluster.ClusterNode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.ConnectableFlux;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * 채팅 응답 스트림을 Redis 로 중계해서 어느 노드에서든 세션을 이어받을 수 있게 한다.
+ * <ul>
+ *   <li>chat:session:{id} (hash) - 세션의 사용자/캐릭터와 마지막으로 응답한 노드</li>
+ *   <li>chat:stream:{id}:owner - 지금 응답을 만들고 있는 노드 (짧은 TTL 을 스트림 동안 연장)</li>
+ *   <li>chat:stream:{id} (Redis Stream + 같은 이름의 채널) - 이번 응답의 조각들. 레코드 id 가 SSE id 가 된다</li>
+ * </ul>
+ * 연결이 끊겨 다른 노드로 다시 붙은 클라이언트는 {@link #resume} 으로 마지막 id 이후를 다시 받고,
+ * 응답이 아직 진행 중이면 소유 노드가 발행하는 조각을 이어서 받는다.
+ */
+@Service
+public class ChatStreamRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatStreamRelay.class);
+
+    private static final String SESSION_PREFIX = "chat:session:";
+    private static final String STREAM_PREFIX = "chat:stream:";
+    private static final String OWNER_SUFFIX = ":owner";
+    private static final String DATA_FIELD = "data";
+    private static final String SEPARATOR = "|";
+    private static final Pattern EVENT_ID = Pattern.compile("\\d+-\\d+");
+
+    // 내가 잡은 소유권일 때만 지운다 (그 사이 다른 노드가 같은 세션의 새 응답을 시작했을 수 있다)
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+            Long.class);
+
+    private final ReactiveStringRedisTemplate redis;
+    // 컨테이너는 만들 때 Redis 연결을 여므로 첫 resume 때 만든다 (Redis 없이도 앱이 뜨도록)
+    private final ObjectProvider<ReactiveRedisMessageListenerContainer> listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final ClusterNode clusterNode;
+    private final Scheduler blockingScheduler;
+
+    @Value("${chat.relay.owner-lease}")
+    private Duration ownerLease;
+
+    @Value("${chat.relay.stream-retention}")
+    private Duration streamRetention;
+
+    @Value("${chat.relay.session-ttl}")
+    private Duration sessionTtl;
+
+    @Value("${chat.relay.resume-idle-timeout}")
+    private Duration resumeIdleTimeout;
+
+    @Autowired
+    public ChatStreamRelay(ReactiveStringRedisTemplate redis,
+                           ObjectProvider<ReactiveRedisMessageListenerContainer> listenerContainer,
+                           ObjectMapper objectMapper,
+                           ClusterNode clusterNode,
+                           @Qualifier("blockingScheduler") Scheduler blockingScheduler) {
+        this.redis = redis;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.clusterNode = clusterNode;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    // 세션 디렉터리 갱신. Redis 장애는 채팅을 막지 않는다
+    public Mono<Void> recordSession(String sessionId, Long userId, Long characterId) {
+        String key = SESSION_PREFIX + sessionId;
+        return redis.<String, String>opsForHash()
+                .putAll(key, Map.of(
+                        "userId", String.valueOf(userId),
+                        "characterId", String.valueOf(characterId),
+                        "node", clusterNode.getId()))
+                .then(redis.expire(key, sessionTtl))
+                .then()
+                .onErrorResume(error -> {
+                    log.warn("Failed to record chat session {}", sessionId, error);
+                    return Mono.empty();
+                });
+    }
+
+    // 소유 노드에서 응답 조각을 그대로 흘려보내면서 Redis Stream 에 남기고 채널로 알린다.
+    // 클라이언트가 끊겨도 생성은 끝까지 진행해서(응답 저장 포함) 재연결한 클라이언트가 이어받을 수 있게 한다
+    public Flux<AiChatStreamChunk> publish(String sessionId, Long userId, Long characterId, Flux<AiChatStreamChunk> chunks) {
+        String owner = clusterNode.getId() + "/" + UUID.randomUUID();
+        return claim(sessionId, owner)
+                .then(recordSession(sessionId, userId, characterId))
+                .thenMany(Flux.defer(() -> {
+                    Disposable lease = Flux.interval(ownerLease.dividedBy(3))
+                            .concatMap(tick -> redis.expire(ownerKey(sessionId), ownerLease))
+                            .subscribe(extended -> {}, error -> log.debug("Failed to extend stream lease", error));
+                    return chunks.concatMap(chunk -> append(sessionId, chunk))
+                            .doFinally(signal -> {
+                                lease.dispose();
+                                release(sessionId, owner).subscribe(released -> {},
+                                        error -> log.warn("Failed to release chat stream {}", sessionId, error));
+                            });
+                }))
+                // 구독자가 취소해도 원본 구독은 유지된다 (autoConnect 는 연결을 끊지 않는다)
+                .replay()
+                .autoConnect(1);
+    }
+
+    // 아무 노드에서나 호출 가능. lastEventId 이후의 조각을 다시 보내고, 진행 중이면 끝날 때까지 이어 붙인다
+    public Flux<AiChatStreamChunk> resume(String sessionId, String lastEventId) {
+        String streamKey = STREAM_PREFIX + sessionId;
+        AtomicReference<String> last = new AtomicReference<>(
+                lastEventId != null && EVENT_ID.matcher(lastEventId).matches() ? lastEventId : null);
+
+        // 채널 구독이 잡힌 다음에 지난 조각을 읽어야 그 사이에 발행된 조각을 놓치지 않는다
+        return Mono.fromCallable(listenerContainer::getObject)
+                .subscribeOn(blockingScheduler)
+                .flatMap(container -> container.receiveLater(ChannelTopic.of(streamKey)))
+                .flatMapMany(messages -> {
+                    ConnectableFlux<AiChatStreamChunk> live = messages
+                            .map(message -> fromLiveMessage(message.getMessage()))
+                            .replay();
+                    Disposable connection = live.connect();
+
+                    Flux<AiChatStreamChunk> following = redis.hasKey(ownerKey(sessionId))
+                            .flatMapMany(owned -> owned
+                                    ? live.filter(chunk -> isAfter(chunk.getEventId(), last.get()))
+                                            .doOnNext(chunk -> last.set(chunk.getEventId()))
+                                    // 소유자가 없으면 이미 끝났거나 소유 노드가 죽은 것: 남은 조각만 읽고 끝낸다
+                                    : readAfter(streamKey, last).concatWith(Mono.fromSupplier(() -> interrupted(sessionId))));
+
+                    return Flux.concat(readAfter(streamKey, last), following)
+                            .takeUntil(AiChatStreamChunk::isFinished)
+                            .timeout(resumeIdleTimeout, Mono.fromSupplier(() -> interrupted(sessionId)))
+                            .doFinally(signal -> connection.dispose());
+                });
+    }
+
+    private Mono<Void> claim(String sessionId, String owner) {
+        // 세션당 진행 중인 응답은 하나이므로 이전 응답의 조각은 지우고 시작한다
+        return redis.delete(STREAM_PREFIX + sessionId)
+                .then(redis.opsForValue().set(ownerKey(sessionId), owner, ownerLease))
+                .then()
+                .onErrorResume(error -> {
+                    log.warn("Failed to claim chat stream {}", sessionId, error);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> release(String sessionId, String owner) {
+        return redis.execute(RELEASE_SCRIPT, List.of(ownerKey(sessionId)), List.of(owner))
+                .then(redis.expire(STREAM_PREFIX + sessionId, streamRetention))
+                .then();
+    }
+
+    private Mono<AiChatStreamChunk> append(String sessionId, AiChatStreamChunk chunk) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(chunk);
+        } catch (JsonProcessingException e) {
+            return Mono.just(chunk);
+        }
+        String streamKey = STREAM_PREFIX + sessionId;
+        return redis.<String, String>opsForStream()
+                .add(StreamRecords.string(Map.of(DATA_FIELD, json)).withStreamKey(streamKey))
+                .flatMap(recordId -> redis.convertAndSend(streamKey, recordId.getValue() + SEPARATOR + json)
+                        .then(Mono.fromSupplier(() -> {
+                            chunk.setEventId(recordId.getValue());
+                            return chunk;
+                        })))
+                // 중계에 실패해도 지금 연결된 클라이언트에게는 그대로 보낸다 (재연결 시 이어받기만 안 된다)
+                .onErrorResume(error -> {
+                    log.debug("Failed to relay chunk for session {}", sessionId, error);
+                    return Mono.just(chunk);
+                });
+    }
+
+    private Flux<AiChatStreamChunk> readAfter(String streamKey, AtomicReference<String> last) {
+        return Flux.defer(() -> {
+            Range<String> range = last.get() == null
+                    ? Range.unbounded()
+                    : Range.rightUnbounded(Range.Bound.exclusive(last.get()));
+            return redis.<String, String>opsForStream().range(streamKey, range)
+                    .map(record -> toChunk(record.getId().getValue(), record.getValue().get(DATA_FIELD)))
+                    .doOnNext(chunk -> last.set(chunk.getEventId()));
+        });
+    }
+
+    private AiChatStreamChunk fromLiveMessage(String message) {
+        int separator = message.indexOf(SEPARATOR);
+        return toChunk(message.substring(0, separator), message.substring(separator + 1));
+    }
+
+    private AiChatStreamChunk toChunk(String eventId, String json) {
+        try {
+            AiChatStreamChunk chunk = objectMapper.readValue(json, AiChatStreamChunk.class);
+            chunk.setEventId(eventId);
+            return chunk;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid relayed chunk: " + eventId, e);
+        }
+    }
+
+    private static AiChatStreamChunk interrupted(String sessionId) {
+        AiChatStreamChunk chunk = AiChatStreamChunk.error("응답이 중단되었습니다. 다시 시도해주세요.");
+        chunk.setSessionId(sessionId);
+        return chunk;
+    }
+
+    private static String ownerKey(String sessionId) {
+        return STREAM_PREFIX + sessionId + OWNER_SUFFIX;
+    }
+
+    // Redis Stream id("밀리초-순번") 비교
+    private static boolean isAfter(String eventId, String lastEventId) {
+        if (lastEventId == null) {
+            return true;
+        }
+        long[] id = parseId(eventId);
+        long[] last = parseId(lastEventId);
+        return id[0] != last[0] ? id[0] > last[0] : id[1] > last[1];
+    }
+
+    private static long[] parseId(String eventId) {
+        int dash = eventId.indexOf('-');
+        return new long[] {Long.parseLong(eventId.substring(0, dash)), Long.parseLong(eventId.substring(dash + 1))};
+    }
+}
@@ -0,0 +1,70 @@
+package com.datewithai.domain.chat.service;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.function.Supplier;
+
+/**
+ * 채팅 한 턴의 구간(stage)을 span 으로 나눈다: prepare, retrieval, generation, persist.
+ * 구간 안에서 일어나는 JDBC 쿼리, Redis 명령, 파이썬 서버 호출 span 은 이 구간의 자식으로 붙는다.
+ * 같은 관측으로 chat.stage 타이머(stage 태그)도 남는다.
+ */
+@Component
+public class ChatTracing {
+
+    private static final String NAME = "chat.stage";
+
+    private final ObservationRegistry observationRegistry;
+
+    @Autowired
+    public ChatTracing(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    // blockingScheduler 에서 실행되는 동기 구간
+    public <T> T inStage(String stage, Supplier<T> work) {
+        return stage(stage, observationRegistry.getCurrentObservation()).observe(work);
+    }
+
+    public void inStage(String stage, Runnable work) {
+        stage(stage, observationRegistry.getCurrentObservation()).observe(work);
+    }
+
+    public <T> Mono<T> inStage(String stage, Mono<T> work) {
+        return Mono.deferContextual(context -> {
+            Observation observation = stage(stage, parent(context)).start();
+            return work.doOnError(observation::error)
+                    .doFinally(signal -> observation.stop())
+                    .contextWrite(upstream -> upstream.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    public <T> Flux<T> inStage(String stage, Flux<T> work) {
+        return Flux.deferContextual(context -> {
+            Observation observation = stage(stage, parent(context)).start();
+            return work.doOnError(observation::error)
+                    .doFinally(signal -> observation.stop())
+                    .contextWrite(upstream -> upstream.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    // 리액터 컨텍스트에 담긴 관측이 우선이고, 없으면 호출 스레드의 현재 관측(MVC 요청 span)을 잇는다
+    private Observation parent(ContextView context) {
+        return context.<Observation>getOrEmpty(ObservationThreadLocalAccessor.KEY)
+                .orElseGet(observationRegistry::getCurrentObservation);
+    }
+
+    private Observation stage(String stage, Observation parent) {
+        return Observation.createNotStarted(NAME, observationRegistry)
+                .contextualName("chat " + stage)
+                .lowCardinalityKeyValue("stage", stage)
+                .parentObservation(parent);
+    }
+}
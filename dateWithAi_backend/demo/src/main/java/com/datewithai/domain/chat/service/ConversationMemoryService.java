@@ -0,0 +1,219 @@
+package com.datewithai.domain.chat.service;
+
+import com.datewithai.domain.chat.dto.ChatHistoryDto;
+import com.datewithai.domain.chat.dto.ConversationMemory;
+import com.datewithai.domain.chat.entity.ChatMessage;
+import com.datewithai.domain.chat.repository.ChatMessageRepository;
+import com.datewithai.global.util.TokenEstimator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 세션별 대화 기억을 Redis 에 보관한다.
+ * 최근 N 턴은 그대로 두고, 밀려난 턴은 한 줄 요약으로 접어서
+ * 프롬프트에 들어가는 대화 맥락이 토큰 예산을 넘지 않게 한다.
+ * 턴 추가는 읽은 값이 그대로일 때만 쓰는 compare-and-set 이라 같은 세션의 동시 요청이 서로의 턴을 덮어쓰지 않는다.
+ */
+@Service
+public class ConversationMemoryService {
+
+    private static final String KEY_PREFIX = "memory:";
+
+    static final RedisScript<Boolean> COMPARE_AND_SET =
+            RedisScript.of(new ClassPathResource("redis/compare-and-set.lua"), Boolean.class);
+    static final int MAX_APPEND_ATTEMPTS = 3;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ChatMessageRepository chatMessageRepository;
+    private final RedisSerializer<String> keySerializer;
+    private final RedisSerializer<Object> valueSerializer;
+
+    @Value("${chat.memory.max-turns}")
+    private int maxTurns;
+
+    @Value("${chat.memory.token-budget}")
+    private int tokenBudget;
+
+    @Value("${chat.memory.summary-token-budget}")
+    private int summaryTokenBudget;
+
+    @Value("${chat.memory.summary-line-length}")
+    private int summaryLineLength;
+
+    @Value("${chat.memory.ttl}")
+    private Duration ttl;
+
+    @Autowired
+    @SuppressWarnings("unchecked")
+    public ConversationMemoryService(RedisTemplate<String, Object> redisTemplate,
+                                     ChatMessageRepository chatMessageRepository) {
+        this.redisTemplate = redisTemplate;
+        this.chatMessageRepository = chatMessageRepository;
+        this.keySerializer = (RedisSerializer<String>) redisTemplate.getKeySerializer();
+        this.valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+    }
+
+    public ConversationMemory load(String sessionId) {
+        try {
+            Object cached = redisTemplate.opsForValue().get(key(sessionId));
+            if (cached instanceof ConversationMemory memory) {
+                return memory;
+            }
+        } catch (DataAccessException e) {
+            // Redis 장애 시에도 대화는 계속되도록 DB 기준으로 다시 구성
+        }
+
+        return fromDatabase(sessionId);
+    }
+
+    // 최신순으로 조회한 메시지들로 요약 없는 기억을 만든다 (예산은 appendTurn 과 같이 맞춘다)
+    public ConversationMemory fromLatestTurns(List<ChatHistoryDto> latestFirst) {
+        List<ChatHistoryDto> turns = new ArrayList<>(latestFirst);
+        Collections.reverse(turns);
+        return fitToBudget(new ConversationMemory("", turns));
+    }
+
+    public void append(String sessionId, ChatMessage.MessageType type, String message) {
+        if (message == null || message.isBlank()) {
+            return;
+        }
+        byte[] rawKey = keySerializer.serialize(key(sessionId));
+        byte[] script = COMPARE_AND_SET.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        byte[] ttlMillis = String.valueOf(ttl.toMillis()).getBytes(StandardCharsets.UTF_8);
+
+        try {
+            for (int attempt = 0; attempt < MAX_APPEND_ATTEMPTS; attempt++) {
+                byte[] current = redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(rawKey));
+                Object cached = current == null ? null : valueSerializer.deserialize(current);
+                ConversationMemory memory = cached instanceof ConversationMemory existing ? existing : fromDatabase(sessionId);
+                byte[] updated = valueSerializer.serialize(appendTurn(memory, type, message));
+                byte[] expected = current == null ? new byte[0] : current;
+
+                Boolean stored = redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.scriptingCommands()
+                        .eval(script, ReturnType.BOOLEAN, 1, rawKey, expected, updated, ttlMillis));
+                if (Boolean.TRUE.equals(stored)) {
+                    return;
+                }
+            }
+            // 같은 세션의 다른 요청과 계속 겹치면 기억을 지워서 다음 load 가 DB 로부터 다시 만들게 한다
+            redisTemplate.delete(key(sessionId));
+        } catch (DataAccessException e) {
+            // 기억 저장 실패는 응답에 영향을 주지 않는다 (다음 load 에서 DB 로부터 복원)
+        }
+    }
+
+    // 턴을 추가하고, 턴 수와 토큰 예산을 넘는 오래된 턴은 요약으로 접는다 (저장은 호출하는 쪽에서)
+    public ConversationMemory appendTurn(ConversationMemory memory, ChatMessage.MessageType type, String message) {
+        memory.getTurns().add(new ChatHistoryDto(message, type.toString(), LocalDateTime.now()));
+        return fitToBudget(memory);
+    }
+
+    public String key(String sessionId) {
+        return KEY_PREFIX + sessionId;
+    }
+
+    public int getMaxTurns() { return maxTurns; }
+    public Duration getTtl() { return ttl; }
+
+    // 파이썬 쪽 시스템 프롬프트의 캐릭터 설정 뒤에 그대로 붙는 텍스트
+    public String render(ConversationMemory memory) {
+        StringBuilder context = new StringBuilder();
+        if (!memory.getSummary().isEmpty()) {
+            context.append("이전 대화 요약:\n").append(memory.getSummary()).append("\n");
+        }
+        if (!memory.getTurns().isEmpty()) {
+            if (context.length() > 0) {
+                context.append("\n");
+            }
+            context.append("최근 대화:\n");
+            for (ChatHistoryDto turn : memory.getTurns()) {
+                context.append(speaker(turn.getMessageType())).append(": ").append(turn.getMessage()).append("\n");
+            }
+        }
+        return context.toString();
+    }
+
+    // Redis 에 없으면(만료, 재시작) 세션의 최근 메시지로 다시 채운다
+    private ConversationMemory fromDatabase(String sessionId) {
+        return fromLatestTurns(chatMessageRepository
+                .findBySessionIdOrderByCreatedAtDesc(sessionId, PageRequest.of(0, maxTurns))
+                .stream()
+                .map(ChatHistoryDto::fromEntity)
+                .toList());
+    }
+
+    private ConversationMemory fitToBudget(ConversationMemory memory) {
+        while (memory.getTurns().size() > maxTurns) {
+            foldOldestTurn(memory);
+        }
+        // 최근 턴은 최소 2개(한 번의 주고받기)는 남기고 요약부터 줄인다
+        while (overBudget(memory) && memory.getTurns().size() > 2) {
+            foldOldestTurn(memory);
+        }
+        // 남은 턴 자체가 길면 오래된 쪽부터 넘는 만큼 잘라낸다
+        for (ChatHistoryDto turn : memory.getTurns()) {
+            int excess = TokenEstimator.estimate(render(memory)) - tokenBudget;
+            if (excess <= 0) {
+                break;
+            }
+            int keep = TokenEstimator.estimate(turn.getMessage()) - excess - 1;
+            turn.setMessage(TokenEstimator.truncate(turn.getMessage(), Math.max(0, keep)) + "…");
+        }
+        if (overBudget(memory)) {
+            memory.setSummary("");
+        }
+        return memory;
+    }
+
+    private boolean overBudget(ConversationMemory memory) {
+        return TokenEstimator.estimate(render(memory)) > tokenBudget;
+    }
+
+    private void foldOldestTurn(ConversationMemory memory) {
+        ChatHistoryDto oldest = memory.getTurns().remove(0);
+        String line = speaker(oldest.getMessageType()) + ": " + firstSentence(oldest.getMessage());
+
+        List<String> lines = new ArrayList<>();
+        if (!memory.getSummary().isEmpty()) {
+            lines.addAll(Arrays.asList(memory.getSummary().split("\n")));
+        }
+        lines.add(line);
+        while (lines.size() > 1 && TokenEstimator.estimate(String.join("\n", lines)) > summaryTokenBudget) {
+            lines.remove(0);
+        }
+        memory.setSummary(String.join("\n", lines));
+    }
+
+    private String firstSentence(String message) {
+        String trimmed = message.strip();
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c == '.' || c == '!' || c == '?' || c == '\n') {
+                trimmed = trimmed.substring(0, i + 1).strip();
+                break;
+            }
+        }
+        return trimmed.length() > summaryLineLength ? trimmed.substring(0, summaryLineLength) + "…" : trimmed;
+    }
+
+    private static String speaker(String messageType) {
+        return ChatMessage.MessageType.USER.toString().equals(messageType) ? "사용자" : "캐릭터";
+    }
+}
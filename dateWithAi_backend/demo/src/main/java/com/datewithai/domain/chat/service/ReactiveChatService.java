@@ -0,0 +1,209 @@
+package com.datewithai.domain.chat.service;
+
+import com.datewithai.domain.chat.dto.AiChatRequest;
+import com.datewithai.domain.chat.dto.AiChatResponse;
+import com.datewithai.domain.chat.dto.AiChatStreamChunk;
+import com.datewithai.domain.chat.dto.CharacterPrompt;
+import com.datewithai.domain.chat.dto.ChatHistoryCursor;
+import com.datewithai.domain.chat.dto.ChatHistoryDto;
+import com.datewithai.domain.chat.dto.ChatHistoryPageDto;
+import com.datewithai.domain.chat.entity.ChatMessage;
+import com.datewithai.domain.chat.entity.ChatMessageRecord;
+import com.datewithai.domain.chat.repository.ChatMessageRecordRepository;
+import com.datewithai.domain.story.service.StoryRetrievalService;
+import com.datewithai.global.llm.LlmCapacityExceededException;
+import com.datewithai.global.llm.LlmConcurrencyLimiter;
+import com.datewithai.global.llm.LlmEndpoint;
+import com.datewithai.global.llm.LlmUnavailableException;
+import com.datewithai.global.llm.PythonServiceCircuitBreaker;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * reactive 프로필의 채팅 서비스. {@link ChatService} 와 같은 흐름이지만
+ * 사용자 조회와 메시지 저장은 R2DBC, 대화 기억과 스트림 중계는 리액티브 Redis 로 처리해서
+ * 요청 하나가 스레드를 붙잡는 구간이 없다.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveChatService {
+    
+    private static final String STREAM_DATA_PREFIX = "data:";
+    private static final int STREAM_PREFETCH = 32;
+    
+    private final ChatMessageRecordRepository chatMessageRecordRepository;
+    private final ChatMessageIdAllocator chatMessageIdAllocator;
+    private final ReactiveConversationMemoryService conversationMemoryService;
+    private final ChatStreamRelay chatStreamRelay;
+    private final CharacterPromptRegistry characterPromptRegistry;
+    private final StoryRetrievalService storyRetrievalService;
+    private final LlmConcurrencyLimiter llmConcurrencyLimiter;
+    private final PythonServiceCircuitBreaker pythonServiceCircuitBreaker;
+    private final ChatFallbackReplies chatFallbackReplies;
+    private final WebClient pythonServiceWebClient;
+    private final ObjectMapper objectMapper;
+    private final ChatService chatService;
+    private final ChatMetrics chatMetrics;
+    private final ChatTracing chatTracing;
+    private final Scheduler blockingScheduler;
+    
+    @Value("${ai.python-service.endpoints.chat-stream}")
+    private String chatStreamEndpoint;
+    
+    @Autowired
+    public ReactiveChatService(ChatMessageRecordRepository chatMessageRecordRepository,
+                               ChatMessageIdAllocator chatMessageIdAllocator,
+                               ReactiveConversationMemoryService conversationMemoryService,
+                               ChatStreamRelay chatStreamRelay,
+                               CharacterPromptRegistry characterPromptRegistry,
+                               StoryRetrievalService storyRetrievalService,
+                               LlmConcurrencyLimiter llmConcurrencyLimiter,
+                               PythonServiceCircuitBreaker pythonServiceCircuitBreaker,
+                               ChatFallbackReplies chatFallbackReplies,
+                               @Qualifier("pythonServiceWebClient") WebClient pythonServiceWebClient,
+                               ObjectMapper objectMapper,
+                               ChatService chatService,
+                               ChatMetrics chatMetrics,
+                               ChatTracing chatTracing,
+                               @Qualifier("blockingScheduler") Scheduler blockingScheduler) {
+        this.chatMessageRecordRepository = chatMessageRecordRepository;
+        this.chatMessageIdAllocator = chatMessageIdAllocator;
+        this.conversationMemoryService = conversationMemoryService;
+        this.chatStreamRelay = chatStreamRelay;
+        this.characterPromptRegistry = characterPromptRegistry;
+        this.storyRetrievalService = storyRetrievalService;
+        this.llmConcurrencyLimiter = llmConcurrencyLimiter;
+        this.pythonServiceCircuitBreaker = pythonServiceCircuitBreaker;
+        this.chatFallbackReplies = chatFallbackReplies;
+        this.pythonServiceWebClient = pythonServiceWebClient;
+        this.objectMapper = objectMapper;
+        this.chatService = chatService;
+        this.chatMetrics = chatMetrics;
+        this.chatTracing = chatTracing;
+        this.blockingScheduler = blockingScheduler;
+    }
+    
+    // 세션/저장이 없는 단순 응답은 이미 논블로킹인 ChatService 경로를 그대로 쓴다 (응답 캐시 공유)
+    public Mono<AiChatResponse> sendSimpleMessage(Long characterId, String message, String clientKey) {
+        return chatService.sendSimpleMessage(characterId, message, clientKey);
+    }
+    
+    public Flux<AiChatStreamChunk> streamMessage(String username, Long characterId, String message, String sessionId, String clientKey) {
+        String finalSessionId = (sessionId == null || sessionId.isEmpty()) ?
+            UUID.randomUUID().toString() : sessionId;
+        
+        return chatMetrics.timeStream("stream", Mono.zip(chatMessageRecordRepository.findUserIdByUsername(username), findPrompt(characterId))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMapMany(found -> found
+                        .map(pair -> chatStreamRelay.publish(finalSessionId, pair.getT1(), characterId,
+                                streamTurn(pair.getT1(), pair.getT2(), message, finalSessionId, clientKey)))
+                        .orElseGet(() -> Flux.just(AiChatStreamChunk.error("User or Character not found")))));
+    }
+    
+    private Flux<AiChatStreamChunk> streamTurn(Long userId, CharacterPrompt prompt, String message, String sessionId, String clientKey) {
+        Long characterId = prompt.getCharacterId();
+        
+        // 이번 메시지를 기억에 넣기 전의 대화 맥락을 함께 보낸다
+        return conversationMemoryService.load(sessionId)
+                .map(conversationMemoryService::render)
+                .flatMap(context -> saveMessage(userId, characterId, message, ChatMessage.MessageType.USER, sessionId)
+                        .thenReturn(context))
+                .zipWith(chatTracing.inStage("retrieval", storyRetrievalService.retrieveContext(characterId, message)))
+                .flatMapMany(contexts -> {
+                    AiChatRequest request = prompt.toRequest(message);
+                    request.setConversationContext(contexts.getT1());
+                    request.setStoryContext(contexts.getT2());
+                    // 서킷이 열려 있으면 대기열에 들어가지 않고 대체 응답으로 끝낸다
+                    return pythonServiceCircuitBreaker.whenAvailableMany(LlmEndpoint.CHAT_STREAM, () -> chatMetrics.timeGeneration("stream",
+                            chatTracing.inStage("generation", llmConcurrencyLimiter.executeMany(clientKey,
+                                    () -> pythonServiceCircuitBreaker.protectMany(LlmEndpoint.CHAT_STREAM, pythonServiceWebClient.post()
+                                            .uri(chatStreamEndpoint)
+                                            .accept(MediaType.TEXT_PLAIN, MediaType.TEXT_EVENT_STREAM)
+                                            .bodyValue(request)
+                                            .retrieve()
+                                            .bodyToFlux(String.class))))));
+                })
+                .limitRate(STREAM_PREFETCH)
+                .filter(line -> line.startsWith(STREAM_DATA_PREFIX))
+                .map(this::parseStreamChunk)
+                .concatMap(chunk -> {
+                    if (!chunk.isFinished()) {
+                        return Mono.just(chunk);
+                    }
+                    return saveMessage(userId, characterId, chunk.getFullResponse(), ChatMessage.MessageType.AI, sessionId)
+                            .thenReturn(chunk);
+                })
+                .onErrorResume(LlmUnavailableException.class, error -> chatFallbackReplies.reply(prompt, message)
+                        .map(response -> AiChatStreamChunk.fallback(response.getResponse()))
+                        .flux())
+                .onErrorResume(error -> Flux.just(AiChatStreamChunk.error(error instanceof LlmCapacityExceededException
+                        ? "AI 서버가 혼잡합니다. 잠시 후 다시 시도해주세요."
+                        : "AI 서버 연결에 실패했습니다.")))
+                .doOnNext(chunk -> chunk.setSessionId(sessionId));
+    }
+    
+    public Flux<AiChatStreamChunk> resumeStream(String sessionId, String lastEventId) {
+        return chatStreamRelay.resume(sessionId, lastEventId);
+    }
+    
+    // 최신 메시지부터 size 개씩, (created_at, id) 커서 기준으로 이전 메시지를 이어서 조회
+    public Mono<ChatHistoryPageDto> getConversationPage(String username, Long characterId, String cursor, int size) {
+        return chatMessageRecordRepository.findUserIdByUsername(username)
+                .flatMap(userId -> {
+                    Flux<ChatMessageRecord> rows;
+                    if (cursor == null || cursor.isEmpty()) {
+                        rows = chatMessageRecordRepository.findLatestHistory(userId, characterId, size + 1);
+                    } else {
+                        ChatHistoryCursor after = ChatHistoryCursor.decode(cursor);
+                        rows = chatMessageRecordRepository.findHistoryBefore(userId, characterId,
+                                after.getCreatedAt(), after.getId(), size + 1);
+                    }
+                    return rows.map(ReactiveConversationMemoryService::toHistory).collectList();
+                })
+                .map(rows -> {
+                    boolean hasNext = rows.size() > size;
+                    List<ChatHistoryDto> page = hasNext ? rows.subList(0, size) : rows;
+                    String nextCursor = hasNext ? ChatHistoryCursor.from(page.get(page.size() - 1)).encode() : null;
+                    return new ChatHistoryPageDto(new ArrayList<>(page), nextCursor, hasNext);
+                });
+    }
+    
+    // 레지스트리에 없는 캐릭터만 JPA 로 읽으므로 그때만 블로킹 스케줄러로 넘어간다
+    private Mono<CharacterPrompt> findPrompt(Long characterId) {
+        return Mono.justOrEmpty(characterPromptRegistry.peek(characterId))
+                .switchIfEmpty(Mono.fromCallable(() -> characterPromptRegistry.get(characterId))
+                        .subscribeOn(blockingScheduler)
+                        .flatMap(Mono::justOrEmpty));
+    }
+    
+    private Mono<Void> saveMessage(Long userId, Long characterId, String message, ChatMessage.MessageType type, String sessionId) {
+        return chatMessageIdAllocator.nextId()
+                .flatMap(id -> chatMessageRecordRepository.save(
+                        ChatMessageRecord.create(id, userId, characterId, message, type, sessionId)))
+                .then(conversationMemoryService.append(sessionId, type, message));
+    }
+    
+    private AiChatStreamChunk parseStreamChunk(String line) {
+        try {
+            return objectMapper.readValue(line.substring(STREAM_DATA_PREFIX.length()).trim(), AiChatStreamChunk.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid stream chunk: " + line, e);
+        }
+    }
+}
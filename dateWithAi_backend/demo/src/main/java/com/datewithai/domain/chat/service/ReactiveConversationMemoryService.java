@@ -0,0 +1,117 @@
+package com.datewithai.domain.chat.service;
+
+import com.datewithai.domain.chat.dto.ChatHistoryDto;
+import com.datewithai.domain.chat.dto.ConversationMemory;
+import com.datewithai.domain.chat.entity.ChatMessage;
+import com.datewithai.domain.chat.entity.ChatMessageRecord;
+import com.datewithai.domain.chat.repository.ChatMessageRecordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link ConversationMemoryService} 의 논블로킹 버전.
+ * 요약/예산 규칙과 compare-and-set 스크립트는 그대로 위임하고 저장소 접근만 리액티브 Redis 와 R2DBC 로 바꾼다.
+ * Redis 키와 직렬화가 같으므로 MVC 노드와 세션 기억을 공유한다.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveConversationMemoryService {
+
+    private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+    private final ChatMessageRecordRepository chatMessageRecordRepository;
+    private final ConversationMemoryService conversationMemoryService;
+    private final RedisSerializationContext<String, Object> serializationContext;
+
+    @Autowired
+    public ReactiveConversationMemoryService(ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                                             ChatMessageRecordRepository chatMessageRecordRepository,
+                                             ConversationMemoryService conversationMemoryService) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.chatMessageRecordRepository = chatMessageRecordRepository;
+        this.conversationMemoryService = conversationMemoryService;
+        this.serializationContext = reactiveRedisTemplate.getSerializationContext();
+    }
+
+    public Mono<ConversationMemory> load(String sessionId) {
+        return reactiveRedisTemplate.opsForValue().get(conversationMemoryService.key(sessionId))
+                .ofType(ConversationMemory.class)
+                // Redis 장애 시에도 대화는 계속되도록 DB 기준으로 다시 구성
+                .onErrorResume(error -> Mono.empty())
+                .switchIfEmpty(Mono.defer(() -> fromDatabase(sessionId)));
+    }
+
+    public Mono<Void> append(String sessionId, ChatMessage.MessageType type, String message) {
+        if (message == null || message.isBlank()) {
+            return Mono.empty();
+        }
+        return append(sessionId, type, message, 0)
+                // 기억 저장 실패는 응답에 영향을 주지 않는다 (다음 load 에서 DB 로부터 복원)
+                .onErrorResume(error -> Mono.empty());
+    }
+
+    public String render(ConversationMemory memory) {
+        return conversationMemoryService.render(memory);
+    }
+
+    private Mono<Void> append(String sessionId, ChatMessage.MessageType type, String message, int attempt) {
+        String key = conversationMemoryService.key(sessionId);
+        if (attempt >= ConversationMemoryService.MAX_APPEND_ATTEMPTS) {
+            // 같은 세션의 다른 요청과 계속 겹치면 기억을 지워서 다음 load 가 DB 로부터 다시 만들게 한다
+            return reactiveRedisTemplate.delete(key).then();
+        }
+        ByteBuffer rawKey = serializationContext.getKeySerializationPair().write(key);
+        return reactiveRedisTemplate.execute(connection -> connection.stringCommands().get(rawKey.duplicate()))
+                .next()
+                .map(ReactiveConversationMemoryService::toBytes)
+                .defaultIfEmpty(new byte[0])
+                .flatMap(current -> memoryFrom(sessionId, current)
+                        .map(memory -> conversationMemoryService.appendTurn(memory, type, message))
+                        .flatMap(memory -> compareAndSet(rawKey, current, memory)))
+                .flatMap(stored -> stored ? Mono.<Void>empty() : append(sessionId, type, message, attempt + 1));
+    }
+
+    private Mono<ConversationMemory> memoryFrom(String sessionId, byte[] current) {
+        if (current.length > 0
+                && serializationContext.getValueSerializationPair().read(ByteBuffer.wrap(current)) instanceof ConversationMemory memory) {
+            return Mono.just(memory);
+        }
+        return fromDatabase(sessionId);
+    }
+
+    private Mono<Boolean> compareAndSet(ByteBuffer rawKey, byte[] expected, ConversationMemory memory) {
+        ByteBuffer script = ByteBuffer.wrap(ConversationMemoryService.COMPARE_AND_SET.getScriptAsString().getBytes(StandardCharsets.UTF_8));
+        ByteBuffer updated = serializationContext.getValueSerializationPair().write(memory);
+        ByteBuffer ttlMillis = ByteBuffer.wrap(String.valueOf(conversationMemoryService.getTtl().toMillis()).getBytes(StandardCharsets.UTF_8));
+        return reactiveRedisTemplate.execute(connection -> connection.scriptingCommands()
+                        .<Boolean>eval(script, ReturnType.BOOLEAN, 1, rawKey.duplicate(), ByteBuffer.wrap(expected), updated, ttlMillis))
+                .next()
+                .map(Boolean.TRUE::equals)
+                .defaultIfEmpty(false);
+    }
+
+    private Mono<ConversationMemory> fromDatabase(String sessionId) {
+        return chatMessageRecordRepository
+                .findLatestBySession(sessionId, conversationMemoryService.getMaxTurns())
+                .map(ReactiveConversationMemoryService::toHistory)
+                .collectList()
+                .map(conversationMemoryService::fromLatestTurns);
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    static ChatHistoryDto toHistory(ChatMessageRecord record) {
+        return new ChatHistoryDto(record.getId(), record.getMessage(), record.getMessageType(), record.getCreatedAt());
+    }
+}
@@ -1,9 +1,11 @@
 package com.datewithai.domain.story.controller;
 
 import com.datewithai.domain.character.service.CharacterService;
+import com.datewithai.domain.story.dto.BackfillProgressDto;
 import com.datewithai.domain.story.dto.StoryEmbedRequest;
 import com.datewithai.domain.story.dto.StoryResponseDto;
 import com.datewithai.domain.story.dto.StoryCreateRequestDto;
+import com.datewithai.domain.story.service.StoryEmbeddingBackfillJob;
 import com.datewithai.domain.story.service.StoryService;
 import com.datewithai.domain.character.entity.Character;
 import com.datewithai.domain.story.entity.Story;
@@ -22,11 +24,14 @@ public class StoryController {
     
     private final StoryService storyService;
     private final CharacterService characterService;
+    private final StoryEmbeddingBackfillJob storyEmbeddingBackfillJob;
     
     @Autowired
-    public StoryController(StoryService storyService, CharacterService characterService) {
+    public StoryController(StoryService storyService, CharacterService characterService,
+                           StoryEmbeddingBackfillJob storyEmbeddingBackfillJob) {
         this.storyService = storyService;
         this.characterService = characterService;
+        this.storyEmbeddingBackfillJob = storyEmbeddingBackfillJob;
     }
     
     @GetMapping
@@ -140,6 +145,19 @@ public class StoryController {
         return ResponseEntity.ok("Embedding process started");
     }
     
+    @ResponseBody
+    @GetMapping("/api/backfill")
+    public ResponseEntity<BackfillProgressDto> getBackfillProgress() {
+        return ResponseEntity.ok(storyEmbeddingBackfillJob.getProgress());
+    }
+    
+    @ResponseBody
+    @PostMapping("/api/backfill")
+    public ResponseEntity<BackfillProgressDto> startBackfill() {
+        storyEmbeddingBackfillJob.requestRunAfterCommit();
+        return ResponseEntity.accepted().body(storyEmbeddingBackfillJob.getProgress());
+    }
+    
     @ResponseBody
     @DeleteMapping("/api/{id}")
     public ResponseEntity<Void> deleteStoryApi(@PathVariable Long id) {
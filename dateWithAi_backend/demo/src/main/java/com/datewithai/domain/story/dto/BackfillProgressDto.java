@@ -0,0 +1,55 @@
+package com.datewithai.domain.story.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+public class BackfillProgressDto {
+    private boolean running;
+    private Long cursor;
+    private long remaining;
+    private long embedded;
+    private long failed;
+    private double storiesPerSecond;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime startedAt;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime finishedAt;
+    
+    public BackfillProgressDto() {}
+    
+    public BackfillProgressDto(boolean running, Long cursor, long remaining, long embedded, long failed,
+                               double storiesPerSecond, LocalDateTime startedAt, LocalDateTime finishedAt) {
+        this.running = running;
+        this.cursor = cursor;
+        this.remaining = remaining;
+        this.embedded = embedded;
+        this.failed = failed;
+        this.storiesPerSecond = storiesPerSecond;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+    }
+    
+    public boolean isRunning() { return running; }
+    public void setRunning(boolean running) { this.running = running; }
+    
+    public Long getCursor() { return cursor; }
+    public void setCursor(Long cursor) { this.cursor = cursor; }
+    
+    public long getRemaining() { return remaining; }
+    public void setRemaining(long remaining) { this.remaining = remaining; }
+    
+    public long getEmbedded() { return embedded; }
+    public void setEmbedded(long embedded) { this.embedded = embedded; }
+    
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+    
+    public double getStoriesPerSecond() { return storiesPerSecond; }
+    public void setStoriesPerSecond(double storiesPerSecond) { this.storiesPerSecond = storiesPerSecond; }
+    
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
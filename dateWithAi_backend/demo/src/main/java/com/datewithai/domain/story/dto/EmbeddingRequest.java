@@ -0,0 +1,16 @@
+package com.datewithai.domain.story.dto;
+
+import java.util.List;
+
+public class EmbeddingRequest {
+    private List<String> texts;
+    
+    public EmbeddingRequest() {}
+    
+    public EmbeddingRequest(List<String> texts) {
+        this.texts = texts;
+    }
+    
+    public List<String> getTexts() { return texts; }
+    public void setTexts(List<String> texts) { this.texts = texts; }
+}
@@ -0,0 +1,22 @@
+package com.datewithai.domain.story.dto;
+
+import java.util.List;
+
+// 요청한 texts 와 같은 순서의 임베딩 목록 (생성에 실패한 항목은 null)
+public class EmbeddingResponse {
+    private String model;
+    private List<float[]> embeddings;
+    
+    public EmbeddingResponse() {}
+    
+    public EmbeddingResponse(String model, List<float[]> embeddings) {
+        this.model = model;
+        this.embeddings = embeddings;
+    }
+    
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+    
+    public List<float[]> getEmbeddings() { return embeddings; }
+    public void setEmbeddings(List<float[]> embeddings) { this.embeddings = embeddings; }
+}
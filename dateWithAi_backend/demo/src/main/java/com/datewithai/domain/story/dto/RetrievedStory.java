@@ -0,0 +1,30 @@
+package com.datewithai.domain.story.dto;
+
+// 벡터 검색 결과 (distance 는 코사인 거리, 작을수록 가깝다)
+public class RetrievedStory {
+    private Long id;
+    private String title;
+    private String content;
+    private double distance;
+    
+    public RetrievedStory() {}
+    
+    public RetrievedStory(Long id, String title, String content, double distance) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.distance = distance;
+    }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+    
+    public double getDistance() { return distance; }
+    public void setDistance(double distance) { this.distance = distance; }
+}
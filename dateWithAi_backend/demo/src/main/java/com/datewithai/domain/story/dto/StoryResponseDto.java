@@ -37,7 +37,7 @@ public class StoryResponseDto {
             story.getCharacter().getName(),
             story.getTitle(),
             story.getContent(),
-            story.getEmbeddingVector() != null && !story.getEmbeddingVector().trim().isEmpty(),
+            story.getEmbeddingVector() != null && story.getEmbeddingVector().length > 0,
             story.getCreatedAt(),
             story.getUpdatedAt()
         );
@@ -1,8 +1,10 @@
 package com.datewithai.domain.story.entity;
 
 import com.datewithai.domain.character.entity.Character;
+import com.datewithai.global.persistence.PgVectorType;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Type;
 import java.time.LocalDateTime;
 
 @Entity
@@ -23,8 +25,9 @@ public class Story {
     @Column(columnDefinition = "TEXT", nullable = false)
     private String content;
     
-    @Column(name = "embedding_vector", columnDefinition = "vector(1536)")
-    private String embeddingVector;
+    @Type(PgVectorType.class)
+    @Column(name = "embedding_vector", columnDefinition = "vector(768)")
+    private float[] embeddingVector;
     
     @Column(name = "created_at")
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
@@ -65,8 +68,8 @@ public class Story {
     public String getContent() { return content; }
     public void setContent(String content) { this.content = content; }
     
-    public String getEmbeddingVector() { return embeddingVector; }
-    public void setEmbeddingVector(String embeddingVector) { this.embeddingVector = embeddingVector; }
+    public float[] getEmbeddingVector() { return embeddingVector; }
+    public void setEmbeddingVector(float[] embeddingVector) { this.embeddingVector = embeddingVector; }
     
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
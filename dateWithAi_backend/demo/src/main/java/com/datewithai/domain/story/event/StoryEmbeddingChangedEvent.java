@@ -0,0 +1,38 @@
+package com.datewithai.domain.story.event;
+
+// 스토리 임베딩이 채워지거나 스토리가 삭제된 뒤 발행되는 이벤트 (embedding 이 null 이면 삭제)
+public class StoryEmbeddingChangedEvent {
+    private final Long storyId;
+    private final Long characterId;
+    private final String title;
+    private final String content;
+    private final float[] embedding;
+    
+    private StoryEmbeddingChangedEvent(Long storyId, Long characterId, String title, String content, float[] embedding) {
+        this.storyId = storyId;
+        this.characterId = characterId;
+        this.title = title;
+        this.content = content;
+        this.embedding = embedding;
+    }
+    
+    public static StoryEmbeddingChangedEvent embedded(Long storyId, Long characterId, String title, String content, float[] embedding) {
+        return new StoryEmbeddingChangedEvent(storyId, characterId, title, content, embedding);
+    }
+    
+    public static StoryEmbeddingChangedEvent deleted(Long storyId, Long characterId) {
+        return new StoryEmbeddingChangedEvent(storyId, characterId, null, null, null);
+    }
+    
+    public Long getStoryId() { return storyId; }
+    
+    public Long getCharacterId() { return characterId; }
+    
+    public String getTitle() { return title; }
+    
+    public String getContent() { return content; }
+    
+    public float[] getEmbedding() { return embedding; }
+    
+    public boolean isDeleted() { return embedding == null; }
+}
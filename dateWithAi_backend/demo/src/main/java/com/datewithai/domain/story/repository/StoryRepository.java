@@ -2,6 +2,7 @@ package com.datewithai.domain.story.repository;
 
 import com.datewithai.domain.character.entity.Character;
 import com.datewithai.domain.story.entity.Story;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,12 +17,15 @@ public interface StoryRepository extends JpaRepository<Story, Long> {
     
     List<Story> findByCharacterId(Long characterId);
     
-    @Query(value = "SELECT s.* FROM stories s WHERE s.character_id = :characterId AND s.embedding_vector IS NOT NULL ORDER BY s.embedding_vector <-> CAST(:embedding AS vector) LIMIT :limit", nativeQuery = true)
-    List<Story> findSimilarStoriesByEmbedding(@Param("characterId") Long characterId, @Param("embedding") String embedding, @Param("limit") int limit);
-    
     @Query("SELECT s FROM Story s WHERE s.character = :character AND s.embeddingVector IS NOT NULL")
     List<Story> findByCharacterWithEmbedding(Character character);
     
     @Query("SELECT s FROM Story s WHERE s.embeddingVector IS NULL")
     List<Story> findStoriesWithoutEmbedding();
+    
+    // 백필 작업용 keyset 페이지: 이미 지나간 id 는 다시 읽지 않는다
+    @Query("SELECT s FROM Story s WHERE s.embeddingVector IS NULL AND s.id > :afterId ORDER BY s.id")
+    List<Story> findStoriesWithoutEmbeddingAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    long countByEmbeddingVectorIsNull();
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.datewithai.domain.story.repository;
+
+import com.datewithai.domain.story.dto.RetrievedStory;
+import com.pgvector.PGvector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * 스토리 임베딩 top-k 검색.
+ * HNSW 의 ef_search(와 ivfflat 의 probes)는 세션 변수라서, 검색마다 짧은 트랜잭션을 열고
+ * set_config(..., true) 로 그 트랜잭션에만 적용한 뒤 같은 연결에서 검색한다.
+ */
+@Repository
+public class StoryVectorSearchRepository {
+    
+    // ORDER BY 의 연산자(<=>)가 인덱스의 vector_cosine_ops 와 같아야 인덱스 스캔이 된다
+    private static final String NEAREST_SQL =
+            "SELECT id, title, content, embedding_vector <=> ? AS distance FROM stories " +
+            "WHERE character_id = ? AND embedding_vector IS NOT NULL " +
+            "ORDER BY embedding_vector <=> ? LIMIT ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${ai.rag.vector.ef-search}")
+    private int efSearch;
+    
+    @Value("${ai.rag.vector.ivfflat-probes}")
+    private int ivfflatProbes;
+    
+    // pgvector 0.8 이상에서만 있는 설정이므로 비워 두면 건드리지 않는다
+    @Value("${ai.rag.vector.iterative-scan:}")
+    private String iterativeScan;
+    
+    @Autowired
+    public StoryVectorSearchRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+    
+    public List<RetrievedStory> findNearest(Long characterId, float[] embedding, int limit) {
+        return findNearest(characterId, embedding, limit, efSearch);
+    }
+    
+    public List<RetrievedStory> findNearest(Long characterId, float[] embedding, int limit, int efSearch) {
+        PGvector vector = new PGvector(embedding);
+        return transactionTemplate.execute(status -> {
+            setLocal("hnsw.ef_search", String.valueOf(Math.max(efSearch, limit)));
+            setLocal("ivfflat.probes", String.valueOf(ivfflatProbes));
+            if (!iterativeScan.isBlank()) {
+                // character_id 필터로 후보가 모자라면 ef_search 를 넘어 계속 탐색한다
+                setLocal("hnsw.iterative_scan", iterativeScan);
+            }
+            return jdbcTemplate.query(NEAREST_SQL,
+                    (rs, rowNum) -> new RetrievedStory(rs.getLong("id"), rs.getString("title"),
+                            rs.getString("content"), rs.getDouble("distance")),
+                    vector, characterId, vector, limit);
+        });
+    }
+    
+    private void setLocal(String name, String value) {
+        jdbcTemplate.queryForObject("SELECT set_config(?, ?, true)", String.class, name, value);
+    }
+}
@@ -0,0 +1,144 @@
+package com.datewithai.domain.story.service;
+
+import com.datewithai.domain.story.dto.EmbeddingResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * 사용자 메시지 임베딩 캐시. 키는 "모델 id + 정규화된 텍스트의 해시" 라서 같은 문장은 어느 노드에서든 한 번만 임베딩한다.
+ * 노드 로컬 Caffeine(바이트 기준 LRU) 뒤에 Redis 를 두고, Redis 에는 JSON 이 아닌 float16/float32 바이너리로 저장한다.
+ */
+@Component
+public class EmbeddingCache {
+    
+    private static final String KEY_PREFIX = "embedding:";
+    private static final byte FLOAT16 = 1;
+    private static final byte FLOAT32 = 2;
+    
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
+    private final Scheduler blockingScheduler;
+    private final Cache<String, float[]> local;
+    private final ConcurrentMap<String, Mono<float[]>> inFlight = new ConcurrentHashMap<>();
+    private final boolean halfPrecision;
+    private final Duration ttl;
+    
+    // 파이썬 서버가 응답에 실어 보내는 모델 id 로 갱신된다 (모델이 바뀌면 이전 키는 자연히 쓰이지 않는다)
+    private volatile String modelId;
+    
+    @Autowired
+    public EmbeddingCache(RedisTemplate<String, byte[]> binaryRedisTemplate,
+                          @Qualifier("blockingScheduler") Scheduler blockingScheduler,
+                          MeterRegistry meterRegistry,
+                          @Value("${ai.embedding.model}") String modelId,
+                          @Value("${ai.embedding.cache.local-max-bytes}") long localMaxBytes,
+                          @Value("${ai.embedding.cache.precision}") String precision,
+                          @Value("${ai.embedding.cache.ttl}") Duration ttl) {
+        this.binaryRedisTemplate = binaryRedisTemplate;
+        this.blockingScheduler = blockingScheduler;
+        this.modelId = modelId;
+        this.halfPrecision = "float16".equalsIgnoreCase(precision);
+        this.ttl = ttl;
+        this.local = Caffeine.newBuilder()
+                .maximumWeight(localMaxBytes)
+                .weigher((String key, float[] vector) -> vector.length * Float.BYTES)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "embeddings");
+    }
+    
+    public Mono<float[]> getOrEmbed(String text, Supplier<Mono<EmbeddingResponse>> loader) {
+        String key = KEY_PREFIX + modelId + ":" + hash(normalize(text));
+        float[] cached = local.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> lookup(k)
+                .switchIfEmpty(Mono.defer(loader).flatMap(response -> store(k, response)))
+                .doOnNext(vector -> local.put(k, vector))
+                .doFinally(signal -> inFlight.remove(k))
+                .cache()));
+    }
+    
+    private Mono<float[]> lookup(String key) {
+        return Mono.fromCallable(() -> binaryRedisTemplate.opsForValue().get(key))
+                .subscribeOn(blockingScheduler)
+                .map(EmbeddingCache::decode)
+                .onErrorResume(error -> Mono.empty());
+    }
+    
+    private Mono<float[]> store(String key, EmbeddingResponse response) {
+        if (response.getEmbeddings() == null || response.getEmbeddings().isEmpty() || response.getEmbeddings().get(0) == null) {
+            return Mono.empty();
+        }
+        float[] vector = response.getEmbeddings().get(0);
+        if (response.getModel() != null && !response.getModel().equals(modelId)) {
+            // 방금 받은 벡터는 새 모델 결과이므로 이전 모델 키로 저장하지 않는다
+            modelId = response.getModel();
+            return Mono.just(vector);
+        }
+        byte[] encoded = encode(vector, halfPrecision);
+        return Mono.fromRunnable(() -> binaryRedisTemplate.opsForValue().set(key, encoded, ttl))
+                .subscribeOn(blockingScheduler)
+                .onErrorResume(error -> Mono.empty())
+                .thenReturn(vector);
+    }
+    
+    // [형식 1바이트][값...] (little endian). float16 은 크기가 절반이고 코사인 유사도 차이는 무시할 만하다
+    static byte[] encode(float[] vector, boolean halfPrecision) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + vector.length * (halfPrecision ? 2 : 4)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(halfPrecision ? FLOAT16 : FLOAT32);
+        for (float value : vector) {
+            if (halfPrecision) {
+                buffer.putShort(Float.floatToFloat16(value));
+            } else {
+                buffer.putFloat(value);
+            }
+        }
+        return buffer.array();
+    }
+    
+    static float[] decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        byte format = buffer.get();
+        float[] vector = new float[buffer.remaining() / (format == FLOAT16 ? 2 : 4)];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = format == FLOAT16 ? Float.float16ToFloat(buffer.getShort()) : buffer.getFloat();
+        }
+        return vector;
+    }
+    
+    // 공백/유니코드 표기 차이만 없앤다 (대소문자나 문장부호는 의미가 달라질 수 있어 그대로 둔다)
+    private static String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).replaceAll("\\s+", " ").trim();
+    }
+    
+    private static String hash(String normalized) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.datewithai.domain.story.service;
+
+import com.datewithai.domain.story.dto.EmbeddingRequest;
+import com.datewithai.domain.story.dto.EmbeddingResponse;
+import com.datewithai.global.llm.LlmConcurrencyLimiter;
+import com.datewithai.global.llm.LlmEndpoint;
+import com.datewithai.global.llm.LlmPriority;
+import com.datewithai.global.llm.PythonServiceCircuitBreaker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// 파이썬 서버의 배치 임베딩 API 호출. 채팅과 같은 Ollama 를 쓰므로 동시 실행 제한을 함께 받는다.
+// 임베딩 서킷이 열려 있으면 대기열에 들어가지 않고 LlmUnavailableException 으로 바로 실패한다
+@Component
+public class EmbeddingClient {
+    
+    private final WebClient pythonServiceWebClient;
+    private final LlmConcurrencyLimiter llmConcurrencyLimiter;
+    private final PythonServiceCircuitBreaker pythonServiceCircuitBreaker;
+    
+    @Value("${ai.python-service.endpoints.embed}")
+    private String embedEndpoint;
+    
+    @Autowired
+    public EmbeddingClient(@Qualifier("pythonServiceWebClient") WebClient pythonServiceWebClient,
+                           LlmConcurrencyLimiter llmConcurrencyLimiter,
+                           PythonServiceCircuitBreaker pythonServiceCircuitBreaker) {
+        this.pythonServiceWebClient = pythonServiceWebClient;
+        this.llmConcurrencyLimiter = llmConcurrencyLimiter;
+        this.pythonServiceCircuitBreaker = pythonServiceCircuitBreaker;
+    }
+    
+    public Mono<EmbeddingResponse> embed(LlmPriority priority, String clientKey, List<String> texts) {
+        return pythonServiceCircuitBreaker.whenAvailable(LlmEndpoint.EMBED, () -> llmConcurrencyLimiter.execute(priority, clientKey,
+                () -> pythonServiceCircuitBreaker.protect(LlmEndpoint.EMBED, pythonServiceWebClient.post()
+                        .uri(embedEndpoint)
+                        .bodyValue(new EmbeddingRequest(texts))
+                        .retrieve()
+                        .bodyToMono(EmbeddingResponse.class))));
+    }
+}
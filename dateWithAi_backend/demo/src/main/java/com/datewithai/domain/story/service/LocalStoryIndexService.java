@@ -0,0 +1,346 @@
+package com.datewithai.domain.story.service;
+
+import com.datewithai.domain.character.repository.CharacterRepository;
+import com.datewithai.domain.story.dto.RetrievedStory;
+import com.datewithai.domain.story.entity.Story;
+import com.datewithai.domain.story.event.StoryEmbeddingChangedEvent;
+import com.datewithai.domain.story.repository.StoryRepository;
+import com.datewithai.global.cache.RemoteCacheInvalidatedEvent;
+import com.datewithai.global.vector.HnswIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 캐릭터별 스토리 임베딩을 JVM 안의 HNSW 인덱스로 들고 있어서, 채팅마다 pgvector 를 조회하지 않게 한다.
+ * 기동 시 DB(또는 최신 스냅샷 파일)로부터 만들고, 스토리 임베딩/삭제 이벤트로 증분 갱신한다.
+ * 변경된 인덱스는 주기적으로 메모리 매핑 파일에 스냅샷을 남겨 재시작 시 다시 계산하지 않는다.
+ */
+@Service
+@ConditionalOnProperty(name = "ai.rag.local-index.enabled", havingValue = "true")
+public class LocalStoryIndexService {
+    
+    private static final Logger log = LoggerFactory.getLogger(LocalStoryIndexService.class);
+    
+    private static final String STORY_CACHE = "characterStories";
+    // 스냅샷이 현재 DB 상태와 같은지 판단하는 값 (임베딩된 스토리 수, 마지막 수정 시각)
+    private static final String FINGERPRINT_SQL =
+            "SELECT character_id, count(*) AS stories, max(updated_at) AS updated FROM stories " +
+            "WHERE embedding_vector IS NOT NULL GROUP BY character_id";
+    
+    private final StoryRepository storyRepository;
+    private final CharacterRepository characterRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskScheduler taskScheduler;
+    
+    private final ConcurrentMap<Long, CharacterIndex> indexes = new ConcurrentHashMap<>();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private volatile boolean ready;
+    
+    @Value("${ai.rag.local-index.m}")
+    private int m;
+    
+    @Value("${ai.rag.local-index.ef-construction}")
+    private int efConstruction;
+    
+    @Value("${ai.rag.local-index.ef-search}")
+    private int efSearch;
+    
+    @Value("${ai.rag.local-index.snapshot-dir}")
+    private Path snapshotDir;
+    
+    @Autowired
+    public LocalStoryIndexService(StoryRepository storyRepository,
+                                  CharacterRepository characterRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  TaskScheduler taskScheduler) {
+        this.storyRepository = storyRepository;
+        this.characterRepository = characterRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskScheduler = taskScheduler;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.nanoTime();
+        int restored = 0;
+        Map<Long, Fingerprint> fingerprints = loadFingerprints();
+        for (Map.Entry<Long, Fingerprint> entry : fingerprints.entrySet()) {
+            CharacterIndex snapshot = readSnapshot(entry.getKey(), entry.getValue());
+            if (snapshot != null) {
+                indexes.put(entry.getKey(), snapshot);
+                restored++;
+            } else {
+                indexes.put(entry.getKey(), build(entry.getKey()));
+            }
+        }
+        ready = true;
+        log.info("Local story index ready: {} characters ({} from snapshot) in {} ms",
+                fingerprints.size(), restored, (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    // 인덱스가 준비되지 않았거나 차원이 맞지 않으면 비어 있는 Optional 을 돌려주고, 호출하는 쪽은 DB 검색으로 대신한다
+    public Optional<List<RetrievedStory>> search(Long characterId, float[] embedding, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        CharacterIndex characterIndex = indexes.get(characterId);
+        if (characterIndex == null) {
+            // 기동 후 임베딩된 스토리가 없는 캐릭터
+            return Optional.of(List.of());
+        }
+        HnswIndex index = characterIndex.index;
+        if (index.size() == 0) {
+            return Optional.of(List.of());
+        }
+        if (index.dimensions() != embedding.length) {
+            return Optional.empty();
+        }
+        List<RetrievedStory> results = new ArrayList<>(limit);
+        for (HnswIndex.Neighbor neighbor : index.search(embedding, limit, efSearch)) {
+            StoryText text = characterIndex.texts.get(neighbor.getId());
+            if (text != null) {
+                results.add(new RetrievedStory(neighbor.getId(), text.title, text.content, neighbor.getDistance()));
+            }
+        }
+        return Optional.of(results);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStoryEmbeddingChanged(StoryEmbeddingChangedEvent event) {
+        if (event.isDeleted()) {
+            CharacterIndex characterIndex = indexes.get(event.getCharacterId());
+            if (characterIndex != null) {
+                characterIndex.remove(event.getStoryId());
+            }
+            return;
+        }
+        indexes.computeIfAbsent(event.getCharacterId(),
+                        id -> new CharacterIndex(new HnswIndex(event.getEmbedding().length, m, efConstruction)))
+                .add(event.getStoryId(), event.getEmbedding(), new StoryText(event.getTitle(), event.getContent()));
+    }
+    
+    // 다른 노드에서 스토리가 바뀌면 스토리 캐시 무효화 메시지가 오므로, 잠시 모았다가 전체를 다시 만든다
+    @EventListener
+    public void onRemoteInvalidation(RemoteCacheInvalidatedEvent event) {
+        if (STORY_CACHE.equals(event.getCacheName()) && rebuildScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::rebuildAll, Instant.now().plusSeconds(5));
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${ai.rag.local-index.snapshot-interval}")
+    public void writeDirtySnapshots() {
+        if (!ready) {
+            return;
+        }
+        Map<Long, Fingerprint> fingerprints = null;
+        for (Map.Entry<Long, CharacterIndex> entry : indexes.entrySet()) {
+            CharacterIndex characterIndex = entry.getValue();
+            if (!characterIndex.dirty) {
+                continue;
+            }
+            if (fingerprints == null) {
+                fingerprints = loadFingerprints();
+            }
+            characterIndex.dirty = false;
+            writeSnapshot(entry.getKey(), characterIndex,
+                    fingerprints.getOrDefault(entry.getKey(), new Fingerprint(0, 0)));
+        }
+    }
+    
+    private void rebuildAll() {
+        rebuildScheduled.set(false);
+        Map<Long, Fingerprint> fingerprints = loadFingerprints();
+        for (Long characterId : fingerprints.keySet()) {
+            indexes.put(characterId, build(characterId));
+        }
+        indexes.keySet().retainAll(fingerprints.keySet());
+    }
+    
+    private CharacterIndex build(Long characterId) {
+        List<Story> stories = storyRepository.findByCharacterWithEmbedding(characterRepository.getReferenceById(characterId));
+        CharacterIndex characterIndex = null;
+        for (Story story : stories) {
+            if (characterIndex == null) {
+                characterIndex = new CharacterIndex(new HnswIndex(story.getEmbeddingVector().length, m, efConstruction));
+            }
+            characterIndex.add(story.getId(), story.getEmbeddingVector(), new StoryText(story.getTitle(), story.getContent()));
+        }
+        return characterIndex != null ? characterIndex : new CharacterIndex(new HnswIndex(0, m, efConstruction));
+    }
+    
+    private Map<Long, Fingerprint> loadFingerprints() {
+        Map<Long, Fingerprint> fingerprints = new HashMap<>();
+        jdbcTemplate.query(FINGERPRINT_SQL, rs -> {
+            Timestamp updated = rs.getTimestamp("updated");
+            fingerprints.put(rs.getLong("character_id"),
+                    new Fingerprint(rs.getLong("stories"), updated != null ? updated.getTime() : 0));
+        });
+        return fingerprints;
+    }
+    
+    // ---- 스냅샷: [스토리 수][수정 시각][인덱스 크기][HNSW 인덱스][스토리 텍스트...] ----
+    
+    private Path snapshotPath(Long characterId) {
+        return snapshotDir.resolve("character-" + characterId + ".hnsw");
+    }
+    
+    private CharacterIndex readSnapshot(Long characterId, Fingerprint fingerprint) {
+        Path path = snapshotPath(characterId);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getLong() != fingerprint.stories || buffer.getLong() != fingerprint.updatedMillis) {
+                return null;
+            }
+            int indexBytes = buffer.getInt();
+            ByteBuffer indexBuffer = buffer.slice(buffer.position(), indexBytes);
+            CharacterIndex characterIndex = new CharacterIndex(HnswIndex.readFrom(indexBuffer));
+            buffer.position(buffer.position() + indexBytes);
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                long storyId = buffer.getLong();
+                characterIndex.texts.put(storyId, new StoryText(readString(buffer), readString(buffer)));
+            }
+            return characterIndex;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable story index snapshot {}", path, e);
+            return null;
+        }
+    }
+    
+    private void writeSnapshot(Long characterId, CharacterIndex characterIndex, Fingerprint fingerprint) {
+        Path path = snapshotPath(characterId);
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        // 쓰는 동안 인덱스와 텍스트가 서로 어긋나지 않도록 갱신을 잠시 막는다
+        synchronized (characterIndex) {
+            HnswIndex index = characterIndex.index;
+            List<Map.Entry<Long, StoryText>> entries = new ArrayList<>(characterIndex.texts.entrySet());
+            List<byte[]> encoded = new ArrayList<>(entries.size() * 2);
+            long textBytes = 4;
+            for (Map.Entry<Long, StoryText> entry : entries) {
+                byte[] title = entry.getValue().title.getBytes(StandardCharsets.UTF_8);
+                byte[] content = entry.getValue().content.getBytes(StandardCharsets.UTF_8);
+                encoded.add(title);
+                encoded.add(content);
+                textBytes += 8 + 4 + title.length + 4 + content.length;
+            }
+            int indexBytes = index.snapshotSize();
+            long total = 8 + 8 + 4 + indexBytes + textBytes;
+            
+            try {
+                Files.createDirectories(snapshotDir);
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, total);
+                    buffer.putLong(fingerprint.stories).putLong(fingerprint.updatedMillis).putInt(indexBytes);
+                    index.writeTo(buffer);
+                    buffer.putInt(entries.size());
+                    for (int i = 0; i < entries.size(); i++) {
+                        buffer.putLong(entries.get(i).getKey());
+                        writeBytes(buffer, encoded.get(i * 2));
+                        writeBytes(buffer, encoded.get(i * 2 + 1));
+                    }
+                    buffer.force();
+                }
+                // 읽는 쪽이 반쯤 쓰인 파일을 보지 않도록 다 쓴 뒤 이름을 바꾼다
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                characterIndex.dirty = true;
+                log.warn("Failed to write story index snapshot {}", path, e);
+            }
+        }
+    }
+    
+    private static void writeBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length).put(bytes);
+    }
+    
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private final class CharacterIndex {
+        private volatile HnswIndex index;
+        private final ConcurrentMap<Long, StoryText> texts = new ConcurrentHashMap<>();
+        private volatile boolean dirty;
+        
+        private CharacterIndex(HnswIndex index) {
+            this.index = index;
+        }
+        
+        private synchronized void add(Long storyId, float[] embedding, StoryText text) {
+            if (index.dimensions() != embedding.length) {
+                // 임베딩 모델이 바뀐 경우: 이전 차원의 벡터와는 비교할 수 없으므로 새로 시작
+                index = new HnswIndex(embedding.length, m, efConstruction);
+                texts.clear();
+            }
+            index.add(storyId, embedding);
+            texts.put(storyId, text);
+            dirty = true;
+        }
+        
+        private synchronized void remove(Long storyId) {
+            if (index.remove(storyId)) {
+                texts.remove(storyId);
+                if (index.needsCompaction()) {
+                    index = index.compacted();
+                }
+                dirty = true;
+            }
+        }
+    }
+    
+    private static final class StoryText {
+        private final String title;
+        private final String content;
+        
+        private StoryText(String title, String content) {
+            this.title = title;
+            this.content = content;
+        }
+    }
+    
+    private static final class Fingerprint {
+        private final long stories;
+        private final long updatedMillis;
+        
+        private Fingerprint(long stories, long updatedMillis) {
+            this.stories = stories;
+            this.updatedMillis = updatedMillis;
+        }
+    }
+}
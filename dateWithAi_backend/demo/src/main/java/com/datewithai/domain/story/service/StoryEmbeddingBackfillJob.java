@@ -0,0 +1,296 @@
+package com.datewithai.domain.story.service;
+
+import com.datewithai.domain.story.dto.BackfillProgressDto;
+import com.datewithai.domain.story.dto.EmbeddingResponse;
+import com.datewithai.domain.story.entity.Story;
+import com.datewithai.domain.story.event.StoryEmbeddingChangedEvent;
+import com.datewithai.domain.story.repository.StoryRepository;
+import com.datewithai.global.llm.LlmCapacityExceededException;
+import com.datewithai.global.llm.LlmPriority;
+import com.pgvector.PGvector;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 임베딩이 없는 스토리를 id 순으로 훑으며 배치 단위로 임베딩을 채운다.
+ * 한 페이지가 끝날 때마다 마지막 id 를 Redis 에 기록해 두므로, 재시작해도 이어서 진행한다.
+ * 끝까지 돌고 나면 커서를 처음으로 되돌려, 중간에 실패한 스토리는 다음 실행에서 다시 시도한다.
+ */
+@Component
+public class StoryEmbeddingBackfillJob {
+    
+    private static final Logger log = LoggerFactory.getLogger(StoryEmbeddingBackfillJob.class);
+    
+    private static final String CURSOR_KEY = "backfill:story-embedding:cursor";
+    private static final String CLIENT_KEY = "backfill";
+    private static final String STORY_CACHE = "characterStories";
+    // 다른 요청이 그 사이에 임베딩을 채웠다면 덮어쓰지 않는다
+    private static final String UPDATE_SQL =
+            "UPDATE stories SET embedding_vector = ?, updated_at = now() WHERE id = ? AND embedding_vector IS NULL";
+    
+    private final StoryRepository storyRepository;
+    private final EmbeddingClient embeddingClient;
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Scheduler blockingScheduler;
+    
+    private final Counter embeddedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    
+    @Value("${ai.backfill.enabled}")
+    private boolean enabled;
+    
+    @Value("${ai.backfill.page-size}")
+    private int pageSize;
+    
+    @Value("${ai.backfill.batch-size}")
+    private int batchSize;
+    
+    @Value("${ai.backfill.concurrency}")
+    private int concurrency;
+    
+    // stories.embedding_vector 컬럼의 차원 (모델 출력과 다르면 그 행은 쓰지 않고 실패로 센다)
+    @Value("${ai.embedding.dimensions}")
+    private int dimensions;
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong embedded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long cursor;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    
+    @Autowired
+    public StoryEmbeddingBackfillJob(StoryRepository storyRepository,
+                                     EmbeddingClient embeddingClient,
+                                     JdbcTemplate jdbcTemplate,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     CacheManager cacheManager,
+                                     ApplicationEventPublisher eventPublisher,
+                                     @Qualifier("blockingScheduler") Scheduler blockingScheduler,
+                                     MeterRegistry meterRegistry) {
+        this.storyRepository = storyRepository;
+        this.embeddingClient = embeddingClient;
+        this.jdbcTemplate = jdbcTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.blockingScheduler = blockingScheduler;
+        
+        this.embeddedCounter = Counter.builder("story.backfill.embedded")
+                .description("Stories that received an embedding from the backfill job")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("story.backfill.failed")
+                .description("Stories the backfill job could not embed")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("story.backfill.batch.latency")
+                .description("Time to embed and store one batch of stories")
+                .register(meterRegistry);
+    }
+    
+    // 한 번 도는 데 몇 분씩 블로킹하므로 스케줄러 스레드에서는 넘겨주기만 한다 (서킷 탐침 등이 같은 스레드를 쓴다)
+    @Scheduled(fixedDelayString = "${ai.backfill.interval}", initialDelayString = "${ai.backfill.initial-delay}")
+    public void runScheduled() {
+        if (enabled) {
+            blockingScheduler.schedule(this::runOnce);
+        }
+    }
+    
+    // 새 스토리가 저장되면 다음 주기를 기다리지 않고 바로 한 번 돌린다 (이미 돌고 있으면 그 실행이 집어 간다)
+    public void requestRunAfterCommit() {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    blockingScheduler.schedule(StoryEmbeddingBackfillJob.this::runOnce);
+                }
+            });
+        } else {
+            blockingScheduler.schedule(this::runOnce);
+        }
+    }
+    
+    public boolean runOnce() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        embedded.set(0);
+        failed.set(0);
+        startedNanos = System.nanoTime();
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        try {
+            cursor = loadCursor();
+            while (true) {
+                List<Story> page = storyRepository.findStoriesWithoutEmbeddingAfter(cursor, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    saveCursor(0L);
+                    break;
+                }
+                Flux.fromIterable(partition(page))
+                        .flatMap(this::embedBatch, concurrency)
+                        .blockLast();
+                cursor = page.get(page.size() - 1).getId();
+                saveCursor(cursor);
+            }
+            evictStoryCache();
+            log.info("Story embedding backfill finished: {} embedded, {} failed", embedded.get(), failed.get());
+        } catch (RuntimeException e) {
+            // 임베딩 서버 장애 등으로 배치 호출 자체가 실패하면 이번 실행은 멈추고, 다음 실행이 커서부터 이어간다
+            evictStoryCache();
+            log.warn("Story embedding backfill stopped at cursor {}", cursor, e);
+        } finally {
+            finishedNanos = System.nanoTime();
+            finishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+        return true;
+    }
+    
+    public BackfillProgressDto getProgress() {
+        long endNanos = running.get() ? System.nanoTime() : finishedNanos;
+        double seconds = (endNanos - startedNanos) / 1_000_000_000.0;
+        double throughput = seconds > 0 ? embedded.get() / seconds : 0;
+        return new BackfillProgressDto(running.get(), cursor, storyRepository.countByEmbeddingVectorIsNull(),
+                embedded.get(), failed.get(), throughput, startedAt, finishedAt);
+    }
+    
+    private Mono<Void> embedBatch(List<Story> batch) {
+        long start = System.nanoTime();
+        List<String> texts = batch.stream().map(Story::getContent).toList();
+        // 가장 낮은 레인이라 채팅이 몰리면 대기열에서 밀려나므로, 잠시 쉬었다가 같은 배치를 다시 시도한다
+        return embeddingClient.embed(LlmPriority.BACKFILL, CLIENT_KEY, texts)
+                .retryWhen(Retry.backoff(3, Duration.ofSeconds(5))
+                        .filter(LlmCapacityExceededException.class::isInstance))
+                .publishOn(blockingScheduler)
+                .doOnNext(response -> store(batch, response))
+                .doFinally(signal -> batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                .then();
+    }
+    
+    private void store(List<Story> batch, EmbeddingResponse response) {
+        List<float[]> embeddings = response.getEmbeddings();
+        List<Object[]> updates = new ArrayList<>(batch.size());
+        List<Story> updatedStories = new ArrayList<>(batch.size());
+        List<float[]> updatedEmbeddings = new ArrayList<>(batch.size());
+        int mismatched = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            float[] embedding = embeddings != null && i < embeddings.size() ? embeddings.get(i) : null;
+            if (embedding == null || embedding.length == 0) {
+                continue;
+            }
+            if (embedding.length != dimensions) {
+                mismatched++;
+                continue;
+            }
+            updates.add(new Object[]{new PGvector(embedding), batch.get(i).getId()});
+            updatedStories.add(batch.get(i));
+            updatedEmbeddings.add(embedding);
+        }
+        if (mismatched > 0) {
+            log.warn("Skipped {} story embeddings with unexpected dimensions (model {}, column expects {})",
+                    mismatched, response.getModel(), dimensions);
+        }
+        
+        int written = 0;
+        int unstored = 0;
+        if (!updates.isEmpty()) {
+            int[] counts;
+            try {
+                counts = jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            } catch (DataAccessException e) {
+                // 이 배치만 실패로 세고 다음 배치로 넘어간다 (끝까지 돈 뒤 커서가 처음으로 돌아가면 다시 시도된다)
+                log.warn("Failed to store {} story embeddings", updates.size(), e);
+                counts = new int[0];
+                unstored = updates.size();
+            }
+            for (int i = 0; i < counts.length; i++) {
+                // 드라이버가 배치 결과를 SUCCESS_NO_INFO(-2) 로 돌려주는 경우도 성공으로 본다
+                if (counts[i] == 0) {
+                    continue;
+                }
+                written++;
+                Story story = updatedStories.get(i);
+                eventPublisher.publishEvent(StoryEmbeddingChangedEvent.embedded(story.getId(),
+                        story.getCharacter().getId(), story.getTitle(), story.getContent(), updatedEmbeddings.get(i)));
+            }
+        }
+        embedded.addAndGet(written);
+        embeddedCounter.increment(written);
+        // 임베딩이 없거나 차원이 다르거나 저장에 실패한 행
+        int missing = batch.size() - updates.size() + unstored;
+        failed.addAndGet(missing);
+        failedCounter.increment(missing);
+    }
+    
+    // JDBC 로 직접 갱신했으므로 캐시된 스토리 목록의 임베딩 여부를 맞춰 준다
+    private void evictStoryCache() {
+        Cache cache = cacheManager.getCache(STORY_CACHE);
+        if (cache != null && embedded.get() > 0) {
+            cache.clear();
+        }
+    }
+    
+    private List<List<Story>> partition(List<Story> page) {
+        List<List<Story>> batches = new ArrayList<>();
+        for (int from = 0; from < page.size(); from += batchSize) {
+            batches.add(page.subList(from, Math.min(from + batchSize, page.size())));
+        }
+        return batches;
+    }
+    
+    private long loadCursor() {
+        try {
+            String value = stringRedisTemplate.opsForValue().get(CURSOR_KEY);
+            return value != null ? Long.parseLong(value) : 0L;
+        } catch (DataAccessException | NumberFormatException e) {
+            return 0L;
+        }
+    }
+    
+    private void saveCursor(long value) {
+        try {
+            stringRedisTemplate.opsForValue().set(CURSOR_KEY, String.valueOf(value));
+        } catch (DataAccessException e) {
+            // 커서를 못 남기면 재시작 시 처음부터 다시 훑을 뿐, 이미 채운 스토리는 건너뛴다
+            log.warn("Failed to save backfill cursor {}", value, e);
+        }
+    }
+}
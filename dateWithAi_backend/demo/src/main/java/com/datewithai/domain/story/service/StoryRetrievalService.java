@@ -0,0 +1,135 @@
+package com.datewithai.domain.story.service;
+
+import com.datewithai.domain.story.dto.RetrievedStory;
+import com.datewithai.domain.story.repository.StoryVectorSearchRepository;
+import com.datewithai.global.llm.LlmPriority;
+import com.datewithai.global.util.TokenEstimator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 채팅 파이프라인의 RAG 단계.
+ * 사용자 메시지를 임베딩해서 캐릭터의 스토리 중 가까운 것을 찾고, 토큰 예산 안에서 프롬프트용 텍스트로 만든다.
+ * 로컬 HNSW 인덱스가 켜져 있으면 DB 대신 그것을 쓰고, 검색이 실패하거나 늦어지면 스토리 없이 대화를 계속한다.
+ */
+@Service
+public class StoryRetrievalService {
+    
+    private static final String CLIENT_KEY = "rag";
+    
+    private final StoryVectorSearchRepository storyVectorSearchRepository;
+    private final EmbeddingClient embeddingClient;
+    private final EmbeddingCache embeddingCache;
+    private final ObjectProvider<LocalStoryIndexService> localStoryIndex;
+    private final MeterRegistry meterRegistry;
+    private final Scheduler blockingScheduler;
+    
+    @Value("${ai.rag.enabled}")
+    private boolean enabled;
+    
+    @Value("${ai.rag.top-k}")
+    private int topK;
+    
+    @Value("${ai.rag.max-distance}")
+    private double maxDistance;
+    
+    @Value("${ai.rag.token-budget}")
+    private int tokenBudget;
+    
+    @Value("${ai.rag.timeout}")
+    private Duration timeout;
+    
+    @Autowired
+    public StoryRetrievalService(StoryVectorSearchRepository storyVectorSearchRepository,
+                                 EmbeddingClient embeddingClient,
+                                 EmbeddingCache embeddingCache,
+                                 ObjectProvider<LocalStoryIndexService> localStoryIndex,
+                                 MeterRegistry meterRegistry,
+                                 @Qualifier("blockingScheduler") Scheduler blockingScheduler) {
+        this.storyVectorSearchRepository = storyVectorSearchRepository;
+        this.embeddingClient = embeddingClient;
+        this.embeddingCache = embeddingCache;
+        this.localStoryIndex = localStoryIndex;
+        this.meterRegistry = meterRegistry;
+        this.blockingScheduler = blockingScheduler;
+    }
+    
+    // 항상 값을 하나 내보낸다 (관련 스토리가 없거나 실패하면 빈 문자열)
+    public Mono<String> retrieveContext(Long characterId, String message) {
+        if (!enabled || message == null || message.isBlank()) {
+            return Mono.just("");
+        }
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return search(characterId, message, topK)
+                    .map(stories -> stories.stream()
+                            .filter(story -> story.getDistance() <= maxDistance)
+                            .toList())
+                    .timeout(timeout)
+                    .doOnNext(stories -> sample.stop(retrievalTimer(stories.isEmpty() ? "empty" : "hit")))
+                    .map(this::render)
+                    .onErrorResume(error -> {
+                        sample.stop(retrievalTimer(error instanceof TimeoutException ? "timeout" : "error"));
+                        return Mono.just("");
+                    });
+        });
+    }
+    
+    public Mono<List<RetrievedStory>> search(Long characterId, String message, int limit) {
+        // 같은 메시지는 캐시된 임베딩을 재사용해서 Ollama 호출을 줄인다
+        return embeddingCache.getOrEmbed(message, () -> embeddingClient.embed(LlmPriority.RAG_EMBEDDING, CLIENT_KEY, List.of(message)))
+                .flatMap(embedding -> {
+                    LocalStoryIndexService localIndex = localStoryIndex.getIfAvailable();
+                    if (localIndex != null) {
+                        Optional<List<RetrievedStory>> local = localIndex.search(characterId, embedding, limit);
+                        if (local.isPresent()) {
+                            return Mono.just(local.get());
+                        }
+                    }
+                    // JDBC 호출은 블로킹이므로 이벤트 루프가 아닌 가상 스레드에서 실행
+                    return Mono.fromCallable(() -> storyVectorSearchRepository.findNearest(characterId, embedding, limit))
+                            .subscribeOn(blockingScheduler);
+                })
+                .defaultIfEmpty(List.of());
+    }
+    
+    // 가까운 순서대로 예산이 허락하는 만큼 넣고, 마지막 스토리는 잘라서라도 채운다
+    private String render(List<RetrievedStory> stories) {
+        StringBuilder entries = new StringBuilder();
+        int remaining = tokenBudget;
+        for (RetrievedStory story : stories) {
+            String entry = "- " + story.getTitle() + ": " + story.getContent().strip() + "\n";
+            int tokens = TokenEstimator.estimate(entry);
+            if (tokens <= remaining) {
+                entries.append(entry);
+                remaining -= tokens;
+                continue;
+            }
+            if (remaining > 20) {
+                int length = (int) ((long) entry.length() * remaining / tokens);
+                entries.append(entry, 0, Math.max(0, length - 2)).append("…\n");
+            }
+            break;
+        }
+        return entries.isEmpty() ? "" : "관련 스토리:\n" + entries;
+    }
+    
+    private Timer retrievalTimer(String outcome) {
+        return Timer.builder("chat.retrieval.latency")
+                .description("Time to embed the user message and find related stories")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -1,17 +1,16 @@
 package com.datewithai.domain.story.service;
 
-import com.datewithai.domain.story.dto.StoryEmbedRequest;
-import com.datewithai.domain.story.dto.VectorSearchRequest;
+import com.datewithai.domain.story.dto.RetrievedStory;
 import com.datewithai.domain.story.repository.StoryRepository;
 import com.datewithai.domain.character.entity.Character;
 import com.datewithai.domain.story.entity.Story;
+import com.datewithai.domain.story.event.StoryEmbeddingChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
@@ -22,19 +21,19 @@ import java.util.Optional;
 public class StoryService {
     
     private final StoryRepository storyRepository;
-    private final WebClient pythonServiceWebClient;
-    
-    @Value("${ai.python-service.endpoints.embed-story}")
-    private String embedStoryEndpoint;
-    
-    @Value("${ai.python-service.endpoints.search-vectors}")
-    private String searchVectorsEndpoint;
+    private final StoryEmbeddingBackfillJob storyEmbeddingBackfillJob;
+    private final StoryRetrievalService storyRetrievalService;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Autowired
     public StoryService(StoryRepository storyRepository, 
-                       @Qualifier("pythonServiceWebClient") WebClient pythonServiceWebClient) {
+                       StoryEmbeddingBackfillJob storyEmbeddingBackfillJob,
+                       StoryRetrievalService storyRetrievalService,
+                       ApplicationEventPublisher eventPublisher) {
         this.storyRepository = storyRepository;
-        this.pythonServiceWebClient = pythonServiceWebClient;
+        this.storyEmbeddingBackfillJob = storyEmbeddingBackfillJob;
+        this.storyRetrievalService = storyRetrievalService;
+        this.eventPublisher = eventPublisher;
     }
     
     public Optional<Story> findById(Long id) {
@@ -69,40 +68,22 @@ public class StoryService {
         return savedStory;
     }
     
-    @Transactional
+    // 스토리 한 건마다 요청을 보내지 않고, 커밋 후 백필 작업이 배치로 임베딩하게 한다
     public void embedStoryAsync(Story story) {
-        StoryEmbedRequest request = new StoryEmbedRequest(story.getId(), story.getContent());
-        
-        pythonServiceWebClient.post()
-                .uri(embedStoryEndpoint)
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(String.class)
-                .doOnSuccess(embedding -> {
-                    story.setEmbeddingVector(embedding);
-                    storyRepository.save(story);
-                })
-                .doOnError(error -> {
-                    System.err.println("Failed to embed story: " + error.getMessage());
-                })
-                .subscribe();
+        storyEmbeddingBackfillJob.requestRunAfterCommit();
     }
     
-    public Mono<List<Story>> searchSimilarStories(String userMessage, Long characterId, int limit) {
-        return pythonServiceWebClient.post()
-                .uri("/api/embed")
-                .bodyValue(userMessage)
-                .retrieve()
-                .bodyToMono(String.class)
-                .map(embedding -> {
-                    VectorSearchRequest searchRequest = new VectorSearchRequest(embedding, characterId, limit);
-                    return storyRepository.findSimilarStoriesByEmbedding(characterId, embedding, limit);
-                });
+    public Mono<List<RetrievedStory>> searchSimilarStories(String userMessage, Long characterId, int limit) {
+        return storyRetrievalService.search(characterId, userMessage, limit);
     }
     
+    @CacheEvict(value = "characterStories", allEntries = true)
     @Transactional
     public void deleteById(Long id) {
-        storyRepository.deleteById(id);
+        storyRepository.findById(id).ifPresent(story -> {
+            storyRepository.delete(story);
+            eventPublisher.publishEvent(StoryEmbeddingChangedEvent.deleted(story.getId(), story.getCharacter().getId()));
+        });
     }
     
     public boolean existsById(Long id) {
@@ -0,0 +1,84 @@
+package com.datewithai.global.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Redis pub/sub 으로 노드 간 L1 캐시 무효화 메시지를 주고받는다.
+ * 메시지 형식은 "보낸노드|캐시이름|키" 이고, 키가 비어 있으면 캐시 전체를 지운다.
+ */
+public class CacheInvalidationBus implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+    private static final String SEPARATOR = "|";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String channel;
+    private final String nodeId;
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public CacheInvalidationBus(StringRedisTemplate stringRedisTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                String channel,
+                                String nodeId) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.eventPublisher = eventPublisher;
+        this.channel = channel;
+        this.nodeId = nodeId;
+    }
+
+    void register(TwoLevelCache cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    void publishEvict(String cacheName, String localKey) {
+        publish(cacheName + SEPARATOR + localKey);
+    }
+
+    void publishClear(String cacheName) {
+        publish(cacheName + SEPARATOR);
+    }
+
+    private void publish(String payload) {
+        try {
+            stringRedisTemplate.convertAndSend(channel, nodeId + SEPARATOR + payload);
+        } catch (DataAccessException e) {
+            // 전달에 실패해도 다른 노드의 L1 은 TTL 이 지나면 L2 기준으로 다시 맞춰진다
+            log.warn("Failed to publish cache invalidation: {}", payload, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        String cacheName = parts[1];
+        String localKey = parts[2].isEmpty() ? null : parts[2];
+
+        TwoLevelCache cache = caches.get(cacheName);
+        if (cache != null) {
+            if (localKey == null) {
+                cache.clearLocal();
+            } else {
+                cache.evictLocal(localKey);
+            }
+        }
+        eventPublisher.publishEvent(new RemoteCacheInvalidatedEvent(cacheName, localKey));
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+}
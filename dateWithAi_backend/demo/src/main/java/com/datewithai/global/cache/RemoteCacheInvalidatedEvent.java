@@ -0,0 +1,18 @@
+package com.datewithai.global.cache;
+
+// 다른 노드에서 캐시가 무효화되었을 때 로컬에 발행되는 이벤트 (key 가 null 이면 전체 삭제)
+public class RemoteCacheInvalidatedEvent {
+
+    private final String cacheName;
+    private final String key;
+
+    public RemoteCacheInvalidatedEvent(String cacheName, String key) {
+        this.cacheName = cacheName;
+        this.key = key;
+    }
+
+    public String getCacheName() { return cacheName; }
+    public String getKey() { return key; }
+
+    public boolean isClear() { return key == null; }
+}
@@ -0,0 +1,163 @@
+package com.datewithai.global.cache;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 노드 로컬 Caffeine(L1) 뒤에 Redis(L2) 를 두는 캐시.
+ * 읽기는 L1 → L2 → 원본 순서로 내려가고, 쓰기/삭제는 L2 에 반영한 뒤
+ * 다른 노드의 L1 을 지우도록 무효화 메시지를 보낸다.
+ * 조회 결과는 어느 층에서 찾았는지로 센다 (cache.lookups, result: l1_hit / l2_hit / miss).
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local;
+    private final Cache remote;
+    private final CacheInvalidationBus invalidationBus;
+    private final Counter l1Hits;
+    private final Counter l2Hits;
+    private final Counter misses;
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local,
+                         Cache remote,
+                         CacheInvalidationBus invalidationBus,
+                         Counter l1Hits,
+                         Counter l2Hits,
+                         Counter misses) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationBus = invalidationBus;
+        this.l1Hits = l1Hits;
+        this.l2Hits = l2Hits;
+        this.misses = misses;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = toLocalKey(key);
+        ValueWrapper wrapper = local.getIfPresent(localKey);
+        if (wrapper != null) {
+            l1Hits.increment();
+            return wrapper;
+        }
+        wrapper = remote.get(key);
+        if (wrapper != null) {
+            l2Hits.increment();
+            local.put(localKey, wrapper);
+        } else {
+            misses.increment();
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = toLocalKey(key);
+        ValueWrapper wrapper = local.getIfPresent(localKey);
+        if (wrapper != null) {
+            l1Hits.increment();
+            return (T) wrapper.get();
+        }
+        // 로더가 실제로 불렸으면 L2 에도 없었던 것
+        AtomicBoolean loaded = new AtomicBoolean();
+        T value = remote.get(key, () -> {
+            loaded.set(true);
+            return valueLoader.call();
+        });
+        (loaded.get() ? misses : l2Hits).increment();
+        local.put(localKey, new SimpleValueWrapper(value));
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        local.put(toLocalKey(key), new SimpleValueWrapper(value));
+        invalidationBus.publishEvict(name, toLocalKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        if (existing == null) {
+            local.put(toLocalKey(key), new SimpleValueWrapper(value));
+            invalidationBus.publishEvict(name, toLocalKey(key));
+        } else {
+            local.put(toLocalKey(key), existing);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(toLocalKey(key));
+        invalidationBus.publishEvict(name, toLocalKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        local.invalidate(toLocalKey(key));
+        invalidationBus.publishEvict(name, toLocalKey(key));
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidationBus.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean present = remote.invalidate();
+        local.invalidateAll();
+        invalidationBus.publishClear(name);
+        return present;
+    }
+
+    // 다른 노드에서 온 무효화 메시지는 로컬 사본만 지운다
+    void evictLocal(String localKey) {
+        local.invalidate(localKey);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    // RedisCache 도 키를 문자열로 바꿔 저장하므로, L1 도 같은 기준으로 키를 맞춘다
+    static String toLocalKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,81 @@
+package com.datewithai.global.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@link TwoLevelCache} 를 만들어 주는 CacheManager.
+ * L2 는 기존 RedisCacheManager 가 그대로 담당하고, 캐시 이름마다 크기 제한이 있는 Caffeine L1 을 붙인다.
+ * 트랜잭션 안에서의 put/evict 는 커밋 이후로 미뤄서, 커밋 전 값이 다시 캐시에 올라가지 않게 한다.
+ */
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private final RedisCacheManager redisCacheManager;
+    private final CacheInvalidationBus invalidationBus;
+    private final MeterRegistry meterRegistry;
+    private final long localMaximumSize;
+    private final Duration localTtl;
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager,
+                                CacheInvalidationBus invalidationBus,
+                                MeterRegistry meterRegistry,
+                                long localMaximumSize,
+                                Duration localTtl) {
+        this.redisCacheManager = redisCacheManager;
+        this.invalidationBus = invalidationBus;
+        this.meterRegistry = meterRegistry;
+        this.localMaximumSize = localMaximumSize;
+        this.localTtl = localTtl;
+        setTransactionAware(true);
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return List.of();
+    }
+
+    // @Cacheable 에서 처음 쓰이는 이름마다 호출된다 (AbstractCacheManager 가 한 번만 만들도록 보장)
+    @Override
+    protected Cache getMissingCache(String name) {
+        Cache remote = redisCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+
+        com.github.benmanes.caffeine.cache.Cache<String, Cache.ValueWrapper> local = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name, Tags.of("level", "l1"));
+        if (remote instanceof RedisCache redisCache) {
+            new RedisCacheMetrics(redisCache, Tags.of("level", "l2")).bindTo(meterRegistry);
+        }
+
+        TwoLevelCache cache = new TwoLevelCache(name, local, remote, invalidationBus,
+                lookupCounter(name, "l1_hit"), lookupCounter(name, "l2_hit"), lookupCounter(name, "miss"));
+        invalidationBus.register(cache);
+        return cache;
+    }
+
+    private Counter lookupCounter(String name, String result) {
+        return Counter.builder("cache.lookups")
+                .description("Two-level cache lookups by the level that answered")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,35 @@
+package com.datewithai.global.cluster;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+/**
+ * 여러 백엔드 노드가 Redis 를 함께 쓸 때 이 프로세스를 구분하는 id.
+ * cluster.node-id 를 비워 두면 "호스트명-임의값" 으로 만들어서 재시작할 때마다 바뀐다
+ * (이전 프로세스가 잡고 있던 소유권과 섞이지 않게 하기 위해).
+ */
+@Component
+public class ClusterNode {
+
+    private final String id;
+
+    public ClusterNode(@Value("${cluster.node-id:}") String configuredId) {
+        this.id = configuredId.isBlank() ? hostName() + "-" + UUID.randomUUID().toString().substring(0, 8) : configuredId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "node";
+        }
+    }
+}
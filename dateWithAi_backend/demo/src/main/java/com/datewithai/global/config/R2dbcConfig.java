@@ -0,0 +1,73 @@
+package com.datewithai.global.config;
+
+import com.datewithai.domain.chat.repository.ChatMessageRecordRepository;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+
+import java.time.Duration;
+
+/**
+ * reactive 프로필의 채팅 저장소(R2DBC).
+ * ConnectionFactory 를 빈으로 노출하면 Boot 가 JDBC DataSource 자동 구성을 건너뛰어 JPA 가 멈추므로,
+ * 풀은 이 설정 안에만 두고 R2dbcEntityTemplate 만 빈으로 내보낸다. (R2DBC 자동 구성은 application.yml 에서 제외)
+ */
+@Configuration
+@Profile("reactive")
+@EnableR2dbcRepositories(
+        basePackageClasses = ChatMessageRecordRepository.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ChatMessageRecordRepository.class))
+public class R2dbcConfig implements DisposableBean {
+
+    @Value("${chat.reactive.r2dbc.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    @Value("${chat.reactive.r2dbc.pool.initial-size}")
+    private int initialSize;
+
+    @Value("${chat.reactive.r2dbc.pool.max-size}")
+    private int maxSize;
+
+    @Value("${chat.reactive.r2dbc.pool.max-acquire-time}")
+    private Duration maxAcquireTime;
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public R2dbcEntityTemplate r2dbcEntityTemplate() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("chat-r2dbc")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxAcquireTime(maxAcquireTime)
+                .build());
+        return new R2dbcEntityTemplate(connectionPool);
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
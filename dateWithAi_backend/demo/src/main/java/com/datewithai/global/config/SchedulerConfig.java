@@ -0,0 +1,25 @@
+package com.datewithai.global.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/**
+ * 리액티브 체인 안의 블로킹 호출(JPA, JDBC, 동기 Redis) 전용 스케줄러.
+ * 작업마다 가상 스레드를 하나씩 쓰므로 boundedElastic 처럼 스레드 수 상한에 걸려 대기하지 않고,
+ * 실제 동시성은 커넥션 풀(Hikari, Lettuce)이 제한한다.
+ * 이벤트 루프(reactor-http-nio, parallel)에서는 블로킹 호출을 하지 않고 반드시 이 스케줄러로 넘긴다.
+ */
+@Configuration
+public class SchedulerConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler() {
+        return Schedulers.fromExecutorService(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("blocking-vt-", 0).factory()),
+                "blocking-vt");
+    }
+}
@@ -0,0 +1,37 @@
+package com.datewithai.global.config;
+
+import com.datewithai.global.diagnostics.JsonLinesSpanExporter;
+import io.lettuce.core.tracing.MicrometerTracing;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.ClientResourcesBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 분산 추적 설정.
+ * HTTP 요청, WebClient(파이썬 서버), JDBC 쿼리는 Spring Boot 와 datasource-micrometer 가 span 을 만들고,
+ * 여기서는 Redis 명령 span 과 파일 내보내기를 더한다. 수집기로 보내는 것은 management.otlp.tracing 설정을 따른다.
+ */
+@Configuration
+public class TracingConfig {
+
+    // 명령 인자(키, 값)는 span 에 남기지 않는다
+    @Bean
+    public ClientResourcesBuilderCustomizer lettuceTracingCustomizer(ObservationRegistry observationRegistry,
+                                                                     @Value("${spring.application.name}") String applicationName) {
+        return builder -> builder.tracing(new MicrometerTracing(observationRegistry, applicationName + "-redis"));
+    }
+
+    // Spring Boot 가 SpanExporter 빈을 모두 모아 BatchSpanProcessor 에 붙인다 (OTLP 와 함께 켤 수 있다).
+    // 닫는 것은 마지막 묶음을 내보낸 뒤 SdkTracerProvider 가 한다
+    @Bean(destroyMethod = "")
+    @ConditionalOnProperty(name = "tracing.file.enabled", havingValue = "true")
+    public JsonLinesSpanExporter jsonLinesSpanExporter(@Value("${tracing.file.path}") Path path) throws IOException {
+        return new JsonLinesSpanExporter(path);
+    }
+}
@@ -1,5 +1,7 @@
 package com.datewithai.global.config;
 
+import io.micrometer.observation.ObservationRegistry;
+import io.netty.channel.ChannelOption;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,28 +18,42 @@ public class WebClientConfig {
     @Value("${ai.python-service.base-url}")
     private String pythonServiceBaseUrl;
     
+    @Value("${ai.python-service.timeouts.connect}")
+    private Duration connectTimeout;
+    
+    // 호출별 타임아웃(PythonServiceCircuitBreaker)보다 길게 두는 안전망
+    @Value("${ai.python-service.timeouts.response}")
+    private Duration responseTimeout;
+    
     @Bean
-    public WebClient pythonServiceWebClient() {
+    public WebClient pythonServiceWebClient(ObservationRegistry observationRegistry) {
         ConnectionProvider connectionProvider = ConnectionProvider.builder("python-service")
                 .maxConnections(100)
                 .maxIdleTime(Duration.ofSeconds(20))
                 .maxLifeTime(Duration.ofSeconds(60))
                 .pendingAcquireTimeout(Duration.ofSeconds(60))
                 .evictInBackground(Duration.ofSeconds(120))
+                // reactor.netty.connection.provider.* (active/idle/pending/total, name=python-service) 게이지.
+                // Spring Boot 가 등록하는 전역 레지스트리로 나가므로 /actuator/prometheus 에서 풀 포화를 볼 수 있다
+                .metrics(true)
                 .build();
         
         HttpClient httpClient = HttpClient.create(connectionProvider)
-                .responseTimeout(Duration.ofSeconds(300));
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
         
         return WebClient.builder()
                 .baseUrl(pythonServiceBaseUrl)
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
+                // 요청마다 client span 을 만들고 traceparent 헤더로 파이썬 서버에 넘긴다
+                .observationRegistry(observationRegistry)
                 .build();
     }
     
     @Bean
-    public WebClient defaultWebClient() {
+    public WebClient defaultWebClient(ObservationRegistry observationRegistry) {
         return WebClient.builder()
+                .observationRegistry(observationRegistry)
                 .build();
     }
 }
\ No newline at end of file
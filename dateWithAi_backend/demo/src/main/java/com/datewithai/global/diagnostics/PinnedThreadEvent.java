@@ -0,0 +1,28 @@
+package com.datewithai.global.diagnostics;
+
+import java.time.Instant;
+import java.util.List;
+
+// JFR jdk.VirtualThreadPinned 이벤트 한 건 (가상 스레드가 캐리어에 고정된 채로 블로킹된 구간)
+public class PinnedThreadEvent {
+
+    private final Instant startTime;
+    private final long durationMillis;
+    private final String threadName;
+    private final String culprit;
+    private final List<String> stackTrace;
+
+    public PinnedThreadEvent(Instant startTime, long durationMillis, String threadName, String culprit, List<String> stackTrace) {
+        this.startTime = startTime;
+        this.durationMillis = durationMillis;
+        this.threadName = threadName;
+        this.culprit = culprit;
+        this.stackTrace = stackTrace;
+    }
+
+    public Instant getStartTime() { return startTime; }
+    public long getDurationMillis() { return durationMillis; }
+    public String getThreadName() { return threadName; }
+    public String getCulprit() { return culprit; }
+    public List<String> getStackTrace() { return stackTrace; }
+}
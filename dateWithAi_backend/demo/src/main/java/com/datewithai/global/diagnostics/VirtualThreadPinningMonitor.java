@@ -0,0 +1,129 @@
+package com.datewithai.global.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * JFR 스트림으로 가상 스레드 pinning(synchronized 안이나 네이티브 프레임에서의 블로킹)을 수집한다.
+ * JDBC 드라이버, Lettuce 등에서 캐리어 스레드를 붙잡는 지점을 찾기 위한 것이고,
+ * 최근 이벤트는 /actuator/virtualthreads 로, 건수와 시간은 메트릭으로 확인한다.
+ */
+@Component
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_FRAMES = 12;
+
+    private final Counter pinnedCounter;
+    private final Timer pinnedTimer;
+    private final Deque<PinnedThreadEvent> recent = new ArrayDeque<>();
+
+    @Value("${diagnostics.virtual-threads.pinning.enabled}")
+    private boolean enabled;
+
+    @Value("${diagnostics.virtual-threads.pinning.threshold}")
+    private Duration threshold;
+
+    @Value("${diagnostics.virtual-threads.pinning.recent-events}")
+    private int recentEvents;
+
+    private RecordingStream stream;
+
+    @Autowired
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual thread pinning events longer than the configured threshold")
+                .register(meterRegistry);
+        this.pinnedTimer = Timer.builder("jvm.threads.virtual.pinned.duration")
+                .description("Time virtual threads spent blocked while pinned to a carrier")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || stream != null) {
+            return;
+        }
+        try {
+            stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::onPinned);
+            stream.startAsync();
+        } catch (RuntimeException e) {
+            // JFR 을 쓸 수 없는 JVM 이어도 애플리케이션은 그대로 뜬다
+            log.warn("Virtual thread pinning monitor disabled", e);
+            stream = null;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    public long getPinnedCount() {
+        return (long) pinnedCounter.count();
+    }
+
+    public synchronized List<PinnedThreadEvent> getRecentEvents() {
+        return new ArrayList<>(recent);
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<String> frames = new ArrayList<>();
+        String culprit = null;
+        if (event.getStackTrace() != null) {
+            for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                String method = frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber();
+                // JDK 내부가 아닌 첫 프레임이 보통 synchronized 를 잡고 있는 라이브러리/애플리케이션 코드
+                if (culprit == null && !method.startsWith("java.") && !method.startsWith("jdk.")) {
+                    culprit = method;
+                }
+                if (frames.size() < MAX_FRAMES) {
+                    frames.add(method);
+                }
+            }
+        }
+        RecordedThread thread = event.getThread();
+        PinnedThreadEvent pinned = new PinnedThreadEvent(event.getStartTime(), event.getDuration().toMillis(),
+                thread != null ? thread.getJavaName() : null, culprit, frames);
+
+        pinnedCounter.increment();
+        pinnedTimer.record(event.getDuration());
+        synchronized (this) {
+            recent.addFirst(pinned);
+            while (recent.size() > recentEvents) {
+                recent.removeLast();
+            }
+        }
+        log.debug("Virtual thread pinned for {}ms at {}", pinned.getDurationMillis(), culprit);
+    }
+}
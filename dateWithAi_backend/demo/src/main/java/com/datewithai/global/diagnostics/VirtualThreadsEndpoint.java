@@ -0,0 +1,53 @@
+package com.datewithai.global.diagnostics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// GET /actuator/virtualthreads : 실행 모드, 플랫폼 스레드 수, 최근 pinning 이벤트
+@Component
+@Endpoint(id = "virtualthreads")
+public class VirtualThreadsEndpoint {
+
+    private final VirtualThreadPinningMonitor pinningMonitor;
+    private final Environment environment;
+
+    @Autowired
+    public VirtualThreadsEndpoint(VirtualThreadPinningMonitor pinningMonitor, Environment environment) {
+        this.pinningMonitor = pinningMonitor;
+        this.environment = environment;
+    }
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        // ThreadMXBean 은 플랫폼 스레드만 센다. 가상 스레드 모드에서는 요청 수가 늘어도 이 값이 거의 그대로여야 한다
+        Map<String, Object> platformThreads = new LinkedHashMap<>();
+        platformThreads.put("live", threads.getThreadCount());
+        platformThreads.put("daemon", threads.getDaemonThreadCount());
+        platformThreads.put("peak", threads.getPeakThreadCount());
+        platformThreads.put("totalStarted", threads.getTotalStartedThreadCount());
+
+        Map<String, Object> pinning = new LinkedHashMap<>();
+        pinning.put("monitoring", pinningMonitor.isRunning());
+        pinning.put("total", pinningMonitor.getPinnedCount());
+        pinning.put("recent", pinningMonitor.getRecentEvents());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("mode", Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform");
+        report.put("carrierParallelism", Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                Runtime.getRuntime().availableProcessors()));
+        report.put("platformThreads", platformThreads);
+        report.put("pinning", pinning);
+        return report;
+    }
+}
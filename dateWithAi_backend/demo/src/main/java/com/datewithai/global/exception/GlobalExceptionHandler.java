@@ -0,0 +1,52 @@
+package com.datewithai.global.exception;
+
+import com.datewithai.global.llm.LlmCapacityExceededException;
+import com.datewithai.global.llm.LlmUnavailableException;
+import com.datewithai.global.ratelimit.RateLimitDecision;
+import com.datewithai.global.ratelimit.RateLimitExceededException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.util.Map;
+
+@ControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(LlmCapacityExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleLlmCapacityExceeded(LlmCapacityExceededException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter().toSeconds()))
+                .body(Map.of(
+                        "success", false,
+                        "error", "AI 서버가 혼잡합니다. 잠시 후 다시 시도해주세요.",
+                        "retryAfterSeconds", e.getRetryAfter().toSeconds()
+                ));
+    }
+
+    // 채팅은 대체 응답으로 처리되므로 여기로 오는 것은 스토리 등록처럼 임베딩이 꼭 필요한 요청이다
+    @ExceptionHandler(LlmUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleLlmUnavailable(LlmUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter().toSeconds()))
+                .body(Map.of(
+                        "success", false,
+                        "error", "AI 서버에 일시적으로 연결할 수 없습니다. 잠시 후 다시 시도해주세요.",
+                        "retryAfterSeconds", e.getRetryAfter().toSeconds()
+                ));
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleRateLimitExceeded(RateLimitExceededException e) {
+        RateLimitDecision decision = e.getDecision();
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .headers(decision.toHeaders())
+                .body(Map.of(
+                        "success", false,
+                        "error", "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.",
+                        "retryAfterSeconds", decision.retryAfterSeconds()
+                ));
+    }
+}
@@ -0,0 +1,16 @@
+package com.datewithai.global.llm;
+
+import java.time.Duration;
+
+// LLM 호출 대기열이 가득 찼거나 대기 시간이 초과되었을 때 (HTTP 429 로 변환됨)
+public class LlmCapacityExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public LlmCapacityExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() { return retryAfter; }
+}
@@ -0,0 +1,470 @@
+package com.datewithai.global.llm;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 파이썬 AI 서버로 나가는 호출의 동시 실행 수를 AIMD 방식으로 조절한다.
+ * 한도를 넘는 요청은 우선순위 레인({@link LlmPriority})별 대기열에 쌓이고,
+ * 레인 사이에서는 가중치에 따라(smooth weighted round robin), 레인 안에서는 클라이언트별 라운드 로빈으로 꺼내진다.
+ * 백그라운드 레인은 동시 실행 수 상한이 따로 있어서 실행 슬롯을 모두 차지하지 못하고,
+ * 대기열이 가득 찼을 때 더 높은 레인의 요청이 오면 대기 중인 낮은 레인의 요청이 밀려난다.
+ * 자리가 없으면 바로 {@link LlmCapacityExceededException} 으로 실패한다.
+ */
+@Component
+public class LlmConcurrencyLimiter {
+
+    private final Object lock = new Object();
+    private final Map<LlmPriority, Lane> lanes = new EnumMap<>(LlmPriority.class);
+
+    private final double minLimit;
+    private final double maxLimit;
+    private final double backoffRatio;
+    private final Duration latencyThreshold;
+    private final int maxQueueSize;
+    private final int maxQueuePerClient;
+    private final Duration maxQueueWait;
+
+    private final Counter queueFullRejections;
+    private final Counter clientQueueFullRejections;
+    private final Counter waitTimeoutRejections;
+    private final Counter preemptions;
+
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private double averageLatencyMillis;
+
+    @Autowired
+    public LlmConcurrencyLimiter(MeterRegistry meterRegistry,
+                                 @Value("${ai.python-service.limiter.initial-limit}") double initialLimit,
+                                 @Value("${ai.python-service.limiter.min-limit}") double minLimit,
+                                 @Value("${ai.python-service.limiter.max-limit}") double maxLimit,
+                                 @Value("${ai.python-service.limiter.backoff-ratio}") double backoffRatio,
+                                 @Value("${ai.python-service.limiter.latency-threshold}") Duration latencyThreshold,
+                                 @Value("${ai.python-service.limiter.max-queue-size}") int maxQueueSize,
+                                 @Value("${ai.python-service.limiter.max-queue-per-client}") int maxQueuePerClient,
+                                 @Value("${ai.python-service.limiter.max-queue-wait}") Duration maxQueueWait,
+                                 @Value("${ai.python-service.limiter.lanes.interactive.weight}") int interactiveWeight,
+                                 @Value("${ai.python-service.limiter.lanes.interactive.max-in-flight}") int interactiveMaxInFlight,
+                                 @Value("${ai.python-service.limiter.lanes.rag-embedding.weight}") int ragWeight,
+                                 @Value("${ai.python-service.limiter.lanes.rag-embedding.max-in-flight}") int ragMaxInFlight,
+                                 @Value("${ai.python-service.limiter.lanes.backfill.weight}") int backfillWeight,
+                                 @Value("${ai.python-service.limiter.lanes.backfill.max-in-flight}") int backfillMaxInFlight) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThreshold = latencyThreshold;
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueuePerClient = maxQueuePerClient;
+        this.maxQueueWait = maxQueueWait;
+        this.averageLatencyMillis = latencyThreshold.toMillis() / 2.0;
+
+        lanes.put(LlmPriority.INTERACTIVE, new Lane(LlmPriority.INTERACTIVE, interactiveWeight, interactiveMaxInFlight, meterRegistry));
+        lanes.put(LlmPriority.RAG_EMBEDDING, new Lane(LlmPriority.RAG_EMBEDDING, ragWeight, ragMaxInFlight, meterRegistry));
+        lanes.put(LlmPriority.BACKFILL, new Lane(LlmPriority.BACKFILL, backfillWeight, backfillMaxInFlight, meterRegistry));
+
+        Gauge.builder("llm.limiter.in.flight", this, LlmConcurrencyLimiter::getInFlight)
+                .description("Outbound LLM calls currently running")
+                .register(meterRegistry);
+        Gauge.builder("llm.limiter.limit", this, LlmConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        this.queueFullRejections = rejectionCounter(meterRegistry, "queue_full");
+        this.clientQueueFullRejections = rejectionCounter(meterRegistry, "client_queue_full");
+        this.waitTimeoutRejections = rejectionCounter(meterRegistry, "wait_timeout");
+        this.preemptions = rejectionCounter(meterRegistry, "preempted");
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("llm.limiter.rejected")
+                .description("LLM calls rejected by the concurrency limiter")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> execute(String clientKey, Supplier<Mono<T>> call) {
+        return execute(LlmPriority.INTERACTIVE, clientKey, call);
+    }
+
+    public <T> Mono<T> execute(LlmPriority priority, String clientKey, Supplier<Mono<T>> call) {
+        return Mono.usingWhen(acquire(priority, clientKey),
+                permit -> call.get(),
+                permit -> Mono.fromRunnable(() -> permit.release(null)),
+                (permit, error) -> Mono.fromRunnable(() -> permit.release(error)),
+                permit -> Mono.fromRunnable(permit::abandon));
+    }
+
+    public <T> Flux<T> executeMany(String clientKey, Supplier<Flux<T>> call) {
+        return Flux.usingWhen(acquire(LlmPriority.INTERACTIVE, clientKey),
+                permit -> call.get(),
+                permit -> Mono.fromRunnable(() -> permit.release(null)),
+                (permit, error) -> Mono.fromRunnable(() -> permit.release(error)),
+                permit -> Mono.fromRunnable(permit::abandon));
+    }
+
+    // 스트리밍 응답처럼 헤더를 먼저 보내야 하는 경우, 시작 전에 429 여부를 미리 판단하기 위해 사용 (채팅 레인 기준)
+    public void checkCapacity(String clientKey) {
+        synchronized (lock) {
+            if (queued >= maxQueueSize && !hasQueuedBelow(LlmPriority.INTERACTIVE)) {
+                queueFullRejections.increment();
+                throw new LlmCapacityExceededException("LLM queue is full", estimateRetryAfter());
+            }
+            Deque<Waiter> queue = lanes.get(LlmPriority.INTERACTIVE).queues.get(clientKey);
+            if (queue != null && queue.size() >= maxQueuePerClient) {
+                clientQueueFullRejections.increment();
+                throw new LlmCapacityExceededException("Too many pending requests for client", estimateRetryAfter());
+            }
+        }
+    }
+
+    private Mono<Permit> acquire(LlmPriority priority, String clientKey) {
+        return Mono.<Permit>create(sink -> {
+            Lane lane = lanes.get(priority);
+            Waiter waiter = new Waiter(lane, clientKey, sink);
+            LlmCapacityExceededException rejection;
+            Waiter preempted = null;
+            Duration preemptedRetryAfter = null;
+            List<Waiter> granted;
+            synchronized (lock) {
+                if (queued >= maxQueueSize) {
+                    preempted = preemptBelow(priority);
+                    if (preempted != null) {
+                        preemptedRetryAfter = estimateRetryAfter();
+                    }
+                }
+                rejection = tryEnqueue(waiter);
+                granted = rejection == null ? dispatch() : List.of();
+            }
+            if (preempted != null) {
+                reject(preempted, new LlmCapacityExceededException("Preempted by higher priority work", preemptedRetryAfter));
+            }
+            if (rejection != null) {
+                sink.error(rejection);
+                return;
+            }
+            // 바로 실행 슬롯을 받았으면 타이머를 걸지 않는다
+            if (!granted.contains(waiter)) {
+                waiter.expiry = Schedulers.parallel().schedule(() -> expire(waiter), maxQueueWait.toMillis(), TimeUnit.MILLISECONDS);
+                sink.onCancel(() -> cancel(waiter));
+            }
+            grant(granted);
+        }).doOnDiscard(Permit.class, Permit::abandon);
+    }
+
+    private LlmCapacityExceededException tryEnqueue(Waiter waiter) {
+        if (queued >= maxQueueSize) {
+            queueFullRejections.increment();
+            return new LlmCapacityExceededException("LLM queue is full", estimateRetryAfter());
+        }
+        Lane lane = waiter.lane;
+        Deque<Waiter> queue = lane.queues.computeIfAbsent(waiter.clientKey, key -> new ArrayDeque<>());
+        if (queue.size() >= maxQueuePerClient) {
+            clientQueueFullRejections.increment();
+            if (queue.isEmpty()) {
+                lane.queues.remove(waiter.clientKey);
+            }
+            return new LlmCapacityExceededException("Too many pending requests for client", estimateRetryAfter());
+        }
+        if (queue.isEmpty()) {
+            lane.rotation.addLast(waiter.clientKey);
+        }
+        queue.addLast(waiter);
+        lane.queued++;
+        queued++;
+        return null;
+    }
+
+    // 가장 낮은 레인부터, 가장 최근에 들어온 대기 요청 하나를 빼낸다 (lock 안에서 호출)
+    private Waiter preemptBelow(LlmPriority priority) {
+        LlmPriority[] priorities = LlmPriority.values();
+        for (int i = priorities.length - 1; i > priority.ordinal(); i--) {
+            Lane lane = lanes.get(priorities[i]);
+            if (lane.rotation.isEmpty()) {
+                continue;
+            }
+            Waiter victim = lane.queues.get(lane.rotation.peekLast()).peekLast();
+            remove(victim);
+            victim.state = WaiterState.EXPIRED;
+            preemptions.increment();
+            return victim;
+        }
+        return null;
+    }
+
+    private boolean hasQueuedBelow(LlmPriority priority) {
+        LlmPriority[] priorities = LlmPriority.values();
+        for (int i = priorities.length - 1; i > priority.ordinal(); i--) {
+            if (lanes.get(priorities[i]).queued > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void expire(Waiter waiter) {
+        Duration retryAfter;
+        synchronized (lock) {
+            if (waiter.state != WaiterState.QUEUED) {
+                return;
+            }
+            remove(waiter);
+            waiter.state = WaiterState.EXPIRED;
+            retryAfter = estimateRetryAfter();
+        }
+        waitTimeoutRejections.increment();
+        reject(waiter, new LlmCapacityExceededException("Timed out waiting for LLM capacity", retryAfter));
+    }
+
+    private void reject(Waiter waiter, LlmCapacityExceededException error) {
+        waiter.cancelExpiry();
+        waiter.lane.queueWaitTimer.record(System.nanoTime() - waiter.enqueuedAt, TimeUnit.NANOSECONDS);
+        waiter.sink.error(error);
+    }
+
+    private void cancel(Waiter waiter) {
+        synchronized (lock) {
+            if (waiter.state != WaiterState.QUEUED) {
+                return;
+            }
+            remove(waiter);
+            waiter.state = WaiterState.CANCELLED;
+        }
+        waiter.cancelExpiry();
+    }
+
+    private void remove(Waiter waiter) {
+        Lane lane = waiter.lane;
+        Deque<Waiter> queue = lane.queues.get(waiter.clientKey);
+        if (queue != null && queue.remove(waiter)) {
+            lane.queued--;
+            queued--;
+            if (queue.isEmpty()) {
+                lane.queues.remove(waiter.clientKey);
+                lane.rotation.remove(waiter.clientKey);
+            }
+        }
+    }
+
+    private void onRelease(Lane lane, long latencyNanos, Throwable error, boolean abandoned) {
+        List<Waiter> granted;
+        synchronized (lock) {
+            inFlight--;
+            lane.inFlight--;
+            if (!abandoned) {
+                adjustLimit(TimeUnit.NANOSECONDS.toMillis(latencyNanos), error);
+            }
+            granted = dispatch();
+        }
+        lane.callTimer.record(latencyNanos, TimeUnit.NANOSECONDS);
+        grant(granted);
+    }
+
+    // 빈 실행 슬롯만큼 대기 요청을 꺼낸다 (lock 안에서 호출, 완료 신호는 lock 밖에서 grant 로 보낸다)
+    private List<Waiter> dispatch() {
+        List<Waiter> granted = new ArrayList<>();
+        while (inFlight < Math.floor(limit)) {
+            Lane lane = nextLane();
+            if (lane == null) {
+                break;
+            }
+            Waiter next = lane.poll();
+            queued--;
+            inFlight++;
+            lane.inFlight++;
+            next.state = WaiterState.GRANTED;
+            granted.add(next);
+        }
+        return granted;
+    }
+
+    // smooth weighted round robin: 대기 중인 레인마다 가중치만큼 점수를 쌓고, 가장 높은 레인이 전체 가중치만큼 내려놓는다
+    private Lane nextLane() {
+        Lane best = null;
+        int totalWeight = 0;
+        for (Lane lane : lanes.values()) {
+            if (lane.rotation.isEmpty() || lane.inFlight >= lane.maxInFlight) {
+                continue;
+            }
+            lane.currentWeight += lane.weight;
+            totalWeight += lane.weight;
+            if (best == null || lane.currentWeight > best.currentWeight) {
+                best = lane;
+            }
+        }
+        if (best != null) {
+            best.currentWeight -= totalWeight;
+        }
+        return best;
+    }
+
+    private void grant(List<Waiter> granted) {
+        for (Waiter waiter : granted) {
+            waiter.cancelExpiry();
+            waiter.lane.queueWaitTimer.record(System.nanoTime() - waiter.enqueuedAt, TimeUnit.NANOSECONDS);
+            waiter.sink.success(new Permit(waiter.lane));
+        }
+    }
+
+    // AIMD: 제때 끝난 호출마다 한도를 조금씩 올리고, 느리거나 실패한 호출에는 비율로 줄인다
+    private void adjustLimit(long latencyMillis, Throwable error) {
+        averageLatencyMillis = averageLatencyMillis * 0.8 + latencyMillis * 0.2;
+        if (error != null || latencyMillis > latencyThreshold.toMillis()) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    // limit, queued, averageLatencyMillis 를 읽으므로 lock 안에서 호출
+    private Duration estimateRetryAfter() {
+        double perSlotMillis = averageLatencyMillis / Math.max(1.0, Math.floor(limit));
+        long seconds = (long) Math.ceil((queued + 1) * perSlotMillis / 1000.0);
+        return Duration.ofSeconds(Math.max(1, Math.min(seconds, maxQueueWait.toSeconds())));
+    }
+
+    public int getQueued() {
+        synchronized (lock) {
+            return queued;
+        }
+    }
+
+    public int getInFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    public double getLimit() {
+        synchronized (lock) {
+            return limit;
+        }
+    }
+
+    private int getQueued(Lane lane) {
+        synchronized (lock) {
+            return lane.queued;
+        }
+    }
+
+    private enum WaiterState {
+        QUEUED, GRANTED, EXPIRED, CANCELLED
+    }
+
+    // 레인 하나의 대기열과 실행 수 (필드는 lock 안에서만 다룬다)
+    private final class Lane {
+        private final int weight;
+        private final int maxInFlight;
+        private final Map<String, Deque<Waiter>> queues = new HashMap<>();
+        private final Deque<String> rotation = new ArrayDeque<>();
+        private final Timer queueWaitTimer;
+        private final Timer callTimer;
+        private int queued;
+        private int inFlight;
+        private int currentWeight;
+
+        private Lane(LlmPriority priority, int weight, int maxInFlight, MeterRegistry meterRegistry) {
+            this.weight = weight;
+            this.maxInFlight = maxInFlight;
+            this.queueWaitTimer = Timer.builder("llm.limiter.queue.wait")
+                    .description("Time spent waiting for an LLM permit")
+                    .tag("lane", priority.getLaneName())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.callTimer = Timer.builder("llm.limiter.call")
+                    .description("Time an LLM call held its permit")
+                    .tag("lane", priority.getLaneName())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            Gauge.builder("llm.limiter.queue.depth", this, lane -> getQueued(lane))
+                    .description("Outbound LLM calls waiting for a permit")
+                    .tag("lane", priority.getLaneName())
+                    .register(meterRegistry);
+        }
+
+        // 레인 안에서는 클라이언트별 라운드 로빈
+        private Waiter poll() {
+            String clientKey = rotation.pollFirst();
+            Deque<Waiter> queue = queues.get(clientKey);
+            Waiter next = queue.pollFirst();
+            queued--;
+            if (queue.isEmpty()) {
+                queues.remove(clientKey);
+            } else {
+                rotation.addLast(clientKey);
+            }
+            // 비어 있는 동안 쌓인 점수를 들고 있다가 한꺼번에 몰아 받지 않도록
+            if (rotation.isEmpty()) {
+                currentWeight = 0;
+            }
+            return next;
+        }
+    }
+
+    private static final class Waiter {
+        private final Lane lane;
+        private final String clientKey;
+        private final MonoSink<Permit> sink;
+        private final long enqueuedAt = System.nanoTime();
+        private volatile Disposable expiry;
+        private WaiterState state = WaiterState.QUEUED;
+
+        private Waiter(Lane lane, String clientKey, MonoSink<Permit> sink) {
+            this.lane = lane;
+            this.clientKey = clientKey;
+            this.sink = sink;
+        }
+
+        private void cancelExpiry() {
+            Disposable scheduled = expiry;
+            if (scheduled != null) {
+                scheduled.dispose();
+            }
+        }
+    }
+
+    private final class Permit {
+        private final Lane lane;
+        private final long startedAt = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Lane lane) {
+            this.lane = lane;
+        }
+
+        private void release(Throwable error) {
+            if (released.compareAndSet(false, true)) {
+                onRelease(lane, System.nanoTime() - startedAt, error, false);
+            }
+        }
+
+        private void abandon() {
+            if (released.compareAndSet(false, true)) {
+                onRelease(lane, System.nanoTime() - startedAt, null, true);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.datewithai.global.llm;
+
+// 서킷 브레이커를 따로 두는 파이썬 서버 호출 종류. 느린 호출 기준과 타임아웃이 서로 다르다
+public enum LlmEndpoint {
+    // 응답 전체를 한 번에 받는 /chat
+    CHAT("chat"),
+    // 토큰을 이어서 받는 /chat/stream (첫 조각까지의 시간으로 판단)
+    CHAT_STREAM("chat-stream"),
+    // /embed
+    EMBED("embed");
+
+    private final String configName;
+
+    LlmEndpoint(String configName) {
+        this.configName = configName;
+    }
+
+    public String getConfigName() { return configName; }
+}
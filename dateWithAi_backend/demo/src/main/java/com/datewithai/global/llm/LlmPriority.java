@@ -0,0 +1,19 @@
+package com.datewithai.global.llm;
+
+// LLM 호출의 우선순위 레인. 선언 순서가 우선순위 순서이다 (가중치가 같으면 앞쪽이 먼저 나간다)
+public enum LlmPriority {
+    // 사용자가 응답을 기다리는 채팅 생성
+    INTERACTIVE("interactive"),
+    // 채팅 직전의 질문 임베딩 (RAG 검색용, 채팅 지연에 그대로 더해진다)
+    RAG_EMBEDDING("rag-embedding"),
+    // 스토리 임베딩 백필처럼 늦어져도 되는 작업. 대기열이 가득 차면 먼저 밀려난다
+    BACKFILL("backfill");
+
+    private final String laneName;
+
+    LlmPriority(String laneName) {
+        this.laneName = laneName;
+    }
+
+    public String getLaneName() { return laneName; }
+}
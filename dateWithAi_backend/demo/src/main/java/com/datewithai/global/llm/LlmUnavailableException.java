@@ -0,0 +1,16 @@
+package com.datewithai.global.llm;
+
+import java.time.Duration;
+
+// 파이썬 서버 서킷이 열려 있어서 호출하지 않고 바로 실패했을 때 (채팅은 대체 응답, 그 외는 HTTP 503 으로 변환됨)
+public class LlmUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public LlmUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() { return retryAfter; }
+}
@@ -0,0 +1,218 @@
+package com.datewithai.global.llm;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 파이썬 AI 서버 호출의 서킷 브레이커와 호출별 타임아웃.
+ * 호출 종류({@link LlmEndpoint})마다 최근 호출들의 실패율과 느린 호출 비율을 보고,
+ * 기준을 넘으면 서킷을 열어 대기열에 들어가기도 전에 {@link LlmUnavailableException} 으로 실패시킨다.
+ * <p>
+ * 열린 뒤 일정 시간이 지나면 반열림 상태가 되는데, 이때는 사용자 요청을 흘려보내지 않고
+ * /health 확인 요청만 시험 호출로 보낸다. 확인이 통과하면 닫히고, 실패하면 다시 열린다.
+ * 느린 호출 여부는 첫 응답(스트리밍은 첫 조각)까지의 시간으로 판단한다.
+ */
+@Component
+public class PythonServiceCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(PythonServiceCircuitBreaker.class);
+
+    private final WebClient pythonServiceWebClient;
+    private final Map<LlmEndpoint, CircuitBreaker> breakers = new EnumMap<>(LlmEndpoint.class);
+    private final Map<LlmEndpoint, Duration> timeouts = new EnumMap<>(LlmEndpoint.class);
+    private final boolean enabled;
+    private final Duration waitInOpen;
+    private final Duration streamIdleTimeout;
+    private final Duration healthTimeout;
+
+    @Value("${ai.python-service.endpoints.health}")
+    private String healthEndpoint;
+
+    @Autowired
+    public PythonServiceCircuitBreaker(@Qualifier("pythonServiceWebClient") WebClient pythonServiceWebClient,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${ai.python-service.circuit-breaker.enabled}") boolean enabled,
+                                       @Value("${ai.python-service.circuit-breaker.sliding-window-size}") int slidingWindowSize,
+                                       @Value("${ai.python-service.circuit-breaker.minimum-calls}") int minimumCalls,
+                                       @Value("${ai.python-service.circuit-breaker.failure-rate-threshold}") float failureRateThreshold,
+                                       @Value("${ai.python-service.circuit-breaker.slow-call-rate-threshold}") float slowCallRateThreshold,
+                                       @Value("${ai.python-service.circuit-breaker.wait-in-open}") Duration waitInOpen,
+                                       @Value("${ai.python-service.circuit-breaker.half-open-probes}") int halfOpenProbes,
+                                       @Value("${ai.python-service.circuit-breaker.slow-call.chat}") Duration chatSlowCall,
+                                       @Value("${ai.python-service.circuit-breaker.slow-call.chat-stream}") Duration streamSlowCall,
+                                       @Value("${ai.python-service.circuit-breaker.slow-call.embed}") Duration embedSlowCall,
+                                       @Value("${ai.python-service.timeouts.chat}") Duration chatTimeout,
+                                       @Value("${ai.python-service.timeouts.chat-stream-first-chunk}") Duration streamFirstChunkTimeout,
+                                       @Value("${ai.python-service.timeouts.chat-stream-idle}") Duration streamIdleTimeout,
+                                       @Value("${ai.python-service.timeouts.embed}") Duration embedTimeout,
+                                       @Value("${ai.python-service.timeouts.health}") Duration healthTimeout) {
+        this.pythonServiceWebClient = pythonServiceWebClient;
+        this.enabled = enabled;
+        this.waitInOpen = waitInOpen;
+        this.streamIdleTimeout = streamIdleTimeout;
+        this.healthTimeout = healthTimeout;
+
+        timeouts.put(LlmEndpoint.CHAT, chatTimeout);
+        timeouts.put(LlmEndpoint.CHAT_STREAM, streamFirstChunkTimeout);
+        timeouts.put(LlmEndpoint.EMBED, embedTimeout);
+
+        Map<LlmEndpoint, Duration> slowCalls = Map.of(
+                LlmEndpoint.CHAT, chatSlowCall,
+                LlmEndpoint.CHAT_STREAM, streamSlowCall,
+                LlmEndpoint.EMBED, embedSlowCall);
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+        for (LlmEndpoint endpoint : LlmEndpoint.values()) {
+            CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                    .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                    .slidingWindowSize(slidingWindowSize)
+                    .minimumNumberOfCalls(minimumCalls)
+                    .failureRateThreshold(failureRateThreshold)
+                    .slowCallRateThreshold(slowCallRateThreshold)
+                    .slowCallDurationThreshold(slowCalls.get(endpoint))
+                    .waitDurationInOpenState(waitInOpen)
+                    .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                    .permittedNumberOfCallsInHalfOpenState(halfOpenProbes)
+                    .recordException(PythonServiceCircuitBreaker::isFailure)
+                    .build();
+            CircuitBreaker breaker = registry.circuitBreaker("python-" + endpoint.getConfigName(), config);
+            breaker.getEventPublisher().onStateTransition(event ->
+                    log.warn("Python service circuit {}: {}", event.getCircuitBreakerName(), event.getStateTransition()));
+            breakers.put(endpoint, breaker);
+        }
+        // resilience4j.circuitbreaker.state / calls / failure.rate / slow.call.rate (name 태그)
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+    }
+
+    // 대기열에 들어가기 전에 확인한다. 서킷이 닫혀 있지 않으면 슬롯을 잡지 않고 바로 실패한다
+    public <T> Mono<T> whenAvailable(LlmEndpoint endpoint, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> isAvailable(endpoint) ? call.get() : Mono.error(unavailable(endpoint)));
+    }
+
+    public <T> Flux<T> whenAvailableMany(LlmEndpoint endpoint, Supplier<Flux<T>> call) {
+        return Flux.defer(() -> isAvailable(endpoint) ? call.get() : Flux.error(unavailable(endpoint)));
+    }
+
+    // 실제 HTTP 호출을 감싼다 (대기열 대기 시간은 포함되지 않는다)
+    public <T> Mono<T> protect(LlmEndpoint endpoint, Mono<T> call) {
+        Mono<T> timed = call.timeout(timeouts.get(endpoint));
+        if (!enabled) {
+            return timed;
+        }
+        return record(breakers.get(endpoint), timed.flux()).singleOrEmpty();
+    }
+
+    // 첫 조각까지, 그리고 조각 사이의 간격에 각각 타임아웃을 둔다 (전체 길이는 답변 길이에 따라 달라서 제한하지 않는다)
+    public <T> Flux<T> protectMany(LlmEndpoint endpoint, Flux<T> call) {
+        Flux<T> timed = call.timeout(Mono.delay(timeouts.get(endpoint)), item -> Mono.delay(streamIdleTimeout));
+        if (!enabled) {
+            return timed;
+        }
+        return record(breakers.get(endpoint), timed);
+    }
+
+    public boolean isAvailable(LlmEndpoint endpoint) {
+        if (!enabled) {
+            return true;
+        }
+        CircuitBreaker.State state = breakers.get(endpoint).getState();
+        return state == CircuitBreaker.State.CLOSED
+                || state == CircuitBreaker.State.DISABLED
+                || state == CircuitBreaker.State.METRICS_ONLY;
+    }
+
+    // 반열림 상태의 서킷에만 /health 시험 호출을 보낸다
+    // (백필이 스케줄러 스레드를 붙잡고 있어도 돌 수 있게 spring.task.scheduling.pool.size 를 1 보다 크게 둔다)
+    @Scheduled(fixedDelayString = "${ai.python-service.circuit-breaker.probe-interval}")
+    public void probeHalfOpen() {
+        if (!enabled) {
+            return;
+        }
+        breakers.forEach((endpoint, breaker) -> {
+            if (breaker.getState() == CircuitBreaker.State.HALF_OPEN) {
+                probe(breaker);
+            }
+        });
+    }
+
+    private void probe(CircuitBreaker breaker) {
+        Mono<Boolean> health = pythonServiceWebClient.get()
+                .uri(healthEndpoint)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(healthTimeout)
+                .thenReturn(true);
+        // 반열림 상태의 허용 횟수를 다 쓰면 그 결과가 나올 때까지 더 보내지 않는다
+        record(breaker, health.flux())
+                .subscribe(healthy -> {},
+                        error -> log.debug("Health probe for {} failed: {}", breaker.getName(), error.toString()));
+    }
+
+    // 허용을 받은 호출의 결과를 기록한다. 느린 호출 여부는 첫 값까지의 시간으로 본다
+    private <T> Flux<T> record(CircuitBreaker breaker, Flux<T> call) {
+        return Flux.defer(() -> {
+            if (!breaker.tryAcquirePermission()) {
+                return Flux.error(unavailable(breaker.getName()));
+            }
+            long start = System.nanoTime();
+            AtomicLong firstItemNanos = new AtomicLong();
+            AtomicBoolean recorded = new AtomicBoolean();
+            return call.doOnNext(item -> firstItemNanos.compareAndSet(0, System.nanoTime() - start))
+                    .doOnComplete(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            breaker.onSuccess(elapsed(start, firstItemNanos.get()), TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            breaker.onError(elapsed(start, firstItemNanos.get()), TimeUnit.NANOSECONDS, error);
+                        }
+                    })
+                    // 클라이언트가 떠난 호출은 성공도 실패도 아니다
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            breaker.releasePermission();
+                        }
+                    });
+        });
+    }
+
+    private static long elapsed(long start, long firstItemNanos) {
+        return firstItemNanos > 0 ? firstItemNanos : System.nanoTime() - start;
+    }
+
+    // 요청 자체가 잘못된 4xx 는 서버 상태와 무관하므로 실패로 세지 않는다
+    private static boolean isFailure(Throwable error) {
+        return !(error instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError());
+    }
+
+    private LlmUnavailableException unavailable(LlmEndpoint endpoint) {
+        return unavailable("python-" + endpoint.getConfigName());
+    }
+
+    private LlmUnavailableException unavailable(String name) {
+        return new LlmUnavailableException("Circuit " + name + " is open", waitInOpen);
+    }
+}
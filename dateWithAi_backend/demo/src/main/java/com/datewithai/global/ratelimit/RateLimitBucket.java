@@ -0,0 +1,22 @@
+package com.datewithai.global.ratelimit;
+
+// 규칙 + 대상(사용자, 캐릭터 등). Redis 키와 노드 로컬 추정값의 단위
+public class RateLimitBucket {
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    private final RateLimitRule rule;
+    private final String subject;
+
+    RateLimitBucket(RateLimitRule rule, String subject) {
+        this.rule = rule;
+        this.subject = subject;
+    }
+
+    public String key() {
+        return KEY_PREFIX + rule.getName() + ":" + subject;
+    }
+
+    public RateLimitRule getRule() { return rule; }
+    public String getSubject() { return subject; }
+}
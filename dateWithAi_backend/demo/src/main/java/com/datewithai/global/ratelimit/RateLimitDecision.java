@@ -0,0 +1,67 @@
+package com.datewithai.global.ratelimit;
+
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+
+/**
+ * 한 요청에 대한 판정. 여러 버킷을 함께 검사했을 때는 가장 빡빡한 버킷 기준으로
+ * RateLimit-Limit / RateLimit-Remaining / RateLimit-Reset 헤더 값을 채운다.
+ */
+public class RateLimitDecision {
+
+    private static final RateLimitDecision UNLIMITED = new RateLimitDecision(true, 0, 0, Duration.ZERO, Duration.ZERO);
+
+    private final boolean allowed;
+    private final int limit;
+    private final int remaining;
+    private final Duration reset;
+    private final Duration retryAfter;
+
+    public RateLimitDecision(boolean allowed, int limit, int remaining, Duration reset, Duration retryAfter) {
+        this.allowed = allowed;
+        this.limit = limit;
+        this.remaining = remaining;
+        this.reset = reset;
+        this.retryAfter = retryAfter;
+    }
+
+    // 제한이 꺼져 있거나 Redis 를 쓸 수 없을 때 (헤더를 붙이지 않는다)
+    public static RateLimitDecision unlimited() {
+        return UNLIMITED;
+    }
+
+    public boolean isLimited() {
+        return limit > 0;
+    }
+
+    // 초 단위 헤더 값 (0 초는 1 초로 올린다)
+    public long resetSeconds() {
+        return Math.max(1, (reset.toMillis() + 999) / 1000);
+    }
+
+    public long retryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+
+    // IETF RateLimit 헤더 (draft-ietf-httpapi-ratelimit-headers) + 거절 시 Retry-After
+    public HttpHeaders toHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        if (!isLimited()) {
+            return headers;
+        }
+        headers.set("RateLimit-Limit", String.valueOf(limit));
+        headers.set("RateLimit-Remaining", String.valueOf(remaining));
+        headers.set("RateLimit-Reset", String.valueOf(resetSeconds()));
+        if (!allowed) {
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds()));
+        }
+        return headers;
+    }
+
+    public boolean isAllowed() { return allowed; }
+    public int getLimit() { return limit; }
+    public int getRemaining() { return remaining; }
+    public Duration getReset() { return reset; }
+    public Duration getRetryAfter() { return retryAfter; }
+}
@@ -0,0 +1,14 @@
+package com.datewithai.global.ratelimit;
+
+// 요청 수 제한을 넘었을 때 (HTTP 429 로 변환됨)
+public class RateLimitExceededException extends RuntimeException {
+
+    private final RateLimitDecision decision;
+
+    public RateLimitExceededException(RateLimitDecision decision) {
+        super("Rate limit exceeded");
+        this.decision = decision;
+    }
+
+    public RateLimitDecision getDecision() { return decision; }
+}
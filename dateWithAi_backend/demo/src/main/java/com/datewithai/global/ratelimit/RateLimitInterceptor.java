@@ -0,0 +1,71 @@
+package com.datewithai.global.ratelimit;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.List;
+
+/**
+ * MVC 의 LLM 을 쓰는 POST 요청(채팅 전송/스트림, 스토리 등록/임베딩)에 요청 수 제한을 건다.
+ * 허용되면 RateLimit-* 헤더를 붙이고, 넘치면 {@link RateLimitExceededException} 으로 429 를 돌려준다.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final TokenBucketRateLimiter tokenBucketRateLimiter;
+    private final RateLimitPolicy rateLimitPolicy;
+
+    @Autowired
+    public RateLimitInterceptor(TokenBucketRateLimiter tokenBucketRateLimiter, RateLimitPolicy rateLimitPolicy) {
+        this.tokenBucketRateLimiter = tokenBucketRateLimiter;
+        this.rateLimitPolicy = rateLimitPolicy;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // SSE 가 끝날 때의 async 재디스패치에서 한 번 더 차감하지 않도록 최초 요청에서만 검사
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !"POST".equals(request.getMethod())) {
+            return true;
+        }
+
+        List<RateLimitBucket> buckets = bucketsFor(request);
+        if (buckets.isEmpty()) {
+            return true;
+        }
+
+        // 요청 스레드에서 기다린다 (Redis 왕복 한 번, 로컬에서 거절되면 바로 끝난다)
+        RateLimitDecision decision = tokenBucketRateLimiter.tryAcquire(buckets).block();
+        if (decision == null || !decision.isLimited()) {
+            return true;
+        }
+        if (!decision.isAllowed()) {
+            throw new RateLimitExceededException(decision);
+        }
+        decision.toHeaders().forEach((name, values) -> response.setHeader(name, values.get(0)));
+        return true;
+    }
+
+    private List<RateLimitBucket> bucketsFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String userKey = RateLimitPolicy.userKey(request.getRemoteAddr());
+        if (path.startsWith("/chat/api/")) {
+            return rateLimitPolicy.chat(userKey, parseLong(request.getParameter("characterId")));
+        }
+        if (path.startsWith("/stories")) {
+            return rateLimitPolicy.story(userKey);
+        }
+        return List.of();
+    }
+
+    private static Long parseLong(String value) {
+        try {
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.datewithai.global.ratelimit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 엔드포인트별로 어떤 버킷을 검사할지 정한다.
+ * 채팅은 사용자 버킷과 캐릭터 버킷을 함께 보고(한 사용자, 한 캐릭터가 LLM 을 독차지하지 못하게),
+ * 스토리 등록/임베딩은 사용자 버킷만 본다.
+ * 사용자 버킷은 접속 주소 기준이다. 로그인이 없어 username 파라미터는 누구나 바꿔 보낼 수 있으므로 키로 쓰지 않는다
+ * (프록시 뒤에서는 server.forward-headers-strategy 로 실제 클라이언트 주소를 받는다).
+ */
+@Component
+public class RateLimitPolicy {
+
+    private final RateLimitRule chatUser;
+    private final RateLimitRule chatCharacter;
+    private final RateLimitRule storyUser;
+
+    @Autowired
+    public RateLimitPolicy(@Value("${rate-limit.chat.user.capacity}") int chatUserCapacity,
+                           @Value("${rate-limit.chat.user.refill-per-minute}") double chatUserRefill,
+                           @Value("${rate-limit.chat.character.capacity}") int chatCharacterCapacity,
+                           @Value("${rate-limit.chat.character.refill-per-minute}") double chatCharacterRefill,
+                           @Value("${rate-limit.story.user.capacity}") int storyUserCapacity,
+                           @Value("${rate-limit.story.user.refill-per-minute}") double storyUserRefill) {
+        this.chatUser = new RateLimitRule("chat-user", chatUserCapacity, chatUserRefill);
+        this.chatCharacter = new RateLimitRule("chat-character", chatCharacterCapacity, chatCharacterRefill);
+        this.storyUser = new RateLimitRule("story-user", storyUserCapacity, storyUserRefill);
+    }
+
+    public List<RateLimitBucket> chat(String userKey, Long characterId) {
+        if (characterId == null) {
+            return List.of(chatUser.forSubject(userKey));
+        }
+        return List.of(chatUser.forSubject(userKey), chatCharacter.forSubject(String.valueOf(characterId)));
+    }
+
+    public List<RateLimitBucket> story(String userKey) {
+        return List.of(storyUser.forSubject(userKey));
+    }
+
+    public static String userKey(String clientAddress) {
+        return "ip:" + clientAddress;
+    }
+}
@@ -0,0 +1,30 @@
+package com.datewithai.global.ratelimit;
+
+// 토큰 버킷 하나의 규칙. capacity 만큼 몰아서 보낼 수 있고, 분당 refillPerMinute 개씩 다시 찬다
+public class RateLimitRule {
+
+    private final String name;
+    private final int capacity;
+    private final double refillPerMinute;
+
+    public RateLimitRule(String name, int capacity, double refillPerMinute) {
+        if (capacity < 1 || refillPerMinute <= 0) {
+            throw new IllegalArgumentException("Invalid rate limit rule: " + name);
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.refillPerMinute = refillPerMinute;
+    }
+
+    public RateLimitBucket forSubject(String subject) {
+        return new RateLimitBucket(this, subject);
+    }
+
+    public double tokensPerMilli() {
+        return refillPerMinute / 60_000.0;
+    }
+
+    public String getName() { return name; }
+    public int getCapacity() { return capacity; }
+    public double getRefillPerMinute() { return refillPerMinute; }
+}
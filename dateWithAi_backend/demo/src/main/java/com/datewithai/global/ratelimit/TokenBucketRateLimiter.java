@@ -0,0 +1,178 @@
+package com.datewithai.global.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis 토큰 버킷으로 노드 전체에 걸친 요청 수를 제한한다.
+ * 한 요청이 검사할 버킷(사용자, 캐릭터 등)을 Lua 스크립트 하나로 원자적으로 확인하고 차감한다.
+ * <p>
+ * 노드마다 버킷별 마지막 관측값을 들고 있다가, 그 값에 충전분만 더해도 토큰이 1 개 미만이면
+ * Redis 에 가지 않고 바로 거절한다. 다른 노드는 토큰을 빼기만 하므로 이 추정값은 실제보다 작지 않고,
+ * 따라서 로컬 거절은 Redis 가 내렸을 판정과 같다. 요청을 쏟아붓는 클라이언트의 요청 대부분이 여기서 끝난다.
+ */
+@Component
+public class TokenBucketRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenBucketRateLimiter.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/token-bucket.lua"), List.class);
+
+    private final ReactiveStringRedisTemplate redis;
+    private final boolean enabled;
+    private final Cache<String, LocalEstimate> estimates;
+
+    private final Counter allowed;
+    private final Counter rejected;
+    private final Counter rejectedLocally;
+    private final Counter unavailable;
+
+    @Autowired
+    public TokenBucketRateLimiter(ReactiveStringRedisTemplate redis,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${rate-limit.enabled}") boolean enabled,
+                                  @Value("${rate-limit.local-cache-size}") long localCacheSize) {
+        this.redis = redis;
+        this.enabled = enabled;
+        this.estimates = Caffeine.newBuilder()
+                .maximumSize(localCacheSize)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .build();
+
+        this.allowed = decisionCounter(meterRegistry, "allowed");
+        this.rejected = decisionCounter(meterRegistry, "rejected");
+        this.rejectedLocally = decisionCounter(meterRegistry, "rejected_local");
+        this.unavailable = decisionCounter(meterRegistry, "unavailable");
+    }
+
+    public Mono<RateLimitDecision> tryAcquire(List<RateLimitBucket> buckets) {
+        if (!enabled || buckets.isEmpty()) {
+            return Mono.just(RateLimitDecision.unlimited());
+        }
+
+        RateLimitDecision local = checkLocally(buckets);
+        if (local != null) {
+            rejectedLocally.increment();
+            return Mono.just(local);
+        }
+
+        List<String> keys = new ArrayList<>(buckets.size());
+        List<String> args = new ArrayList<>(buckets.size() * 2);
+        for (RateLimitBucket bucket : buckets) {
+            keys.add(bucket.key());
+            args.add(String.valueOf(bucket.getRule().getCapacity()));
+            args.add(String.valueOf(bucket.getRule().tokensPerMilli()));
+        }
+
+        return redis.execute(SCRIPT, keys, args)
+                .next()
+                .map(result -> decide(buckets, result))
+                .doOnNext(decision -> (decision.isAllowed() ? allowed : rejected).increment())
+                // Redis 장애 시에는 제한 없이 통과시킨다 (LLM 앞단의 동시성 제한은 그대로 동작한다)
+                .onErrorResume(error -> {
+                    log.warn("Rate limiter unavailable, allowing request: {}", error.toString());
+                    unavailable.increment();
+                    return Mono.just(RateLimitDecision.unlimited());
+                });
+    }
+
+    private RateLimitDecision checkLocally(List<RateLimitBucket> buckets) {
+        long now = System.nanoTime();
+        RateLimitDecision denied = null;
+        for (RateLimitBucket bucket : buckets) {
+            LocalEstimate estimate = estimates.getIfPresent(bucket.key());
+            if (estimate == null) {
+                continue;
+            }
+            double tokens = estimate.tokensAt(bucket.getRule(), now);
+            if (tokens < 1) {
+                RateLimitDecision decision = rejection(bucket.getRule(), tokens);
+                if (denied == null || decision.getRetryAfter().compareTo(denied.getRetryAfter()) > 0) {
+                    denied = decision;
+                }
+            }
+        }
+        return denied;
+    }
+
+    private RateLimitDecision decide(List<RateLimitBucket> buckets, List<?> result) {
+        boolean granted = "1".equals(String.valueOf(result.get(0)));
+        long now = System.nanoTime();
+
+        RateLimitDecision tightest = null;
+        for (int i = 0; i < buckets.size(); i++) {
+            RateLimitBucket bucket = buckets.get(i);
+            double tokens = Double.parseDouble(String.valueOf(result.get(i + 2)));
+            estimates.put(bucket.key(), new LocalEstimate(tokens, now));
+
+            RateLimitDecision decision = granted ? allowance(bucket.getRule(), tokens) : rejection(bucket.getRule(), tokens);
+            if (tightest == null || isTighter(decision, tightest)) {
+                tightest = decision;
+            }
+        }
+        return tightest;
+    }
+
+    // 거절이면 더 오래 기다려야 하는 쪽, 허용이면 남은 토큰이 적은 쪽을 헤더에 싣는다
+    private static boolean isTighter(RateLimitDecision candidate, RateLimitDecision current) {
+        if (!candidate.isAllowed()) {
+            return current.isAllowed() || candidate.getRetryAfter().compareTo(current.getRetryAfter()) > 0;
+        }
+        return current.isAllowed() && candidate.getRemaining() < current.getRemaining();
+    }
+
+    private static RateLimitDecision allowance(RateLimitRule rule, double tokens) {
+        return new RateLimitDecision(true, rule.getCapacity(), (int) Math.floor(tokens),
+                untilTokens(rule, rule.getCapacity() - tokens), Duration.ZERO);
+    }
+
+    private static RateLimitDecision rejection(RateLimitRule rule, double tokens) {
+        Duration retryAfter = tokens >= 1 ? Duration.ZERO : untilTokens(rule, 1 - tokens);
+        return new RateLimitDecision(false, rule.getCapacity(), 0,
+                untilTokens(rule, rule.getCapacity() - tokens), retryAfter);
+    }
+
+    private static Duration untilTokens(RateLimitRule rule, double missing) {
+        return Duration.ofMillis((long) Math.ceil(Math.max(0, missing) / rule.tokensPerMilli()));
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ratelimit.decisions")
+                .description("Rate limit decisions by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // Redis 에서 마지막으로 본 토큰 수와 그 시각
+    private static final class LocalEstimate {
+        private final double tokens;
+        private final long observedAtNanos;
+
+        private LocalEstimate(double tokens, long observedAtNanos) {
+            this.tokens = tokens;
+            this.observedAtNanos = observedAtNanos;
+        }
+
+        private double tokensAt(RateLimitRule rule, long nowNanos) {
+            double elapsedMillis = (nowNanos - observedAtNanos) / 1_000_000.0;
+            return Math.min(rule.getCapacity(), tokens + elapsedMillis * rule.tokensPerMilli());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.datewithai.global.util;
+
+// 프롬프트에 넣을 텍스트의 크기를 맞출 때 쓰는 토큰 수 추정
+public final class TokenEstimator {
+
+    private TokenEstimator() {}
+
+    // 토크나이저 없이 쓰는 보수적인 추정치: 한글/한자는 글자당 1토큰, 그 외는 4글자당 1토큰
+    public static int estimate(String text) {
+        int wide = 0;
+        int narrow = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            if (isWide(c)) {
+                wide++;
+            } else {
+                narrow++;
+            }
+        }
+        return wide + (narrow + 3) / 4;
+    }
+
+    // estimate 기준으로 maxTokens 를 넘지 않는 가장 긴 앞부분
+    public static String truncate(String text, int maxTokens) {
+        int wide = 0;
+        int narrow = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            if (isWide(c)) {
+                wide++;
+            } else {
+                narrow++;
+            }
+            if (wide + (narrow + 3) / 4 > maxTokens) {
+                // 서로게이트 쌍(이모지 등)을 반으로 가르지 않는다
+                int end = i > 0 && Character.isHighSurrogate(text.charAt(i - 1)) ? i - 1 : i;
+                return text.substring(0, end);
+            }
+        }
+        return text;
+    }
+
+    private static boolean isWide(char c) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(c);
+        return script == Character.UnicodeScript.HANGUL || script == Character.UnicodeScript.HAN;
+    }
+}
@@ -0,0 +1,403 @@
+package com.datewithai.global.vector;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 코사인 거리 기반의 HNSW 근사 최근접 이웃 인덱스.
+ * 벡터는 정규화해서 하나의 float[] 에 이어 붙여 저장하고, 거리는 pgvector 의 {@code <=>} 와 같은 1 - cos 이다.
+ * 삭제는 표시만 하고 검색 결과에서 빼며, 삭제가 많이 쌓이면 {@link #compacted()} 로 다시 만든다.
+ * 검색은 동시에 여러 스레드에서, 추가/삭제는 한 번에 하나씩 실행된다.
+ */
+public class HnswIndex {
+
+    private static final int SNAPSHOT_MAGIC = 0x484E5357; // "HNSW"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final int dimensions;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private float[] vectors;
+    private long[] ids;
+    private boolean[] deleted;
+    // links[node][level] = {이웃 수, 이웃1, 이웃2, ...}
+    private int[][][] links;
+    private final Map<Long, Integer> nodeById = new HashMap<>();
+
+    private int size;
+    private int deletedCount;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public HnswIndex(int dimensions, int m, int efConstruction) {
+        this(dimensions, m, efConstruction, 16);
+    }
+
+    private HnswIndex(int dimensions, int m, int efConstruction, int initialCapacity) {
+        this.dimensions = dimensions;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+        this.vectors = new float[initialCapacity * dimensions];
+        this.ids = new long[initialCapacity];
+        this.deleted = new boolean[initialCapacity];
+        this.links = new int[initialCapacity][][];
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 같은 id 가 이미 있으면 이전 벡터를 지우고 새로 넣는다
+    public void add(long id, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            insert(id, normalize(vector));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            return removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 삭제 표시된 노드가 많아져 탐색 효율이 떨어졌는지 여부
+    public boolean needsCompaction() {
+        lock.readLock().lock();
+        try {
+            return deletedCount > 0 && deletedCount * 4 > size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public HnswIndex compacted() {
+        lock.readLock().lock();
+        try {
+            HnswIndex fresh = new HnswIndex(dimensions, m, efConstruction, Math.max(16, size - deletedCount));
+            for (int node = 0; node < size; node++) {
+                if (!deleted[node]) {
+                    fresh.insert(ids[node], Arrays.copyOfRange(vectors, node * dimensions, (node + 1) * dimensions));
+                }
+            }
+            return fresh;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Neighbor> search(float[] query, int k, int ef) {
+        if (query.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + query.length);
+        }
+        float[] normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return List.of();
+            }
+            int ep = entryPoint;
+            for (int level = maxLevel; level > 0; level--) {
+                ep = closest(searchLayer(normalized, ep, 1, level));
+            }
+            // 삭제 표시된 노드도 결과 후보를 차지하므로 그만큼 더 넓게 찾는다
+            PriorityQueue<Neighbor> found = searchLayer(normalized, ep, Math.max(ef, k) + Math.min(deletedCount, k), 0);
+            List<Neighbor> sorted = new ArrayList<>(found);
+            sorted.sort(Comparator.comparingDouble(Neighbor::getDistance));
+
+            List<Neighbor> results = new ArrayList<>(k);
+            for (Neighbor candidate : sorted) {
+                if (!deleted[candidate.node]) {
+                    results.add(new Neighbor(candidate.node, ids[candidate.node], candidate.distance));
+                    if (results.size() == k) {
+                        break;
+                    }
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean removeInternal(long id) {
+        Integer node = nodeById.remove(id);
+        if (node == null) {
+            return false;
+        }
+        deleted[node] = true;
+        deletedCount++;
+        return true;
+    }
+
+    private void insert(long id, float[] vector) {
+        ensureCapacity(size + 1);
+        int node = size++;
+        System.arraycopy(vector, 0, vectors, node * dimensions, dimensions);
+        ids[node] = id;
+        nodeById.put(id, node);
+
+        int level = randomLevel();
+        links[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            links[node][l] = new int[(l == 0 ? maxM0 : m) + 1];
+        }
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        int ep = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            ep = closest(searchLayer(vector, ep, 1, l));
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Neighbor> candidates = new ArrayList<>(searchLayer(vector, ep, efConstruction, l));
+            candidates.sort(Comparator.comparingDouble(Neighbor::getDistance));
+            for (int i = 0; i < Math.min(m, candidates.size()); i++) {
+                int neighbor = candidates.get(i).node;
+                link(node, neighbor, l);
+                link(neighbor, node, l);
+            }
+            ep = candidates.get(0).node;
+        }
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+    }
+
+    // 이웃 목록이 가득 찼으면 가까운 순서로 다시 골라 가장 먼 것을 버린다
+    private void link(int from, int to, int level) {
+        int[] neighbors = links[from][level];
+        int count = neighbors[0];
+        int capacity = neighbors.length - 1;
+        if (count < capacity) {
+            neighbors[count + 1] = to;
+            neighbors[0] = count + 1;
+            return;
+        }
+        int fromOffset = from * dimensions;
+        Integer[] pool = new Integer[capacity + 1];
+        for (int i = 0; i < capacity; i++) {
+            pool[i] = neighbors[i + 1];
+        }
+        pool[capacity] = to;
+        Arrays.sort(pool, Comparator.comparingDouble(other -> distance(vectors, fromOffset, other)));
+        for (int i = 0; i < capacity; i++) {
+            neighbors[i + 1] = pool[i];
+        }
+    }
+
+    private PriorityQueue<Neighbor> searchLayer(float[] query, int entry, int ef, int level) {
+        BitSet visited = new BitSet(size);
+        visited.set(entry);
+        Neighbor start = new Neighbor(entry, ids[entry], distance(query, 0, entry));
+
+        PriorityQueue<Neighbor> candidates = new PriorityQueue<>(Comparator.comparingDouble(Neighbor::getDistance));
+        PriorityQueue<Neighbor> results = new PriorityQueue<>(Comparator.comparingDouble(Neighbor::getDistance).reversed());
+        candidates.add(start);
+        results.add(start);
+
+        while (!candidates.isEmpty()) {
+            Neighbor current = candidates.poll();
+            if (results.size() >= ef && current.distance > results.peek().distance) {
+                break;
+            }
+            int[] neighbors = links[current.node][level];
+            for (int i = 1; i <= neighbors[0]; i++) {
+                int next = neighbors[i];
+                if (visited.get(next)) {
+                    continue;
+                }
+                visited.set(next);
+                float distance = distance(query, 0, next);
+                if (results.size() < ef || distance < results.peek().distance) {
+                    Neighbor neighbor = new Neighbor(next, ids[next], distance);
+                    candidates.add(neighbor);
+                    results.add(neighbor);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private static int closest(PriorityQueue<Neighbor> found) {
+        Neighbor best = null;
+        for (Neighbor neighbor : found) {
+            if (best == null || neighbor.distance < best.distance) {
+                best = neighbor;
+            }
+        }
+        return best.node;
+    }
+
+    // 정규화된 벡터끼리의 코사인 거리
+    private float distance(float[] query, int queryOffset, int node) {
+        int offset = node * dimensions;
+        float dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += query[queryOffset + i] * vectors[offset + i];
+        }
+        return 1 - dot;
+    }
+
+    private int randomLevel() {
+        return (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length * 2);
+        vectors = Arrays.copyOf(vectors, capacity * dimensions);
+        ids = Arrays.copyOf(ids, capacity);
+        deleted = Arrays.copyOf(deleted, capacity);
+        links = Arrays.copyOf(links, capacity);
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        float[] normalized = vector.clone();
+        if (norm == 0) {
+            return normalized;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < normalized.length; i++) {
+            normalized[i] *= scale;
+        }
+        return normalized;
+    }
+
+    // ---- 스냅샷 (메모리 매핑 파일에 그대로 쓰고 읽는 고정 레이아웃) ----
+
+    public int snapshotSize() {
+        lock.readLock().lock();
+        try {
+            long bytes = 4L * 8 + (long) size * (8 + 1 + 4 + 4L * dimensions);
+            for (int node = 0; node < size; node++) {
+                for (int[] neighbors : links[node]) {
+                    bytes += 4L * (neighbors[0] + 1);
+                }
+            }
+            return Math.toIntExact(bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void writeTo(ByteBuffer buffer) {
+        lock.readLock().lock();
+        try {
+            buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION)
+                    .putInt(dimensions).putInt(m).putInt(efConstruction)
+                    .putInt(size).putInt(entryPoint).putInt(maxLevel);
+            for (int node = 0; node < size; node++) {
+                buffer.putLong(ids[node]).put((byte) (deleted[node] ? 1 : 0)).putInt(links[node].length);
+                for (int[] neighbors : links[node]) {
+                    for (int i = 0; i <= neighbors[0]; i++) {
+                        buffer.putInt(neighbors[i]);
+                    }
+                }
+                buffer.asFloatBuffer().put(vectors, node * dimensions, dimensions);
+                buffer.position(buffer.position() + 4 * dimensions);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static HnswIndex readFrom(ByteBuffer buffer) {
+        if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_VERSION) {
+            throw new IllegalArgumentException("Not an HNSW snapshot");
+        }
+        int dimensions = buffer.getInt();
+        int m = buffer.getInt();
+        int efConstruction = buffer.getInt();
+        int size = buffer.getInt();
+        HnswIndex index = new HnswIndex(dimensions, m, efConstruction, Math.max(16, size));
+        index.entryPoint = buffer.getInt();
+        index.maxLevel = buffer.getInt();
+        index.size = size;
+        for (int node = 0; node < size; node++) {
+            index.ids[node] = buffer.getLong();
+            index.deleted[node] = buffer.get() == 1;
+            int levels = buffer.getInt();
+            index.links[node] = new int[levels][];
+            for (int l = 0; l < levels; l++) {
+                int[] neighbors = new int[(l == 0 ? index.maxM0 : m) + 1];
+                neighbors[0] = buffer.getInt();
+                for (int i = 1; i <= neighbors[0]; i++) {
+                    neighbors[i] = buffer.getInt();
+                }
+                index.links[node][l] = neighbors;
+            }
+            buffer.asFloatBuffer().get(index.vectors, node * dimensions, dimensions);
+            buffer.position(buffer.position() + 4 * dimensions);
+            if (index.deleted[node]) {
+                index.deletedCount++;
+            } else {
+                index.nodeById.put(index.ids[node], node);
+            }
+        }
+        return index;
+    }
+
+    public static class Neighbor {
+        private final int node;
+        private final long id;
+        private final float distance;
+
+        private Neighbor(int node, long id, float distance) {
+            this.node = node;
+            this.id = id;
+            this.distance = distance;
+        }
+
+        public long getId() { return id; }
+        public float getDistance() { return distance; }
+    }
+}
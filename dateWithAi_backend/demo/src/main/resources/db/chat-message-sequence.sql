@@ -0,0 +1,14 @@
+-- ChatMessage 는 allocationSize=50 인 pooled 시퀀스를 사용한다.
+-- ddl-auto: update 는 기존 시퀀스의 증가폭을 바꾸지 않으므로, Hibernate 가 뜨기 전에 매번 확인해서 맞춘다.
+-- 지금까지 증가폭 1로 나간 값은 모두 현재 값 이하이므로 증가폭만 바꿔도 이후 블록과 겹치지 않는다.
+-- (시퀀스가 아직 없는 새 DB 에서는 Hibernate 가 INCREMENT BY 50 으로 만든다)
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_sequences
+               WHERE schemaname = current_schema()
+                 AND sequencename = 'chat_messages_id_seq'
+                 AND increment_by <> 50) THEN
+        ALTER SEQUENCE chat_messages_id_seq INCREMENT BY 50;
+    END IF;
+END
+$$;
@@ -0,0 +1,16 @@
+-- 스토리 임베딩 컬럼은 nomic-embed-text 의 출력 차원(768, ai.embedding.dimensions)과 같아야 한다.
+-- 예전 스키마는 vector(1536) 이었고 ddl-auto: update 는 컬럼 타입을 바꾸지 않으므로, 기동할 때 맞춘다.
+-- 이미 채워진 임베딩이 있으면 차원을 바꿀 수 없으므로 건드리지 않는다 (그 경우 백필은 해당 행을 실패로 센다).
+-- (stories 테이블이 아직 없는 새 DB 에서는 안쪽 IF 까지 가지 않는다)
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_attribute
+               WHERE attrelid = to_regclass('stories')
+                 AND attname = 'embedding_vector'
+                 AND atttypmod <> 768) THEN
+        IF NOT EXISTS (SELECT 1 FROM stories WHERE embedding_vector IS NOT NULL) THEN
+            ALTER TABLE stories ALTER COLUMN embedding_vector TYPE vector(768);
+        END IF;
+    END IF;
+END
+$$;
@@ -0,0 +1,14 @@
+-- 스토리 검색은 코사인 거리(<=>)로 정렬하므로 같은 연산자 클래스의 HNSW 인덱스가 있어야 순차 탐색을 피한다.
+-- database/init-db.sql 로 만든 새 DB 에만 있던 인덱스를 기존 DB 에도 기동할 때 만든다.
+-- 차원 보정(db/story-embedding-dimension.sql) 뒤에 실행되어야 한다 (HNSW 는 차원이 정해진 컬럼에만 만들 수 있다).
+-- (stories 테이블이 아직 없는 새 DB 에서는 건너뛰고, Hibernate 가 테이블을 만든 뒤 다음 기동 때 만든다)
+DO $$
+BEGIN
+    IF to_regclass('stories') IS NOT NULL THEN
+        -- 예전 ivfflat 인덱스가 남아 있으면 플래너가 그쪽을 고를 수 있으므로 HNSW 로 바꾼다
+        DROP INDEX IF EXISTS idx_stories_embedding_vector;
+        CREATE INDEX IF NOT EXISTS idx_stories_embedding_hnsw ON stories
+            USING hnsw (embedding_vector vector_cosine_ops) WITH (m = 16, ef_construction = 64);
+    END IF;
+END
+$$;
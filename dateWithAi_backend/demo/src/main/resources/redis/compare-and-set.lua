@@ -0,0 +1,9 @@
+-- 값이 ARGV[1] 과 같을 때만(키가 없으면 빈 문자열) ARGV[2] 로 바꾸고 ARGV[3] ms 뒤에 만료시킨다.
+-- 읽고 나서 쓰기 전에 다른 요청이 먼저 바꿨으면 아무것도 하지 않는다.
+-- 반환: 바꿨으면 1, 아니면 0
+local current = redis.call('GET', KEYS[1])
+if (current or '') ~= ARGV[1] then
+    return 0
+end
+redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+return 1
@@ -0,0 +1,36 @@
+-- 여러 토큰 버킷을 한 번에 검사한다. 모든 버킷에 토큰이 1 개 이상 있을 때만 각각 1 개씩 뺀다.
+-- KEYS[i]: 버킷 키, ARGV[2i-1]: capacity, ARGV[2i]: 밀리초당 충전량
+-- 반환: { 허용(1/0), 재시도까지 ms, 버킷별 남은 토큰... }
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local allowed = 1
+local retry = 0
+local tokens = {}
+for i, key in ipairs(KEYS) do
+    local capacity = tonumber(ARGV[i * 2 - 1])
+    local rate = tonumber(ARGV[i * 2])
+    local state = redis.call('HMGET', key, 'tokens', 'ts')
+    local current = tonumber(state[1]) or capacity
+    local ts = tonumber(state[2]) or now
+    current = math.min(capacity, current + math.max(0, now - ts) * rate)
+    tokens[i] = current
+    if current < 1 then
+        allowed = 0
+        retry = math.max(retry, math.ceil((1 - current) / rate))
+    end
+end
+
+local result = { tostring(allowed), tostring(retry) }
+for i, key in ipairs(KEYS) do
+    local capacity = tonumber(ARGV[i * 2 - 1])
+    local rate = tonumber(ARGV[i * 2])
+    if allowed == 1 then
+        tokens[i] = tokens[i] - 1
+    end
+    redis.call('HSET', key, 'tokens', tostring(tokens[i]), 'ts', tostring(now))
+    -- 가득 찰 때까지만 보관 (그 뒤에는 키가 없어도 capacity 로 시작하므로 같다)
+    redis.call('PEXPIRE', key, math.ceil((capacity - tokens[i]) / rate) + 1000)
+    result[#result + 1] = tostring(tokens[i])
+end
+return result
@@ -0,0 +1,176 @@
+package com.datewithai.domain.story;
+
+import com.pgvector.PGvector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * HNSW ef_search 값에 따른 recall@k 와 검색 지연을 측정한다.
+ * pgvector 가 설치된 PostgreSQL 이 필요하므로 -Dvector.benchmark.url 이 있을 때만 실행된다.
+ * (임시 테이블만 사용하므로 기존 데이터는 건드리지 않는다)
+ */
+@EnabledIfSystemProperty(named = "vector.benchmark.url", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class VectorSearchRecallBenchmarkTest {
+
+    private static final int K = 10;
+    private static final int[] EF_SEARCH_VALUES = {10, 20, 40, 80, 160};
+    private static final String NEAREST_SQL =
+            "SELECT id FROM vector_benchmark ORDER BY embedding <=> ? LIMIT " + K;
+
+    private final int dimensions = Integer.getInteger("vector.benchmark.dimensions", 256);
+    private final int rows = Integer.getInteger("vector.benchmark.rows", 10000);
+    private final int queries = Integer.getInteger("vector.benchmark.queries", 100);
+
+    private Connection connection;
+    private float[][] corpus;
+    private float[][] queryVectors;
+
+    @BeforeAll
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("vector.benchmark.url"),
+                System.getProperty("vector.benchmark.user", "postgres"),
+                System.getProperty("vector.benchmark.password", "password"));
+
+        Random random = new Random(42);
+        corpus = new float[rows][];
+        for (int i = 0; i < rows; i++) {
+            corpus[i] = randomUnitVector(random);
+        }
+        queryVectors = new float[queries][];
+        for (int i = 0; i < queries; i++) {
+            queryVectors[i] = randomUnitVector(random);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS vector");
+            statement.execute("CREATE TEMP TABLE vector_benchmark (id INT PRIMARY KEY, embedding vector(" + dimensions + "))");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO vector_benchmark (id, embedding) VALUES (?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                insert.setInt(1, i);
+                insert.setObject(2, new PGvector(corpus[i]));
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            // 운영 인덱스(init-db.sql)와 같은 설정
+            statement.execute("CREATE INDEX ON vector_benchmark USING hnsw (embedding vector_cosine_ops) WITH (m = 16, ef_construction = 64)");
+            statement.execute("ANALYZE vector_benchmark");
+        }
+    }
+
+    @AfterAll
+    void tearDown() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void queryUsesHnswIndex() throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + NEAREST_SQL)) {
+            explain.setObject(1, new PGvector(queryVectors[0]));
+            try (ResultSet rs = explain.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+        }
+        assertTrue(plan.toString().contains("Index Scan"), "expected an index scan:\n" + plan);
+    }
+
+    @Test
+    void recallAgainstLatency() throws SQLException {
+        List<Set<Integer>> truth = new ArrayList<>();
+        for (float[] query : queryVectors) {
+            truth.add(exactNearest(query));
+        }
+
+        System.out.printf("%nHNSW recall@%d (rows=%d, dim=%d, queries=%d)%n", K, rows, dimensions, queries);
+        System.out.printf("%10s %10s %12s %12s%n", "ef_search", "recall", "p50 (ms)", "p95 (ms)");
+
+        double bestRecall = 0;
+        for (int efSearch : EF_SEARCH_VALUES) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET hnsw.ef_search = " + efSearch);
+            }
+            long[] latencies = new long[queries];
+            int hits = 0;
+            try (PreparedStatement nearest = connection.prepareStatement(NEAREST_SQL)) {
+                for (int q = 0; q < queries; q++) {
+                    nearest.setObject(1, new PGvector(queryVectors[q]));
+                    long start = System.nanoTime();
+                    try (ResultSet rs = nearest.executeQuery()) {
+                        while (rs.next()) {
+                            if (truth.get(q).contains(rs.getInt(1))) {
+                                hits++;
+                            }
+                        }
+                    }
+                    latencies[q] = System.nanoTime() - start;
+                }
+            }
+            Arrays.sort(latencies);
+            double recall = hits / (double) (queries * K);
+            bestRecall = Math.max(bestRecall, recall);
+            System.out.printf("%10d %10.3f %12.2f %12.2f%n", efSearch, recall,
+                    latencies[queries / 2] / 1e6, latencies[(int) (queries * 0.95)] / 1e6);
+        }
+        assertTrue(bestRecall >= 0.9, "recall@" + K + " never reached 0.9: " + bestRecall);
+    }
+
+    // 코사인 거리 기준의 정확한 top-k (모든 벡터가 단위 벡터이므로 내적이 클수록 가깝다)
+    private Set<Integer> exactNearest(float[] query) {
+        Integer[] ids = new Integer[rows];
+        double[] scores = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            ids[i] = i;
+            double dot = 0;
+            for (int d = 0; d < dimensions; d++) {
+                dot += corpus[i][d] * query[d];
+            }
+            scores[i] = dot;
+        }
+        Arrays.sort(ids, (a, b) -> Double.compare(scores[b], scores[a]));
+        return new HashSet<>(Arrays.asList(ids).subList(0, K));
+    }
+
+    private float[] randomUnitVector(Random random) {
+        float[] vector = new float[dimensions];
+        double norm = 0;
+        for (int d = 0; d < dimensions; d++) {
+            vector[d] = (float) random.nextGaussian();
+            norm += vector[d] * vector[d];
+        }
+        norm = Math.sqrt(norm);
+        for (int d = 0; d < dimensions; d++) {
+            vector[d] /= (float) norm;
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,186 @@
+package com.datewithai.domain.story.service;
+
+import com.datewithai.domain.character.entity.Character;
+import com.datewithai.domain.character.repository.CharacterRepository;
+import com.datewithai.domain.story.dto.RetrievedStory;
+import com.datewithai.domain.story.entity.Story;
+import com.datewithai.domain.story.repository.StoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * LocalStoryIndexService 의 스냅샷이 DB 지문(임베딩된 스토리 수, 마지막 수정 시각)과 같을 때만 쓰이고,
+ * 다르거나 깨져 있으면 버려지고 DB 로부터 다시 만들어지는지 확인한다.
+ * DB 는 목(mock)으로 대신하고 스냅샷은 임시 디렉터리에 쓴다.
+ */
+class LocalStoryIndexServiceTest {
+
+    private static final long CHARACTER_ID = 1L;
+    private static final int DIMENSIONS = 16;
+
+    @TempDir
+    Path snapshotDir;
+
+    private final StoryRepository storyRepository = mock(StoryRepository.class);
+    private final CharacterRepository characterRepository = mock(CharacterRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private List<Story> stories;
+    private long fingerprintStories;
+    private long fingerprintUpdated;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Character character = new Character();
+        stories = new ArrayList<>();
+        Random random = new Random(3);
+        for (long id = 1; id <= 20; id++) {
+            Story story = new Story(character, "title-" + id, "content-" + id);
+            story.setId(id);
+            story.setEmbeddingVector(randomVector(random));
+            stories.add(story);
+        }
+        when(characterRepository.getReferenceById(CHARACTER_ID)).thenReturn(character);
+        when(storyRepository.findByCharacterWithEmbedding(any())).thenAnswer(invocation -> stories);
+
+        fingerprintStories = stories.size();
+        fingerprintUpdated = 1_700_000_000_000L;
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong("character_id")).thenReturn(CHARACTER_ID);
+        when(row.getLong("stories")).thenAnswer(invocation -> fingerprintStories);
+        when(row.getTimestamp("updated")).thenAnswer(invocation -> new Timestamp(fingerprintUpdated));
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void snapshotWithMatchingFingerprintIsRestoredWithoutDatabaseScan() {
+        LocalStoryIndexService first = newService();
+        first.warmUp();
+        first.writeDirtySnapshots();
+        assertTrue(Files.exists(snapshotDir.resolve("character-" + CHARACTER_ID + ".hnsw")));
+        List<RetrievedStory> expected = search(first);
+
+        LocalStoryIndexService restarted = newService();
+        restarted.warmUp();
+
+        verify(storyRepository, times(1)).findByCharacterWithEmbedding(any());
+        List<RetrievedStory> restored = search(restarted);
+        assertEquals(ids(expected), ids(restored));
+        assertEquals(expected.get(0).getTitle(), restored.get(0).getTitle());
+        assertEquals(expected.get(0).getContent(), restored.get(0).getContent());
+    }
+
+    @Test
+    void snapshotIsRejectedWhenStoryCountChanged() {
+        writeSnapshot();
+
+        fingerprintStories++;
+        newService().warmUp();
+
+        verify(storyRepository, times(2)).findByCharacterWithEmbedding(any());
+    }
+
+    @Test
+    void snapshotIsRejectedWhenStoriesWereUpdated() {
+        writeSnapshot();
+
+        fingerprintUpdated += 1;
+        LocalStoryIndexService restarted = newService();
+        restarted.warmUp();
+
+        verify(storyRepository, times(2)).findByCharacterWithEmbedding(any());
+        assertEquals(5, search(restarted).size());
+    }
+
+    @Test
+    void corruptedSnapshotIsIgnored() throws Exception {
+        writeSnapshot();
+        Path snapshot = snapshotDir.resolve("character-" + CHARACTER_ID + ".hnsw");
+        byte[] bytes = Files.readAllBytes(snapshot);
+        // 지문은 그대로 두고 인덱스 헤더(magic)만 망가뜨린다
+        bytes[20] ^= 0x7F;
+        Files.write(snapshot, bytes);
+
+        LocalStoryIndexService restarted = newService();
+        restarted.warmUp();
+
+        verify(storyRepository, times(2)).findByCharacterWithEmbedding(any());
+        assertEquals(5, search(restarted).size());
+    }
+
+    @Test
+    void rebuiltIndexIsSnapshottedOnceUntilItChanges() throws Exception {
+        LocalStoryIndexService service = newService();
+        service.warmUp();
+        Path snapshot = snapshotDir.resolve("character-" + CHARACTER_ID + ".hnsw");
+
+        // DB 로부터 만든 인덱스는 다음 주기에 스냅샷을 남기고, 그 뒤로 바뀌지 않았으면 다시 쓰지 않는다
+        service.writeDirtySnapshots();
+        assertTrue(Files.exists(snapshot));
+        Files.delete(snapshot);
+        service.writeDirtySnapshots();
+        assertTrue(Files.notExists(snapshot));
+    }
+
+    private void writeSnapshot() {
+        LocalStoryIndexService service = newService();
+        service.warmUp();
+        service.writeDirtySnapshots();
+    }
+
+    private LocalStoryIndexService newService() {
+        LocalStoryIndexService service = new LocalStoryIndexService(storyRepository, characterRepository,
+                jdbcTemplate, mock(TaskScheduler.class));
+        ReflectionTestUtils.setField(service, "m", 8);
+        ReflectionTestUtils.setField(service, "efConstruction", 50);
+        ReflectionTestUtils.setField(service, "efSearch", 32);
+        ReflectionTestUtils.setField(service, "snapshotDir", snapshotDir);
+        return service;
+    }
+
+    private List<RetrievedStory> search(LocalStoryIndexService service) {
+        Optional<List<RetrievedStory>> results = service.search(CHARACTER_ID, stories.get(7).getEmbeddingVector(), 5);
+        assertTrue(results.isPresent());
+        assertEquals(stories.get(7).getId(), results.get().get(0).getId());
+        return results.get();
+    }
+
+    private static List<Long> ids(List<RetrievedStory> results) {
+        return results.stream().map(RetrievedStory::getId).toList();
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            vector[d] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
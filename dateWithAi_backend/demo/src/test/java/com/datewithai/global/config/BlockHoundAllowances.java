@@ -0,0 +1,17 @@
+package com.datewithai.global.config;
+
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.integration.BlockHoundIntegration;
+
+/**
+ * 이벤트 루프에서 호출해도 되는 짧은 임계 구역을 BlockHound 에 알려 준다.
+ * (META-INF/services 로 등록되어 blockhound-junit-platform 이 설치할 때 함께 적용된다)
+ */
+public class BlockHoundAllowances implements BlockHoundIntegration {
+
+    @Override
+    public void applyTo(BlockHound.Builder builder) {
+        // 인메모리 HNSW 검색은 읽기 락만 잡고, 쓰기(스토리 추가/삭제)는 짧아서 대기가 사실상 없다
+        builder.allowBlockingCallsInside("com.datewithai.global.vector.HnswIndex", "search");
+    }
+}
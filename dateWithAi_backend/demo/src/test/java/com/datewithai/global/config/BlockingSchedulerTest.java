@@ -0,0 +1,47 @@
+package com.datewithai.global.config;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+/**
+ * 테스트 실행 시 BlockHound(blockhound-junit-platform)가 설치되어
+ * 논블로킹 스레드에서의 블로킹 호출이 실패로 드러나는지, 그리고 blockingScheduler 에서는 허용되는지 확인한다.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BlockingSchedulerTest {
+
+    private final Scheduler blockingScheduler = new SchedulerConfig().blockingScheduler();
+
+    @AfterAll
+    void tearDown() {
+        blockingScheduler.dispose();
+    }
+
+    @Test
+    void blockingOnParallelSchedulerIsDetected() {
+        StepVerifier.create(Mono.fromCallable(this::sleepBriefly).subscribeOn(Schedulers.parallel()))
+                .expectError(BlockingOperationError.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void blockingOnBlockingSchedulerRunsOnVirtualThread() {
+        StepVerifier.create(Mono.fromCallable(this::sleepBriefly).subscribeOn(blockingScheduler))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    // 블로킹 후 현재 스레드가 가상 스레드인지 반환
+    private boolean sleepBriefly() throws InterruptedException {
+        Thread.sleep(10);
+        return Thread.currentThread().isVirtual();
+    }
+}
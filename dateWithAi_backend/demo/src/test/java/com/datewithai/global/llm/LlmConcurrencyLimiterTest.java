@@ -0,0 +1,261 @@
+package com.datewithai.global.llm;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * LlmConcurrencyLimiter 의 AIMD 한도 조절, 대기열 상한, 레인 가중치, 선점, 취소 후 반납을 확인한다.
+ * 호출은 모두 동기적으로 끝나거나 Sinks 로 붙잡아 두므로 타이밍에 의존하지 않는다.
+ * (대기 시간 초과 타이머는 1분으로 두어 테스트 중에는 발동하지 않는다)
+ */
+class LlmConcurrencyLimiterTest {
+
+    private static final Duration MAX_QUEUE_WAIT = Duration.ofMinutes(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Disposable> subscriptions = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        subscriptions.forEach(Disposable::dispose);
+    }
+
+    @Test
+    void successfulCallsRaiseLimitAdditively() {
+        LlmConcurrencyLimiter limiter = limiter(2, 10, 10, 10);
+
+        limiter.execute("client", () -> Mono.just("ok")).block();
+        assertEquals(2.5, limiter.getLimit(), 1e-9);
+
+        limiter.execute("client", () -> Mono.just("ok")).block();
+        assertEquals(2.5 + 1 / 2.5, limiter.getLimit(), 1e-9);
+    }
+
+    @Test
+    void failedCallsBackOffMultiplicativelyDownToMinimum() {
+        LlmConcurrencyLimiter limiter = limiter(4, 10, 10, 10);
+
+        failOnce(limiter);
+        assertEquals(2.0, limiter.getLimit(), 1e-9);
+        failOnce(limiter);
+        failOnce(limiter);
+        assertEquals(1.0, limiter.getLimit(), 1e-9);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void limitNeverExceedsMaximum() {
+        LlmConcurrencyLimiter limiter = limiter(3, 3, 10, 10);
+
+        limiter.execute("client", () -> Mono.just("ok")).block();
+        assertEquals(3.0, limiter.getLimit(), 1e-9);
+    }
+
+    @Test
+    void rejectsWhenClientQueueIsFull() {
+        LlmConcurrencyLimiter limiter = limiter(1, 1, 10, 2);
+        hold(limiter, LlmPriority.INTERACTIVE, "other");
+
+        AtomicReference<Throwable> first = queue(limiter, LlmPriority.INTERACTIVE, "client");
+        AtomicReference<Throwable> second = queue(limiter, LlmPriority.INTERACTIVE, "client");
+        AtomicReference<Throwable> third = queue(limiter, LlmPriority.INTERACTIVE, "client");
+
+        assertNull(first.get());
+        assertNull(second.get());
+        assertCapacityError(third.get(), "Too many pending requests for client");
+        assertEquals(2, limiter.getQueued());
+        assertEquals(1.0, rejected("client_queue_full"));
+        // 다른 클라이언트는 같은 레인에서도 계속 줄을 설 수 있다
+        assertNull(queue(limiter, LlmPriority.INTERACTIVE, "another").get());
+    }
+
+    @Test
+    void rejectsWhenGlobalQueueIsFull() {
+        LlmConcurrencyLimiter limiter = limiter(1, 1, 2, 10);
+        hold(limiter, LlmPriority.INTERACTIVE, "holder");
+
+        queue(limiter, LlmPriority.INTERACTIVE, "a");
+        queue(limiter, LlmPriority.INTERACTIVE, "b");
+        AtomicReference<Throwable> overflow = queue(limiter, LlmPriority.INTERACTIVE, "c");
+
+        assertCapacityError(overflow.get(), "LLM queue is full");
+        assertEquals(2, limiter.getQueued());
+        assertEquals(1.0, rejected("queue_full"));
+    }
+
+    @Test
+    void checkCapacityMatchesQueueCaps() {
+        LlmConcurrencyLimiter limiter = limiter(1, 1, 2, 1);
+        hold(limiter, LlmPriority.INTERACTIVE, "holder");
+        queue(limiter, LlmPriority.INTERACTIVE, "client");
+
+        LlmCapacityExceededException perClient = assertThrows(
+                LlmCapacityExceededException.class, () -> limiter.checkCapacity("client"));
+        assertEquals("Too many pending requests for client", perClient.getMessage());
+
+        queue(limiter, LlmPriority.INTERACTIVE, "another");
+        LlmCapacityExceededException global = assertThrows(
+                LlmCapacityExceededException.class, () -> limiter.checkCapacity("third"));
+        assertEquals("LLM queue is full", global.getMessage());
+    }
+
+    @Test
+    void lanesAreDrainedInProportionToTheirWeights() {
+        LlmConcurrencyLimiter limiter = limiter(1, 1, 32, 16);
+        Sinks.One<String> gate = hold(limiter, LlmPriority.INTERACTIVE, "holder");
+
+        List<LlmPriority> order = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 8; i++) {
+            record(limiter, LlmPriority.INTERACTIVE, order);
+            record(limiter, LlmPriority.BACKFILL, order);
+        }
+        assertTrue(order.isEmpty());
+
+        // 한도가 1로 고정되어 있으므로 gate 를 풀면 대기 요청이 하나씩 차례로 실행된다
+        gate.tryEmitValue("done");
+
+        assertEquals(16, order.size());
+        // 가중치 3:1 -> 두 레인이 모두 차 있는 동안 4번 중 3번은 채팅 레인
+        List<LlmPriority> firstEight = order.subList(0, 8);
+        assertEquals(6, Collections.frequency(firstEight, LlmPriority.INTERACTIVE));
+        assertEquals(2, Collections.frequency(firstEight, LlmPriority.BACKFILL));
+        assertEquals(0, limiter.getQueued());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void higherPriorityRequestPreemptsNewestLowerLaneWaiter() {
+        LlmConcurrencyLimiter limiter = limiter(1, 1, 2, 10);
+        hold(limiter, LlmPriority.INTERACTIVE, "holder");
+
+        AtomicReference<Throwable> older = queue(limiter, LlmPriority.BACKFILL, "backfill");
+        AtomicReference<Throwable> newer = queue(limiter, LlmPriority.BACKFILL, "backfill");
+        AtomicReference<Throwable> interactive = queue(limiter, LlmPriority.INTERACTIVE, "user");
+
+        assertNull(older.get());
+        assertCapacityError(newer.get(), "Preempted by higher priority work");
+        assertNotNull(((LlmCapacityExceededException) newer.get()).getRetryAfter());
+        assertNull(interactive.get());
+        assertEquals(2, limiter.getQueued());
+        assertEquals(1.0, rejected("preempted"));
+    }
+
+    @Test
+    void sameLaneRequestDoesNotPreempt() {
+        LlmConcurrencyLimiter limiter = limiter(1, 1, 1, 10);
+        hold(limiter, LlmPriority.INTERACTIVE, "holder");
+
+        AtomicReference<Throwable> waiting = queue(limiter, LlmPriority.BACKFILL, "a");
+        AtomicReference<Throwable> incoming = queue(limiter, LlmPriority.BACKFILL, "b");
+
+        assertNull(waiting.get());
+        assertCapacityError(incoming.get(), "LLM queue is full");
+        assertEquals(0.0, rejected("preempted"));
+    }
+
+    @Test
+    void cancellingQueuedWaiterFreesItsQueueSlot() {
+        LlmConcurrencyLimiter limiter = limiter(1, 1, 10, 10);
+        Sinks.One<String> gate = hold(limiter, LlmPriority.INTERACTIVE, "holder");
+
+        AtomicBoolean called = new AtomicBoolean();
+        Disposable waiting = limiter.execute("client", () -> {
+            called.set(true);
+            return Mono.just("ok");
+        }).subscribe();
+        assertEquals(1, limiter.getQueued());
+
+        waiting.dispose();
+        assertEquals(0, limiter.getQueued());
+
+        gate.tryEmitValue("done");
+        assertFalse(called.get());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void cancellingRunningCallReleasesPermitWithoutAdjustingLimit() {
+        LlmConcurrencyLimiter limiter = limiter(1, 10, 10, 10);
+        Sinks.One<String> gate = Sinks.one();
+        Disposable running = limiter.execute("holder", gate::asMono).subscribe();
+
+        AtomicBoolean called = new AtomicBoolean();
+        subscriptions.add(limiter.execute("client", () -> {
+            called.set(true);
+            return Mono.<String>never();
+        }).subscribe());
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(1, limiter.getQueued());
+
+        running.dispose();
+
+        // 반납된 슬롯은 바로 다음 대기 요청에게 넘어간다
+        assertTrue(called.get());
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(0, limiter.getQueued());
+        assertEquals(1.0, limiter.getLimit(), 1e-9);
+    }
+
+    private LlmConcurrencyLimiter limiter(double initialLimit, double maxLimit, int maxQueueSize, int maxQueuePerClient) {
+        return new LlmConcurrencyLimiter(meterRegistry, initialLimit, 1, maxLimit, 0.5, Duration.ofSeconds(10),
+                maxQueueSize, maxQueuePerClient, MAX_QUEUE_WAIT,
+                3, 16,
+                2, 16,
+                1, 16);
+    }
+
+    // 실행 슬롯 하나를 붙잡아 두고, 반환된 sink 로 풀어준다
+    private Sinks.One<String> hold(LlmConcurrencyLimiter limiter, LlmPriority priority, String clientKey) {
+        Sinks.One<String> gate = Sinks.one();
+        subscriptions.add(limiter.execute(priority, clientKey, gate::asMono).subscribe());
+        assertEquals(1, limiter.getInFlight());
+        return gate;
+    }
+
+    private AtomicReference<Throwable> queue(LlmConcurrencyLimiter limiter, LlmPriority priority, String clientKey) {
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        subscriptions.add(limiter.execute(priority, clientKey, Mono::<String>never).subscribe(value -> { }, error::set));
+        return error;
+    }
+
+    private void record(LlmConcurrencyLimiter limiter, LlmPriority priority, List<LlmPriority> order) {
+        subscriptions.add(limiter.execute(priority, priority.getLaneName(), () -> {
+            order.add(priority);
+            return Mono.just("ok");
+        }).subscribe());
+    }
+
+    private void failOnce(LlmConcurrencyLimiter limiter) {
+        limiter.execute("client", () -> Mono.<String>error(new IllegalStateException("boom")))
+                .onErrorResume(IllegalStateException.class, e -> Mono.empty())
+                .block();
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("llm.limiter.rejected").tag("reason", reason).counter().count();
+    }
+
+    private static void assertCapacityError(Throwable error, String message) {
+        LlmCapacityExceededException exception = assertInstanceOf(LlmCapacityExceededException.class, error);
+        assertEquals(message, exception.getMessage());
+    }
+}
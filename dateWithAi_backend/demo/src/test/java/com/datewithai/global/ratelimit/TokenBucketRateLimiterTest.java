@@ -0,0 +1,170 @@
+package com.datewithai.global.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * TokenBucketRateLimiter 가 스크립트 결과로 판정을 만드는 방식, 노드 로컬 사전 거절(충전량 계산 포함),
+ * Redis 장애 시 통과(fail-open)를 확인한다. Redis 는 목으로 대신한다 (스크립트 자체는 TokenBucketScriptTest).
+ */
+class TokenBucketRateLimiterTest {
+
+    // 분당 12개 = 밀리초당 0.0002개, 분당 60개 = 밀리초당 0.001개
+    private static final RateLimitRule USER = new RateLimitRule("chat-user", 10, 12);
+    private static final RateLimitRule CHARACTER = new RateLimitRule("chat-character", 60, 60);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReactiveStringRedisTemplate redis = mock(ReactiveStringRedisTemplate.class);
+
+    @Test
+    void disabledLimiterNeverCallsRedis() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(redis, meterRegistry, false, 100);
+
+        RateLimitDecision decision = limiter.tryAcquire(buckets("1.2.3.4")).block();
+
+        assertTrue(decision.isAllowed());
+        assertFalse(decision.isLimited());
+        verifyNoInteractions(redis);
+    }
+
+    @Test
+    void sendsEveryBucketToOneScriptCallAndReportsTightestBucket() {
+        TokenBucketRateLimiter limiter = limiter();
+        scriptReturns("1", "0", "4.0", "59.0");
+
+        RateLimitDecision decision = limiter.tryAcquire(buckets("1.2.3.4")).block();
+
+        assertTrue(decision.isAllowed());
+        assertEquals(10, decision.getLimit());
+        assertEquals(4, decision.getRemaining());
+        // 사용자 버킷이 가득 차려면 6개 / 0.0002 = 30초 (부동소수 올림으로 1ms 오차 허용)
+        assertEquals(30_000, decision.getReset().toMillis(), 1);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.forClass(List.class);
+        verify(redis).execute(anyScript(), keys.capture(), args.capture());
+        assertEquals(List.of("ratelimit:chat-user:ip:1.2.3.4", "ratelimit:chat-character:7"), keys.getValue());
+        assertEquals(List.of("10", String.valueOf(USER.tokensPerMilli()), "60", String.valueOf(CHARACTER.tokensPerMilli())),
+                args.getValue());
+    }
+
+    @Test
+    void rejectionCarriesTimeUntilNextToken() {
+        TokenBucketRateLimiter limiter = limiter();
+        scriptReturns("0", "4000", "0.2", "30.0");
+
+        RateLimitDecision decision = limiter.tryAcquire(buckets("1.2.3.4")).block();
+
+        assertFalse(decision.isAllowed());
+        assertEquals(0, decision.getRemaining());
+        // (1 - 0.2) / 0.0002 = 4000ms
+        assertEquals(4_000, decision.getRetryAfter().toMillis(), 1);
+        assertTrue(decision.toHeaders().containsKey("Retry-After"));
+        assertEquals(1.0, decisions("rejected"));
+    }
+
+    @Test
+    void exhaustedBucketIsRejectedLocallyWithoutRedis() {
+        TokenBucketRateLimiter limiter = limiter();
+        scriptReturns("0", "4000", "0.2", "30.0");
+        limiter.tryAcquire(buckets("1.2.3.4")).block();
+
+        RateLimitDecision decision = limiter.tryAcquire(buckets("1.2.3.4")).block();
+
+        assertFalse(decision.isAllowed());
+        // 그 사이 충전된 만큼만 줄어든다
+        long retryAfter = decision.getRetryAfter().toMillis();
+        assertTrue(retryAfter > 3_500 && retryAfter <= 4_001, "retry after " + retryAfter);
+        verify(redis, times(1)).execute(anyScript(), anyList(), anyList());
+        assertEquals(1.0, decisions("rejected_local"));
+    }
+
+    @Test
+    void localCheckLooksAtEveryBucket() {
+        TokenBucketRateLimiter limiter = limiter();
+        // 사용자 버킷은 넉넉하지만 캐릭터 버킷은 0.5 개만 남았다
+        scriptReturns("1", "0", "5.0", "0.5");
+        assertTrue(limiter.tryAcquire(buckets("1.2.3.4")).block().isAllowed());
+
+        // 같은 캐릭터로 보내는 다른 클라이언트도 캐릭터 버킷 때문에 바로 거절된다
+        RateLimitDecision decision = limiter.tryAcquire(buckets("5.6.7.8")).block();
+
+        assertFalse(decision.isAllowed());
+        long retryAfter = decision.getRetryAfter().toMillis();
+        assertTrue(retryAfter > 400 && retryAfter <= 501, "retry after " + retryAfter);
+        verify(redis, times(1)).execute(anyScript(), anyList(), anyList());
+    }
+
+    @Test
+    void localEstimateRefillsOverTime() throws InterruptedException {
+        TokenBucketRateLimiter limiter = limiter();
+        // 밀리초당 0.001 개씩 차므로 5ms 뒤에는 1 개를 넘는다
+        scriptReturns("0", "1", "9.0", "0.999");
+        limiter.tryAcquire(buckets("1.2.3.4")).block();
+
+        Thread.sleep(5);
+        scriptReturns("1", "0", "8.0", "0.004");
+        RateLimitDecision decision = limiter.tryAcquire(buckets("1.2.3.4")).block();
+
+        assertTrue(decision.isAllowed());
+        verify(redis, times(2)).execute(anyScript(), anyList(), anyList());
+        assertEquals(0.0, decisions("rejected_local"));
+    }
+
+    @Test
+    void redisFailureFailsOpen() {
+        TokenBucketRateLimiter limiter = limiter();
+        doReturn(Flux.error(new RedisConnectionFailureException("down")))
+                .when(redis).execute(anyScript(), anyList(), anyList());
+
+        RateLimitDecision decision = limiter.tryAcquire(buckets("1.2.3.4")).block();
+
+        assertTrue(decision.isAllowed());
+        assertFalse(decision.isLimited());
+        assertTrue(decision.toHeaders().isEmpty());
+        assertEquals(1.0, decisions("unavailable"));
+    }
+
+    private TokenBucketRateLimiter limiter() {
+        return new TokenBucketRateLimiter(redis, meterRegistry, true, 100);
+    }
+
+    private static List<RateLimitBucket> buckets(String clientAddress) {
+        return List.of(USER.forSubject(RateLimitPolicy.userKey(clientAddress)), CHARACTER.forSubject("7"));
+    }
+
+    // token-bucket.lua 의 반환 형식: { 허용(1/0), 재시도까지 ms, 버킷별 남은 토큰... }
+    private void scriptReturns(String... result) {
+        doReturn(Flux.just(List.of((Object[]) result)))
+                .when(redis).execute(anyScript(), anyList(), anyList());
+    }
+
+    // token-bucket.lua 는 문자열 목록을 돌려준다 (raw 타입 매처의 unchecked 경고를 피하려고 타입을 지정한다)
+    private static RedisScript<List<Object>> anyScript() {
+        return any();
+    }
+
+    private double decisions(String outcome) {
+        return meterRegistry.get("ratelimit.decisions").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,142 @@
+package com.datewithai.global.ratelimit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * redis/token-bucket.lua 를 실제 Redis 에서 실행해 충전 계산, 여러 버킷의 전부-아니면-전무 차감,
+ * 거절 시 어떤 버킷도 줄지 않는 것을 확인한다. Docker 가 없으면 건너뛴다.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class TokenBucketScriptTest {
+
+    // 분당 1개: 테스트 중에는 사실상 충전되지 않는다
+    private static final double SLOW = 1 / 60_000.0;
+    // 분당 60개 = 밀리초당 0.001개
+    private static final double FAST = 0.001;
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/token-bucket.lua"), List.class);
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7.4-alpine"))
+            .withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static ReactiveStringRedisTemplate redis;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redis = new ReactiveStringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void newBucketStartsFullAndExpiresOnceRefilled() {
+        String key = key();
+
+        List<?> result = run(List.of(key), 5, SLOW);
+
+        assertEquals("1", result.get(0));
+        assertEquals(4.0, tokens(result, 0), 0.01);
+        long ttl = redis.getExpire(key).block().toMillis();
+        // 1 개가 다시 차는 데 60초 + 여유 1초
+        assertTrue(ttl > 55_000 && ttl <= 61_000, "ttl " + ttl);
+    }
+
+    @Test
+    void emptyBucketReportsRetryAfterAndRefillsAtItsRate() throws InterruptedException {
+        String key = key();
+        assertEquals("1", run(List.of(key), 2, FAST).get(0));
+        assertEquals("1", run(List.of(key), 2, FAST).get(0));
+
+        List<?> rejected = run(List.of(key), 2, FAST);
+        assertEquals("0", rejected.get(0));
+        double remaining = tokens(rejected, 0);
+        assertTrue(remaining < 1, "tokens " + remaining);
+        // 재시도 시각은 (1 - 남은 토큰) / 충전 속도
+        long retry = Long.parseLong((String) rejected.get(1));
+        assertEquals(Math.ceil((1 - remaining) / FAST), retry, 1);
+
+        Thread.sleep(retry + 50);
+        List<?> refilled = run(List.of(key), 2, FAST);
+        assertEquals("1", refilled.get(0));
+        assertTrue(tokens(refilled, 0) < 1, "only one token should have been refilled");
+    }
+
+    @Test
+    void bucketNeverRefillsPastCapacity() throws InterruptedException {
+        String key = key();
+        run(List.of(key), 2, FAST);
+
+        // 2 초면 2 개가 차지만 capacity 2 에서 멈춘다
+        Thread.sleep(2_000);
+        List<?> result = run(List.of(key), 2, FAST);
+
+        assertEquals(1.0, tokens(result, 0), 0.01);
+    }
+
+    @Test
+    void rejectionByOneBucketDebitsNone() {
+        String user = key();
+        String character = key();
+        List<String> keys = List.of(user, character);
+        assertEquals("1", run(keys, 1, SLOW, 5, SLOW).get(0));
+
+        // 사용자 버킷이 비었으므로 캐릭터 버킷도 그대로 4 개여야 한다
+        List<?> rejected = run(keys, 1, SLOW, 5, SLOW);
+        assertEquals("0", rejected.get(0));
+        assertEquals(4.0, tokens(rejected, 1), 0.01);
+        assertEquals(4.0, Double.parseDouble((String) redis.opsForHash().get(character, "tokens").block()), 0.01);
+
+        // 다른 사용자는 같은 캐릭터 버킷에서 정상적으로 1 개를 뺀다
+        List<?> other = run(List.of(key(), character), 1, SLOW, 5, SLOW);
+        assertEquals("1", other.get(0));
+        assertEquals(3.0, tokens(other, 1), 0.01);
+    }
+
+    // capacity, rate 를 버킷 순서대로 번갈아 넘긴다
+    private static List<?> run(List<String> keys, double... capacityAndRate) {
+        List<String> args = new ArrayList<>();
+        for (int i = 0; i < capacityAndRate.length; i += 2) {
+            args.add(String.valueOf((int) capacityAndRate[i]));
+            args.add(String.valueOf(capacityAndRate[i + 1]));
+        }
+        return redis.execute(SCRIPT, keys, args).next().block(Duration.ofSeconds(5));
+    }
+
+    private static double tokens(List<?> result, int bucket) {
+        return Double.parseDouble((String) result.get(bucket + 2));
+    }
+
+    private static String key() {
+        return "ratelimit:test:" + UUID.randomUUID();
+    }
+}
@@ -0,0 +1,213 @@
+package com.datewithai.global.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * HnswIndex 의 검색 정확도(전수 비교 대비 recall), 삭제와 compacted(), 스냅샷 왕복을 확인한다.
+ * 벡터는 고정 시드로 만들므로 실행마다 같은 그래프가 만들어진다.
+ */
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+    private static final int M = 16;
+    private static final int EF_CONSTRUCTION = 100;
+    private static final int EF_SEARCH = 64;
+    private static final int K = 10;
+
+    @Test
+    void recallAgainstBruteForceIsHigh() {
+        Random random = new Random(7);
+        float[][] corpus = randomVectors(random, 2000);
+        HnswIndex index = indexOf(corpus);
+
+        int hits = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector(random);
+            Set<Long> expected = bruteForce(corpus, query, K, Set.of());
+            for (HnswIndex.Neighbor neighbor : index.search(query, K, EF_SEARCH)) {
+                if (expected.contains(neighbor.getId())) {
+                    hits++;
+                }
+            }
+        }
+        double recall = hits / (double) (queries * K);
+        assertTrue(recall >= 0.9, "recall@" + K + " was " + recall);
+    }
+
+    @Test
+    void searchReturnsStoredVectorFirstWithCosineDistance() {
+        float[][] corpus = randomVectors(new Random(11), 200);
+        HnswIndex index = indexOf(corpus);
+
+        List<HnswIndex.Neighbor> results = index.search(corpus[42], K, EF_SEARCH);
+        assertEquals(42L, results.get(0).getId());
+        assertEquals(0.0f, results.get(0).getDistance(), 1e-5f);
+        for (int i = 1; i < results.size(); i++) {
+            assertTrue(results.get(i - 1).getDistance() <= results.get(i).getDistance());
+        }
+        // 길이가 달라도 방향이 같으면 같은 벡터로 본다 (pgvector <=> 와 같다)
+        float[] scaled = corpus[42].clone();
+        for (int d = 0; d < scaled.length; d++) {
+            scaled[d] *= 3;
+        }
+        assertEquals(42L, index.search(scaled, 1, EF_SEARCH).get(0).getId());
+    }
+
+    @Test
+    void addingExistingIdReplacesVector() {
+        float[][] corpus = randomVectors(new Random(13), 100);
+        HnswIndex index = indexOf(corpus);
+
+        index.add(5, corpus[77]);
+        assertEquals(100, index.size());
+        Set<Long> top = ids(index.search(corpus[77], 2, EF_SEARCH));
+        assertEquals(Set.of(5L, 77L), top);
+    }
+
+    @Test
+    void rejectsVectorsOfOtherDimensions() {
+        HnswIndex index = new HnswIndex(DIMENSIONS, M, EF_CONSTRUCTION);
+        assertThrows(IllegalArgumentException.class, () -> index.add(1, new float[DIMENSIONS + 1]));
+        assertThrows(IllegalArgumentException.class, () -> index.search(new float[DIMENSIONS - 1], K, EF_SEARCH));
+        assertTrue(index.search(new float[DIMENSIONS], K, EF_SEARCH).isEmpty());
+    }
+
+    @Test
+    void removedVectorsAreNeverReturnedAndCompactionKeepsTheRest() {
+        Random random = new Random(17);
+        float[][] corpus = randomVectors(random, 400);
+        HnswIndex index = indexOf(corpus);
+
+        Set<Long> removed = new HashSet<>();
+        for (long id = 0; id < corpus.length; id += 3) {
+            assertTrue(index.remove(id));
+            removed.add(id);
+        }
+        assertFalse(index.remove(0));
+        assertFalse(index.remove(10_000));
+        assertEquals(corpus.length - removed.size(), index.size());
+        assertTrue(index.needsCompaction());
+
+        HnswIndex compacted = index.compacted();
+        assertEquals(index.size(), compacted.size());
+        assertFalse(compacted.needsCompaction());
+
+        for (int q = 0; q < 20; q++) {
+            float[] query = randomVector(random);
+            Set<Long> expected = bruteForce(corpus, query, K, removed);
+            for (HnswIndex candidate : List.of(index, compacted)) {
+                Set<Long> found = ids(candidate.search(query, K, EF_SEARCH));
+                assertEquals(K, found.size());
+                assertTrue(found.stream().noneMatch(removed::contains), "deleted vector returned: " + found);
+            }
+            // 삭제 표시가 없는 새 그래프에서는 전수 비교와 거의 같아야 한다
+            Set<Long> found = ids(compacted.search(query, K, EF_SEARCH));
+            found.retainAll(expected);
+            assertTrue(found.size() >= K - 2, "compacted recall too low: " + found.size());
+        }
+    }
+
+    @Test
+    void snapshotRoundTripPreservesGraphAndDeletions() {
+        Random random = new Random(19);
+        float[][] corpus = randomVectors(random, 300);
+        HnswIndex index = indexOf(corpus);
+        index.remove(3);
+        index.remove(150);
+
+        ByteBuffer buffer = ByteBuffer.allocate(index.snapshotSize());
+        index.writeTo(buffer);
+        assertEquals(buffer.capacity(), buffer.position());
+        buffer.flip();
+        HnswIndex restored = HnswIndex.readFrom(buffer);
+
+        assertEquals(index.dimensions(), restored.dimensions());
+        assertEquals(index.size(), restored.size());
+        assertEquals(index.snapshotSize(), restored.snapshotSize());
+        assertFalse(restored.remove(3));
+        for (int q = 0; q < 20; q++) {
+            float[] query = randomVector(random);
+            List<HnswIndex.Neighbor> before = index.search(query, K, EF_SEARCH);
+            List<HnswIndex.Neighbor> after = restored.search(query, K, EF_SEARCH);
+            assertEquals(before.stream().map(HnswIndex.Neighbor::getId).toList(),
+                    after.stream().map(HnswIndex.Neighbor::getId).toList());
+        }
+
+        // 복원한 인덱스에도 이어서 추가할 수 있다
+        restored.add(1_000, corpus[0]);
+        assertEquals(index.size() + 1, restored.size());
+    }
+
+    @Test
+    void readFromRejectsForeignData() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        buffer.putInt(0xCAFEBABE).putInt(1).flip();
+        assertThrows(IllegalArgumentException.class, () -> HnswIndex.readFrom(buffer));
+    }
+
+    private static HnswIndex indexOf(float[][] corpus) {
+        HnswIndex index = new HnswIndex(DIMENSIONS, M, EF_CONSTRUCTION);
+        for (int i = 0; i < corpus.length; i++) {
+            index.add(i, corpus[i]);
+        }
+        return index;
+    }
+
+    // 코사인 거리 기준 정답 top-k (excluded 는 제외)
+    private static Set<Long> bruteForce(float[][] corpus, float[] query, int k, Set<Long> excluded) {
+        return new HashSet<>(IntStream.range(0, corpus.length)
+                .filter(i -> !excluded.contains((long) i))
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> cosineDistance(corpus[i], query)))
+                .limit(k)
+                .map(Integer::longValue)
+                .toList());
+    }
+
+    private static double cosineDistance(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int d = 0; d < a.length; d++) {
+            dot += a[d] * b[d];
+            normA += a[d] * a[d];
+            normB += b[d] * b[d];
+        }
+        return 1 - dot / Math.sqrt(normA * normB);
+    }
+
+    private static Set<Long> ids(List<HnswIndex.Neighbor> neighbors) {
+        Set<Long> ids = new HashSet<>();
+        neighbors.forEach(neighbor -> ids.add(neighbor.getId()));
+        return ids;
+    }
+
+    private static float[][] randomVectors(Random random, int count) {
+        float[][] vectors = new float[count][];
+        Arrays.setAll(vectors, i -> randomVector(random));
+        return vectors;
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            vector[d] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -26,4 +26,10 @@ class Config:
     MAX_TOKENS = 200  # 더 짧은 응답으로 속도 향상
     TEMPERATURE = 0.5  # 낮은 temperature로 더 일관된 빠른 응답
     SIMILARITY_THRESHOLD = 0.5  # 더 많은 관련 컨텍스트를 가져오도록 임계값 낮춤
-    MAX_SEARCH_RESULTS = 2  # 검색 결과를 더 줄여서 속도 향상
\ No newline at end of file
+    MAX_SEARCH_RESULTS = 2  # 검색 결과를 더 줄여서 속도 향상
+    # /health 에서 Ollama 응답을 기다리는 시간 (Spring 쪽 ai.python-service.timeouts.health 보다 짧게)
+    HEALTH_CHECK_TIMEOUT = float(os.getenv("HEALTH_CHECK_TIMEOUT", 1.5))
+
+    # 분산 추적 (OTLP 엔드포인트가 있을 때만 켠다. 예: http://localhost:4318)
+    OTEL_EXPORTER_OTLP_ENDPOINT = os.getenv("OTEL_EXPORTER_OTLP_ENDPOINT")
+    OTEL_SERVICE_NAME = os.getenv("OTEL_SERVICE_NAME", "datewithai-python")
@@ -66,6 +66,27 @@ class EmbeddingService:
             print(f"임베딩 생성 오류: {e}")
             return None
     
+    def create_embeddings(self, texts: List[str]) -> List[List[float]]:
+        """여러 텍스트를 한 번의 요청으로 임베딩합니다. 입력 순서와 결과 순서가 같습니다."""
+        try:
+            response = self.client.post(
+                f"{self.ollama_base_url}/api/embed",
+                json={
+                    "model": self.model,
+                    "input": texts
+                }
+            )
+            if response.status_code == 200:
+                embeddings = response.json().get("embeddings", [])
+                if len(embeddings) == len(texts):
+                    return embeddings
+            print(f"배치 임베딩 오류: HTTP {response.status_code}, 개별 요청으로 재시도")
+        except Exception as e:
+            print(f"배치 임베딩 오류: {e}, 개별 요청으로 재시도")
+        
+        # /api/embed 를 지원하지 않는 Ollama 버전에서는 한 건씩 처리 (실패한 항목은 None)
+        return [self.create_embedding(text) for text in texts]
+    
     def create_embeddings_batch(self, texts: List[str]) -> List[List[float]]:
         embeddings = []
         for text in texts:
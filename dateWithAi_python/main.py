@@ -1,16 +1,20 @@
 from fastapi import FastAPI, HTTPException
-from fastapi.responses import StreamingResponse
+from fastapi.responses import JSONResponse, StreamingResponse
+from starlette.concurrency import run_in_threadpool
 from pydantic import BaseModel
 from typing import List, Optional
 import uvicorn
 import json
+import httpx
 
 from embedding_service import EmbeddingService
 from vector_db import VectorDatabase
 from ai_response import AIResponseGenerator
 from config import Config
+from tracing import setup_tracing
 
 app = FastAPI(title="DateWithAI Game Logic", version="1.0.0")
+setup_tracing(app)
 
 embedding_service = EmbeddingService()
 vector_db = VectorDatabase()
@@ -22,12 +26,27 @@ class ChatRequest(BaseModel):
     character_info: Optional[str] = None
     emotion: Optional[str] = None
     emotion_intensity: Optional[float] = 0.5
+    conversation_context: Optional[str] = None
+    story_context: Optional[str] = None
+
+def compose_character_info(request: ChatRequest) -> Optional[str]:
+    """캐릭터 설정 뒤에 Spring 쪽에서 보내준 관련 스토리와 대화 맥락을 붙입니다."""
+    sections = [request.character_info, request.story_context, request.conversation_context]
+    composed = "\n\n".join(section for section in sections if section)
+    return composed or None
 
 class ChatResponse(BaseModel):
     response: str
     context_used: List[dict]
     similarity_scores: List[float]
 
+class EmbedRequest(BaseModel):
+    texts: List[str]
+
+class EmbedResponse(BaseModel):
+    model: str
+    embeddings: List[Optional[List[float]]]
+
 class FileUploadRequest(BaseModel):
     file_path: str
     character_id: Optional[str] = None
@@ -65,7 +84,7 @@ async def chat_with_ai(request: ChatRequest):
             response = ai_generator.generate_game_response(
                 user_message=request.message,
                 context_chunks=context_chunks,
-                character_info=request.character_info
+                character_info=compose_character_info(request)
             )
         
         similarity_scores = [chunk.get('similarity', 0) for chunk in context_chunks]
@@ -79,6 +98,17 @@ async def chat_with_ai(request: ChatRequest):
     except Exception as e:
         raise HTTPException(status_code=500, detail=f"채팅 처리 오류: {str(e)}")
 
+@app.post("/embed", response_model=EmbedResponse)
+async def embed_texts(request: EmbedRequest):
+    """Spring 의 임베딩 백필 작업이 사용하는 배치 임베딩 API (실패한 항목은 null)"""
+    if not request.texts:
+        return EmbedResponse(model=Config.EMBEDDING_MODEL, embeddings=[])
+    try:
+        embeddings = await run_in_threadpool(embedding_service.create_embeddings, request.texts)
+        return EmbedResponse(model=Config.EMBEDDING_MODEL, embeddings=[e or None for e in embeddings])
+    except Exception as e:
+        raise HTTPException(status_code=500, detail=f"임베딩 생성 오류: {str(e)}")
+
 @app.post("/upload-knowledge")
 async def upload_knowledge(request: FileUploadRequest):
     try:
@@ -139,7 +169,7 @@ async def chat_with_ai_stream(request: ChatRequest):
             response_generator = ai_generator.generate_game_response_stream(
                 user_message=request.message,
                 context_chunks=context_chunks,
-                character_info=request.character_info
+                character_info=compose_character_info(request)
             )
         
         async def stream_response():
@@ -177,6 +207,13 @@ async def chat_with_ai_stream(request: ChatRequest):
 
 @app.get("/health")
 async def health_check():
+    """Spring 쪽 서킷 브레이커가 반열림 상태에서 보내는 확인 요청. Ollama 까지 응답해야 정상으로 봅니다."""
+    try:
+        async with httpx.AsyncClient(timeout=Config.HEALTH_CHECK_TIMEOUT) as client:
+            response = await client.get(f"{Config.OLLAMA_BASE_URL}/api/tags")
+            response.raise_for_status()
+    except httpx.HTTPError as e:
+        return JSONResponse(status_code=503, content={"status": "unhealthy", "message": f"Ollama 응답 없음: {e}"})
     return {"status": "healthy", "message": "AI 게임 로직 서버 정상 동작"}
 
 if __name__ == "__main__":
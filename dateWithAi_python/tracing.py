@@ -0,0 +1,31 @@
+from config import Config
+
+
+def setup_tracing(app) -> bool:
+    """Spring 백엔드가 보낸 W3C traceparent 를 이어받아 요청, Ollama 호출, DB 쿼리를 span 으로 남깁니다.
+
+    OTEL_EXPORTER_OTLP_ENDPOINT 가 없으면 아무것도 하지 않습니다.
+    httpx 클라이언트보다 먼저 호출해야 Ollama 호출이 계측됩니다.
+    """
+    if not Config.OTEL_EXPORTER_OTLP_ENDPOINT:
+        return False
+
+    from opentelemetry import trace
+    from opentelemetry.exporter.otlp.proto.http.trace_exporter import OTLPSpanExporter
+    from opentelemetry.instrumentation.fastapi import FastAPIInstrumentor
+    from opentelemetry.instrumentation.httpx import HTTPXClientInstrumentor
+    from opentelemetry.instrumentation.psycopg2 import Psycopg2Instrumentor
+    from opentelemetry.sdk.resources import SERVICE_NAME, Resource
+    from opentelemetry.sdk.trace import TracerProvider
+    from opentelemetry.sdk.trace.export import BatchSpanProcessor
+
+    provider = TracerProvider(resource=Resource.create({SERVICE_NAME: Config.OTEL_SERVICE_NAME}))
+    endpoint = Config.OTEL_EXPORTER_OTLP_ENDPOINT.rstrip("/") + "/v1/traces"
+    provider.add_span_processor(BatchSpanProcessor(OTLPSpanExporter(endpoint=endpoint)))
+    trace.set_tracer_provider(provider)
+
+    # 헬스 체크는 추적하지 않는다
+    FastAPIInstrumentor.instrument_app(app, excluded_urls="health")
+    HTTPXClientInstrumentor().instrument()
+    Psycopg2Instrumentor().instrument()
+    return True